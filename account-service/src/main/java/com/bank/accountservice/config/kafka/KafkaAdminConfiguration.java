@@ -3,16 +3,21 @@ package com.bank.accountservice.config.kafka;
 import java.util.Map;
 
 import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.NewTopic;
 import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.actuate.health.Health;
 import org.springframework.boot.actuate.health.HealthIndicator;
 import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
 import org.springframework.boot.ssl.SslBundles;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.KafkaAdmin;
 import org.springframework.stereotype.Component;
 
+import com.bank.accountservice.kafka.KafkaTopics;
+
 @Configuration(proxyBeanMethods = false)
 public class KafkaAdminConfiguration {
 
@@ -24,7 +29,45 @@ public class KafkaAdminConfiguration {
         SslBundles sslBundles = sslBundlesProvider.getIfAvailable();
         Map<String, Object> configs =
                 kafkaProperties.buildAdminProperties(sslBundles);
-        return new KafkaAdmin(configs);
+        KafkaAdmin kafkaAdmin = new KafkaAdmin(configs);
+        // Aplica también a los topics ya creados la compactación de los de cuentas
+        kafkaAdmin.setModifyTopicConfigs(true);
+        return kafkaAdmin;
+    }
+
+    /**
+     * Topics publicados por este servicio. Los eventos se publican con clave (id de
+     * cuenta o de agregado), así que el número de particiones fija el paralelismo
+     * máximo de los consumidores manteniendo el orden por cuenta.
+     *
+     * Los topics de cuentas se compactan: basta el último evento de cada cuenta para
+     * reconstruir una réplica desde el principio del topic.
+     */
+    @Bean
+    public KafkaAdmin.NewTopics producedTopics(
+            @Value("${spring.kafka.topics.partitions:6}") int partitions,
+            @Value("${spring.kafka.topics.replication-factor:1}") short replicationFactor
+    ) {
+        return new KafkaAdmin.NewTopics(
+                compactedTopic(KafkaTopics.ACCOUNT_CREATED, partitions, replicationFactor),
+                compactedTopic(KafkaTopics.ACCOUNT_UPDATED, partitions, replicationFactor),
+                topic(KafkaTopics.TRANSACTION_COMPLETED, partitions, replicationFactor)
+        );
+    }
+
+    private static NewTopic topic(String name, int partitions, short replicationFactor) {
+        return TopicBuilder.name(name)
+                .partitions(partitions)
+                .replicas(replicationFactor)
+                .build();
+    }
+
+    private static NewTopic compactedTopic(String name, int partitions, short replicationFactor) {
+        return TopicBuilder.name(name)
+                .partitions(partitions)
+                .replicas(replicationFactor)
+                .compact()
+                .build();
     }
 
     @Component
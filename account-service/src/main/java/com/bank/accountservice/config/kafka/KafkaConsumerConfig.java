@@ -5,6 +5,7 @@ import org.apache.kafka.common.serialization.StringDeserializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
@@ -17,6 +18,9 @@ import org.springframework.kafka.support.serializer.JsonDeserializer;
 import org.springframework.util.backoff.FixedBackOff;
 
 import com.bank.accountservice.event.consumer.TransactionProcessedEvent;
+import com.bank.accountservice.kafka.consumer.ConsumerLagInterceptor;
+import com.bank.accountservice.kafka.consumer.ProcessedEventRebalanceListener;
+import com.bank.accountservice.observability.MetricService;
 
 import jakarta.validation.ValidationException;
 import lombok.RequiredArgsConstructor;
@@ -35,8 +39,21 @@ public class KafkaConsumerConfig {
     @Value("${spring.kafka.consumer.group-id}")
     private String groupId;
 
+    @Value("${spring.kafka.listener.concurrency:1}")
+    private int listenerConcurrency;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Value("${spring.kafka.consumer.max-poll-records:500}")
+    private int maxPollRecords;
+
     private final KafkaTemplate<String, String> kafkaTemplate;
 
+    private final ProcessedEventRebalanceListener processedEventRebalanceListener;
+
+    private final MetricService metricService;
+
     /**
      * Consumer factory for TransactionProcessedEvent
      * Deserializes records of topic "transaction.requested"
@@ -51,17 +68,26 @@ public class KafkaConsumerConfig {
         props.put(JsonDeserializer.VALUE_DEFAULT_TYPE, TransactionProcessedEvent.class.getName());
         props.put(JsonDeserializer.TRUSTED_PACKAGES, "com.bank.transactionservice.event.producer");
         props.put(JsonDeserializer.USE_TYPE_INFO_HEADERS, false);
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
 
         return new DefaultKafkaConsumerFactory<>(props);
     }
 
+    /**
+     * Batch listener: each poll is delivered as a list and acknowledged once
+     */
     @Bean
     public ConcurrentKafkaListenerContainerFactory<String, TransactionProcessedEvent> transactionProcessedEventKafkaListenerContainerFactory() {
         ConcurrentKafkaListenerContainerFactory<String, TransactionProcessedEvent> factory =
             new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(transactionProcessedEventConsumerFactory());
+        factory.setBatchListener(true);
         factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.setConcurrency(listenerConcurrency);
+        factory.getContainerProperties().setConsumerRebalanceListener(processedEventRebalanceListener);
         factory.setCommonErrorHandler(defaultErrorHandler(kafkaTemplate));
+        factory.setBatchInterceptor(new ConsumerLagInterceptor<>(metricService));
+        useVirtualThreads(factory, "transaction-processed-");
         return factory;
     }
 
@@ -83,4 +109,17 @@ public class KafkaConsumerConfig {
         return handler;
     }
 
+    /**
+     * Con spring.threads.virtual.enabled los consumidores corren en hilos virtuales. Spring
+     * Boot solo lo aplica a su propia factoría de contenedores, así que las de esta clase
+     * se configuran aquí.
+     */
+    private void useVirtualThreads(ConcurrentKafkaListenerContainerFactory<?, ?> factory, String threadNamePrefix) {
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+            executor.setVirtualThreads(true);
+            factory.getContainerProperties().setListenerTaskExecutor(executor);
+        }
+    }
+
 }
@@ -1,6 +1,7 @@
 package com.bank.accountservice.controller;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -8,7 +9,9 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -20,13 +23,20 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.Valid;
 
 import com.bank.accountservice.dto.request.AccountRequestDTO;
+import com.bank.accountservice.dto.response.AccountPageResponseDTO;
 import com.bank.accountservice.dto.response.AccountResponseDTO;
 import com.bank.accountservice.mapper.AccountMapper;
 import com.bank.accountservice.model.account.Account;
+import com.bank.accountservice.service.AccountCursor;
+import com.bank.accountservice.service.AccountListingService;
+import com.bank.accountservice.service.AccountListingService.AccountPage;
 import com.bank.accountservice.service.AccountService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -44,9 +54,12 @@ public class AccountController {
 
     private final AccountService accountService;
     private final AccountMapper accountMapper;
+    private final AccountListingService accountListingService;
+    private final ObjectMapper objectMapper;
 
     @GetMapping
-    @Operation(summary = "Obtener todas las cuentas", description = "Recupera una lista de todas las cuentas bancarias")
+    @Operation(summary = "Obtener todas las cuentas", deprecated = true,
+               description = "Recupera una lista de todas las cuentas bancarias. Carga todas en memoria: usar /page o /stream")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Lista de cuentas obtenida exitosamente",
                      content = @Content(mediaType = "application/json", schema = @Schema(implementation = AccountResponseDTO.class)))
@@ -59,6 +72,46 @@ public class AccountController {
                 .collect(Collectors.toList());
     }
 
+    @GetMapping("/page")
+    @Operation(summary = "Obtener una página de cuentas",
+               description = "Recupera hasta limit cuentas ordenadas por fecha de creación, a partir del cursor after")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Página de cuentas obtenida exitosamente",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = AccountPageResponseDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Cursor o límite inválidos", content = @Content)
+    })
+    public AccountPageResponseDTO getPage(
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        log.info("[AccountController] GET /bank_system/accounts/page - After: {}, Limit: {}", after, limit);
+        AccountPage page = accountListingService.findPage(after == null ? null : AccountCursor.decode(after), limit);
+        return AccountPageResponseDTO.builder()
+                .accounts(page.accounts().stream().map(accountMapper::fromEntityToResponse).toList())
+                .nextCursor(page.nextCursor() == null ? null : page.nextCursor().encode())
+                .build();
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Exportar todas las cuentas",
+               description = "Devuelve todas las cuentas en NDJSON, una por línea, a medida que se leen de la base de datos")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Cuentas exportadas",
+                     content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = AccountResponseDTO.class)))
+    })
+    public ResponseEntity<StreamingResponseBody> streamAccounts() {
+        log.info("[AccountController] GET /bank_system/accounts/stream");
+        StreamingResponseBody body = out -> accountListingService.streamAccounts(account -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(account));
+                out.write('\n');
+            } catch (IOException e) {
+                // Normalmente el cliente ha cerrado la conexión: corta el recorrido del cursor
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Obtener cuenta por ID", description = "Recupera una cuenta específica por su ID")
     @ApiResponses(value = {
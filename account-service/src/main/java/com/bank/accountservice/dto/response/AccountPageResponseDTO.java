@@ -0,0 +1,17 @@
+package com.bank.accountservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AccountPageResponseDTO {
+    private List<AccountResponseDTO> accounts;
+    private String nextCursor;
+}
@@ -0,0 +1,11 @@
+package com.bank.accountservice.exception;
+
+public class CouldNotPersistLedger extends RuntimeException {
+    public CouldNotPersistLedger(String message) {
+        super(message);
+    }
+
+    public CouldNotPersistLedger(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,55 @@
+package com.bank.accountservice.kafka.consumer;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.listener.BatchInterceptor;
+import org.springframework.kafka.listener.RecordInterceptor;
+
+import com.bank.accountservice.observability.MetricService;
+
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Registra el retraso de consumo de cada registro en el histograma de su partición:
+ * tiempo entre el timestamp que le asignó Kafka y su entrega al listener.
+ * Se instala en las factorías de contenedores de KafkaConsumerConfig, tanto para
+ * listeners por lote como por registro.
+ */
+public class ConsumerLagInterceptor<K, V> implements BatchInterceptor<K, V>, RecordInterceptor<K, V> {
+
+    private final MetricService metricService;
+
+    public ConsumerLagInterceptor(MetricService metricService) {
+        this.metricService = metricService;
+    }
+
+    @Override
+    public ConsumerRecords<K, V> intercept(ConsumerRecords<K, V> records, Consumer<K, V> consumer) {
+        long now = System.currentTimeMillis();
+        for (TopicPartition partition : records.partitions()) {
+            Timer lag = metricService.consumerLagTimer(partition);
+            for (ConsumerRecord<K, V> consumerRecord : records.records(partition)) {
+                recordLag(lag, consumerRecord, now);
+            }
+        }
+        return records;
+    }
+
+    @Override
+    public ConsumerRecord<K, V> intercept(ConsumerRecord<K, V> consumerRecord, Consumer<K, V> consumer) {
+        Timer lag = metricService.consumerLagTimer(new TopicPartition(consumerRecord.topic(), consumerRecord.partition()));
+        recordLag(lag, consumerRecord, System.currentTimeMillis());
+        return consumerRecord;
+    }
+
+    private static void recordLag(Timer lag, ConsumerRecord<?, ?> consumerRecord, long now) {
+        // Registros sin timestamp (-1) no aportan retraso
+        if (consumerRecord.timestamp() >= 0) {
+            lag.record(Math.max(0, now - consumerRecord.timestamp()), TimeUnit.MILLISECONDS);
+        }
+    }
+}
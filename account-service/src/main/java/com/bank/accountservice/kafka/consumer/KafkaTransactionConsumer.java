@@ -2,73 +2,106 @@ package com.bank.accountservice.kafka.consumer;
 
 import com.bank.accountservice.event.consumer.TransactionProcessedEvent;
 import com.bank.accountservice.kafka.KafkaTopics;
-import com.bank.accountservice.model.events.processedevent.ProcessedEvent;
-import com.bank.accountservice.repository.ProcessedEventRepository;
-import com.bank.accountservice.service.TransactionService;
+import com.bank.accountservice.service.ProcessedEventService;
+import com.bank.accountservice.service.ProcessedEventService.Delivery;
+import com.bank.accountservice.service.TransactionBatchService.BatchFailure;
+import com.bank.accountservice.service.TransactionBatchService.BatchItem;
+import com.bank.accountservice.service.transfer.TransferEngine;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
 import org.springframework.kafka.support.Acknowledgment;
-import org.springframework.kafka.support.KafkaHeaders;
-import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class KafkaTransactionConsumer {
-    
-    private final TransactionService transactionService;
 
-    private final ProcessedEventRepository processedEventRepository;
-    
+    private static final String EVENT_ID_HEADER = "X-Event-Id";
+
+    private final TransferEngine transferEngine;
+
+    private final ProcessedEventService processedEventService;
+
     /**
-     * Consume eventos de transacciones procesadas desde Kafka.
-     * Actualiza el estado de la transacción en la base de datos.
+     * Consume en lote los eventos de transacciones solicitadas desde Kafka.
+     * Descarta las reentregas con la marca de agua de cada partición y los duplicados del
+     * productor con la caché de idempotencia, aplica el lote avanzando las marcas de agua
+     * en la misma transacción y confirma el offset una sola vez por lote.
      */
-    @KafkaListener(topics = KafkaTopics.TRANSACTION_REQUESTED, groupId = "account-service-group", 
+    @KafkaListener(topics = KafkaTopics.TRANSACTION_REQUESTED, groupId = "account-service-group",
                    containerFactory = "transactionProcessedEventKafkaListenerContainerFactory")
-    public void consume(TransactionProcessedEvent event, 
-            Acknowledgment ack,
-            @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
-            @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
-            @Header(KafkaHeaders.OFFSET) long offset,
-            @Header("X-Event-Id") String eventIdHeader) {
-        UUID eventUuid = UUID.fromString(eventIdHeader);
-        try {
+    public void consume(List<ConsumerRecord<String, TransactionProcessedEvent>> records, Acknowledgment ack) {
+        List<BatchItem> items = new ArrayList<>(records.size());
+        for (int i = 0; i < records.size(); i++) {
+            ConsumerRecord<String, TransactionProcessedEvent> consumerRecord = records.get(i);
+            items.add(new BatchItem(
+                i,
+                eventId(consumerRecord),
+                consumerRecord.value(),
+                consumerRecord.topic(),
+                consumerRecord.partition(),
+                consumerRecord.offset()
+            ));
+        }
 
-            if (processedEventRepository.existsById(eventUuid)) {
-                log.info("Evento duplicado ignorado. eventId={}", eventUuid);
-                ack.acknowledge();
-                return;
+        Map<TopicPartition, List<Delivery>> deliveriesByPartition = new LinkedHashMap<>();
+        for (BatchItem item : items) {
+            deliveriesByPartition.computeIfAbsent(new TopicPartition(item.topic(), item.partition()), tp -> new ArrayList<>())
+                .add(new Delivery(item.eventId(), item.offset()));
+        }
+        Set<UUID> seen = new HashSet<>();
+        deliveriesByPartition.forEach((tp, deliveries) ->
+            seen.addAll(processedEventService.findProcessed(tp.topic(), tp.partition(), deliveries)));
+        List<BatchItem> pending = new ArrayList<>(items.size());
+        for (BatchItem item : items) {
+            if (seen.add(item.eventId())) {
+                pending.add(item);
+            } else {
+                log.info("Evento duplicado ignorado. eventId={}", item.eventId());
             }
+        }
+
+        log.debug("[KafkaTransactionConsumer] Received batch - Records: {}, Pending: {}", records.size(), pending.size());
+
+        List<BatchFailure> failures = transferEngine.execute(pending);
+        if (!failures.isEmpty()) {
+            BatchFailure first = failures.get(0);
+            log.error("[KafkaTransactionConsumer] [TxId: {}] ❌ {} record(s) of the batch failed - first at index {}",
+                first.item().eventId(), failures.size(), first.item().index());
+            // Los registros anteriores quedan confirmados; el resto se reentrega y los ya aplicados se descartan como duplicados
+            throw new BatchListenerFailedException(
+                "Error processing transaction " + first.item().event().transactionId(),
+                first.cause(),
+                first.item().index());
+        }
+
+        ack.acknowledge();
+        log.info("[KafkaTransactionConsumer] ✅ Batch processed successfully - Records: {}, Applied: {}",
+            records.size(), pending.size());
+    }
 
-            log.debug("[KafkaTransactionConsumer] [TxId: {}] Received message - EventType: {}, Payload: {}", 
-                eventUuid, event.getClass().getSimpleName(), event);
-            
-            transactionService.doTransaction(event);
-            
-            processedEventRepository.save(
-                new ProcessedEvent(
-                    eventUuid,
-                    event.getClass().getSimpleName(),
-                    topic,
-                    partition,
-                    offset
-                )
-            );
-            ack.acknowledge();
-            log.info("[KafkaTransactionConsumer] [TxId: {}] ✅ Event processed successfully - EventType: {}", 
-                eventUuid, event.getClass().getSimpleName());
-                
-        } catch (Exception e) {
-            log.error("[KafkaTransactionConsumer] [TxId: {}] ❌ Error processing event - EventType: {}, Error: {}", 
-                eventUuid, event.getClass().getSimpleName(), e.getMessage(), e);
-            throw e;
+    private UUID eventId(ConsumerRecord<String, TransactionProcessedEvent> consumerRecord) {
+        Header header = consumerRecord.headers().lastHeader(EVENT_ID_HEADER);
+        if (header == null) {
+            throw new BatchListenerFailedException("Missing " + EVENT_ID_HEADER + " header", consumerRecord);
         }
+        return UUID.fromString(new String(header.value(), StandardCharsets.UTF_8));
     }
 }
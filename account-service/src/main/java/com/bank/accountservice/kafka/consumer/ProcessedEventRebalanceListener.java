@@ -0,0 +1,38 @@
+package com.bank.accountservice.kafka.consumer;
+
+import java.util.Collection;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.stereotype.Component;
+
+import com.bank.accountservice.service.ProcessedEventService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Mantiene la caché de idempotencia alineada con las particiones asignadas:
+ * la precarga al recibir una partición y la libera al perderla.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProcessedEventRebalanceListener implements ConsumerAwareRebalanceListener {
+
+    private final ProcessedEventService processedEventService;
+
+    @Override
+    public void onPartitionsAssigned(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        processedEventService.warm(partitions);
+    }
+
+    @Override
+    public void onPartitionsRevokedAfterCommit(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        processedEventService.evict(partitions);
+    }
+
+    @Override
+    public void onPartitionsLost(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        processedEventService.evict(partitions);
+    }
+}
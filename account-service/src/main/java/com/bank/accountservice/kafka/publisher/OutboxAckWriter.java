@@ -0,0 +1,223 @@
+package com.bank.accountservice.kafka.publisher;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bank.accountservice.observability.MetricService;
+
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Escritor asíncrono del estado de los eventos outbox.
+ * El callback del productor de Kafka solo encola la confirmación; un hilo dedicado
+ * las agrupa y las persiste por lote, cuando se alcanza el tamaño de lote o vence el
+ * intervalo de flush, con un UPDATE ... FROM (VALUES ...) para los enviados, que guarda
+ * el sent_at de cada evento, y otro para los fallidos. Ambos casan por la clave primaria
+ * completa (id, created_at) para que Postgres pode las particiones diarias de outbox_event
+ * en lugar de buscar el id en todas.
+ *
+ * Si la cola está llena la confirmación se descarta: el lease del evento caduca y
+ * se vuelve a publicar (entrega al menos una vez, los consumidores deduplican).
+ */
+@Slf4j
+@Component
+public class OutboxAckWriter implements SmartLifecycle {
+
+    private static final String MARK_SENT = """
+        UPDATE outbox_event e
+        SET status = 'SENT', sent_at = v.sent_at, locked_by = NULL, locked_until = NULL
+        FROM (VALUES %s) AS v(id, created_at, sent_at)
+        WHERE e.id = v.id AND e.created_at = v.created_at
+        """;
+    private static final String SENT_ROW = "(CAST(? AS uuid), CAST(? AS timestamp), CAST(? AS timestamp))";
+    private static final String MARK_FAILED = """
+        UPDATE outbox_event e
+        SET attempts = e.attempts + 1,
+            status = CASE WHEN e.attempts + 1 >= ? THEN 'FAILED' ELSE 'PENDING' END,
+            locked_by = NULL, locked_until = NULL
+        FROM (VALUES %s) AS v(id, created_at)
+        WHERE e.id = v.id AND e.created_at = v.created_at
+        """;
+    private static final String FAILED_ROW = "(CAST(? AS uuid), CAST(? AS timestamp))";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MetricService metricService;
+    private final BlockingQueue<OutboxAck> queue;
+    private final int flushSize;
+    private final long flushIntervalNanos;
+    private final int maxAttempts;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public OutboxAckWriter(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            MetricService metricService,
+            @Value("${spring.outbox.ack.queue-capacity:10000}") int queueCapacity,
+            @Value("${spring.outbox.ack.flush-size:500}") int flushSize,
+            @Value("${spring.outbox.ack.flush-interval-ms:50}") long flushIntervalMs,
+            @Value("${spring.outbox.max-attempts:5}") int maxAttempts) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.metricService = metricService;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.flushSize = flushSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        this.maxAttempts = maxAttempts;
+        metricService.outboxAckQueueDepth(queue);
+    }
+
+    /**
+     * Encola la confirmación de un evento publicado correctamente y registra cuánto
+     * tardó desde que se escribió en el outbox.
+     */
+    public void sent(UUID eventId, LocalDateTime createdAt) {
+        LocalDateTime sentAt = LocalDateTime.now();
+        metricService.outboxSendLagTimer().record(Duration.between(createdAt, sentAt));
+        enqueue(new OutboxAck(eventId, createdAt, true, sentAt));
+    }
+
+    /**
+     * Encola un intento de publicación fallido.
+     */
+    public void failed(UUID eventId, LocalDateTime createdAt) {
+        enqueue(new OutboxAck(eventId, createdAt, false, LocalDateTime.now()));
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    private void enqueue(OutboxAck ack) {
+        if (!queue.offer(ack)) {
+            metricService.outboxAckDropped().increment();
+            log.warn("[OutboxAckWriter] Queue full, acknowledgement dropped - EventId: {}, Sent: {}", ack.eventId(), ack.sent());
+        }
+    }
+
+    private void run() {
+        List<OutboxAck> batch = new ArrayList<>(flushSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                OutboxAck first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < flushSize) {
+                    long remaining = deadline - System.nanoTime();
+                    OutboxAck next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            } catch (RuntimeException e) {
+                // Los eventos siguen con lease: se republicarán cuando caduque
+                log.error("[OutboxAckWriter] ❌ Flush failed, {} acknowledgements lost - Error: {}", batch.size(), e.getMessage(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<OutboxAck> batch) {
+        List<OutboxAck> sent = new ArrayList<>(batch.size());
+        List<OutboxAck> failed = new ArrayList<>();
+        for (OutboxAck ack : batch) {
+            if (ack.sent()) {
+                sent.add(ack);
+            } else {
+                failed.add(ack);
+            }
+        }
+
+        Timer.Sample sample = Timer.start();
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!sent.isEmpty()) {
+                markSent(sent);
+            }
+            if (!failed.isEmpty()) {
+                markFailed(failed);
+            }
+        });
+        sample.stop(metricService.outboxAckFlushTimer());
+        log.debug("[OutboxAckWriter] Flushed acknowledgements - Sent: {}, Failed: {}", sent.size(), failed.size());
+    }
+
+    /**
+     * Marca como SENT los eventos del lote, cada uno con el momento en que Kafka
+     * confirmó su envío.
+     */
+    private void markSent(List<OutboxAck> sent) {
+        Object[] args = new Object[sent.size() * 3];
+        for (int i = 0; i < sent.size(); i++) {
+            args[3 * i] = sent.get(i).eventId();
+            args[3 * i + 1] = Timestamp.valueOf(sent.get(i).createdAt());
+            args[3 * i + 2] = Timestamp.valueOf(sent.get(i).at());
+        }
+        jdbcTemplate.update(MARK_SENT.formatted(String.join(", ", Collections.nCopies(sent.size(), SENT_ROW))), args);
+    }
+
+    /**
+     * Registra un intento fallido para los eventos del lote. Vuelven a PENDING salvo
+     * que alcancen el máximo de intentos, en cuyo caso pasan a FAILED.
+     */
+    private void markFailed(List<OutboxAck> failed) {
+        Object[] args = new Object[1 + failed.size() * 2];
+        args[0] = maxAttempts;
+        for (int i = 0; i < failed.size(); i++) {
+            args[1 + 2 * i] = failed.get(i).eventId();
+            args[2 + 2 * i] = Timestamp.valueOf(failed.get(i).createdAt());
+        }
+        jdbcTemplate.update(MARK_FAILED.formatted(String.join(", ", Collections.nCopies(failed.size(), FAILED_ROW))), args);
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        writer = new Thread(this::run, "outbox-ack-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            writer.join(TimeUnit.NANOSECONDS.toMillis(flushIntervalNanos) * 10);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private record OutboxAck(UUID eventId, LocalDateTime createdAt, boolean sent, LocalDateTime at) {}
+}
@@ -44,7 +44,7 @@ public abstract class BaseEntity {
     @PrePersist
     protected void onCreate() {
         if (this.id == null) {
-            this.id = UUID.randomUUID();
+            this.id = Ids.next();
         }
     }
 }
\ No newline at end of file
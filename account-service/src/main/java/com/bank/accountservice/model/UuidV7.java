@@ -0,0 +1,35 @@
+package com.bank.accountservice.model;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generador de UUID versión 7 (RFC 9562): 48 bits de timestamp en milisegundos,
+ * 12 bits de secuencia y 62 bits aleatorios.
+ *
+ * Los ids salen ordenados por tiempo, así que las inserciones caen al final del índice
+ * de la clave primaria en lugar de repartirse por todo el árbol como con UUID.randomUUID().
+ * Dentro de un mismo milisegundo la secuencia garantiza que sean crecientes; si se agota,
+ * se toma prestado el milisegundo siguiente.
+ */
+public final class UuidV7 {
+
+    private static final long VERSION = 0x7000L;
+    private static final long VARIANT = 0x8000000000000000L;
+    private static final long RANDOM_MASK = 0x3FFFFFFFFFFFFFFFL;
+
+    /** Último timestamp emitido desplazado 12 bits, con la secuencia en los bits bajos. */
+    private static final AtomicLong LAST = new AtomicLong();
+
+    private UuidV7() {
+    }
+
+    public static UUID next() {
+        long now = System.currentTimeMillis() << 12;
+        long state = LAST.updateAndGet(last -> Math.max(now, last + 1));
+        long mostSignificant = (state >>> 12) << 16 | VERSION | (state & 0xFFFL);
+        long leastSignificant = ThreadLocalRandom.current().nextLong() & RANDOM_MASK | VARIANT;
+        return new UUID(mostSignificant, leastSignificant);
+    }
+}
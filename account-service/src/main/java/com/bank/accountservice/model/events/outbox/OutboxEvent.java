@@ -1,13 +1,20 @@
 package com.bank.accountservice.model.events.outbox;
 
+import org.springframework.data.domain.Persistable;
+
+import com.bank.accountservice.model.Ids;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.Id;
 import jakarta.persistence.Index;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -26,7 +33,7 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-public class OutboxEvent {
+public class OutboxEvent implements Persistable<UUID> {
 
     @Id
     private UUID id;
@@ -46,6 +53,9 @@ public class OutboxEvent {
     @Column(name = "payload", nullable = false, columnDefinition = "TEXT")
     private String payload; // JSON serializado del evento
 
+    @Column(name = "partition_key")
+    private String partitionKey; // clave del registro en Kafka, mantiene el orden por cuenta
+
     @Column(name = "status", nullable = false)
     @Enumerated(EnumType.STRING)
     private OutboxStatus status;
@@ -59,17 +69,57 @@ public class OutboxEvent {
     @Column(nullable = false)
     private int attempts;
 
+    @Column(name = "locked_by")
+    private String lockedBy; // instancia del relay que tiene reclamado el evento
+
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil; // fin del lease; después cualquier instancia puede reclamarlo
+
+    /**
+     * El id se asigna al crear el evento, así que se marca como nuevo para que
+     * save/saveAll hagan persist (insert en lote) en lugar de merge (select + insert).
+     */
+    @Transient
+    @Builder.Default
+    private boolean newEvent = true;
+
     @PrePersist
     public void prePersist() {
-        this.id = UUID.randomUUID();
+        if (this.id == null) {
+            this.id = Ids.next();
+        }
         this.createdAt = LocalDateTime.now();
         this.attempts = 0;
         this.status = OutboxStatus.PENDING;
     }
 
+    /**
+     * Reclama el evento para una instancia del relay hasta la fecha indicada.
+     */
+    public void lease(String owner, LocalDateTime until) {
+        this.lockedBy = owner;
+        this.lockedUntil = until;
+    }
+
+    public void releaseLease() {
+        this.lockedBy = null;
+        this.lockedUntil = null;
+    }
+
     public int incrementAttempts() {
         this.attempts += 1;
         return this.attempts;
     }
 
+    @Override
+    public boolean isNew() {
+        return newEvent;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.newEvent = false;
+    }
+
 }
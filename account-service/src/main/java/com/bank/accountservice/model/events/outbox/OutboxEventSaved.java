@@ -0,0 +1,9 @@
+package com.bank.accountservice.model.events.outbox;
+
+import java.util.UUID;
+
+/**
+ * Evento de aplicación emitido al guardar un evento en el outbox.
+ * El relay lo escucha tras el commit para publicar sin esperar al siguiente ciclo del scheduler.
+ */
+public record OutboxEventSaved(UUID eventId, String topic) {}
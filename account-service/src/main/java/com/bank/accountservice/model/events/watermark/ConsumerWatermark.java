@@ -0,0 +1,53 @@
+package com.bank.accountservice.model.events.watermark;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Offset más alto aplicado por un grupo de consumidores en una topic-partition.
+ * Cualquier registro con offset menor o igual es una reentrega ya aplicada.
+ */
+@Entity
+@Table(name = "consumer_watermark")
+@IdClass(ConsumerWatermark.Key.class)
+@Getter
+@NoArgsConstructor
+public class ConsumerWatermark {
+
+    @Id
+    @Column(name = "consumer_group", nullable = false)
+    private String consumerGroup;
+
+    @Id
+    @Column(name = "topic", nullable = false)
+    private String topic;
+
+    @Id
+    @Column(name = "partition", nullable = false)
+    private int partition;
+
+    @Column(name = "record_offset", nullable = false)
+    private long offset;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private String consumerGroup;
+        private String topic;
+        private int partition;
+    }
+}
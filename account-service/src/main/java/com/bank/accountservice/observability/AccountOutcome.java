@@ -0,0 +1,21 @@
+package com.bank.accountservice.observability;
+
+/**
+ * Resultado de una alta o actualización de cuenta; es el tag "status" de
+ * account.created.total y account.updated.total.
+ */
+public enum AccountOutcome {
+    SUCCESS("success"),
+    ALREADY_EXISTS("already_exists"),
+    FAILED("failed");
+
+    private final String tag;
+
+    AccountOutcome(String tag) {
+        this.tag = tag;
+    }
+
+    public String tag() {
+        return tag;
+    }
+}
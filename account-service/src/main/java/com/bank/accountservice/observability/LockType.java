@@ -0,0 +1,24 @@
+package com.bank.accountservice.observability;
+
+/**
+ * Bloqueo que protege las cuentas de una transferencia; es el tag "lock" de
+ * transfer.lock.wait y transfer.lock.hold.
+ */
+public enum LockType {
+    /** SELECT ... FOR UPDATE sobre las filas de las cuentas, hasta el commit. */
+    ROW("row"),
+    /** Locks de shard del TransferEngine. */
+    SHARD("shard"),
+    /** Stripes del ledger write-behind. */
+    STRIPE("stripe");
+
+    private final String tag;
+
+    LockType(String tag) {
+        this.tag = tag;
+    }
+
+    public String tag() {
+        return tag;
+    }
+}
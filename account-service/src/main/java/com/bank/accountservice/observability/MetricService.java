@@ -1,20 +1,31 @@
 package com.bank.accountservice.observability;
 
+import java.time.Duration;
+import java.util.Collection;
+import java.util.EnumMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import org.apache.kafka.common.TopicPartition;
 
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
 import io.micrometer.core.instrument.Timer;
-import lombok.RequiredArgsConstructor;
 
 /**
  * Servicio de métricas que facilita la creación y registro de métricas
  * en la aplicación.
  * Proporciona métodos para crear contadores, timers y gauges personalizados.
+ *
+ * Los contadores y timers que se usan en cada transferencia se registran al construir
+ * el servicio, uno por valor de su enum (TransactionOutcome, AccountOutcome,
+ * LookupSource, TimedOperation, OutboxEventType), y se sirven desde un EnumMap: obtenerlos no construye
+ * claves ni consulta un mapa concurrente. Las variantes con String se mantienen para
+ * tags que no tienen enum.
  */
-@RequiredArgsConstructor
 public class MetricService {
 
     private final MeterRegistry registry;
@@ -22,9 +33,80 @@ public class MetricService {
     private static final String UNIT_EXECUTIONS = "executions";
     private static final String UNIT_CONNECTIONS = "connections";
 
+    /** Techo de los histogramas de retraso: un backlog puede tardar minutos en drenarse. */
+    private static final Duration MAX_EXPECTED_LAG = Duration.ofMinutes(10);
+
     private final Map<String, Counter> totalExecutions = new ConcurrentHashMap<>();
     private final Map<String, SimpleGauge> gauges = new ConcurrentHashMap<>();
     private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<TopicPartition, Timer> consumerLagTimers = new ConcurrentHashMap<>();
+
+    private final Map<TransactionOutcome, Counter> transactionsProcessed;
+    private final Map<AccountOutcome, Counter> accountsCreated;
+    private final Map<AccountOutcome, Counter> accountsUpdated;
+    private final Map<LookupSource, Counter> processedEventLookups;
+    private final Map<OutboxEventType, Counter> outboxSaved;
+    private final Map<OutboxEventType, Counter> outboxFailed;
+    private final Map<OutboxEventType, Counter> outboxCoalesced;
+    private final Map<TimedOperation, Timer> transactionTimers;
+    private final Map<LockType, Timer> lockWaitTimers;
+    private final Map<LockType, Timer> lockHoldTimers;
+    private final Counter accountsRetrieved;
+    private final Counter accountsLocked;
+    private final Timer accountRetrievalTimer;
+    private final Timer outboxSendLagTimer;
+    private final SettableGauge outboxPartitions;
+
+    public MetricService(MeterRegistry registry) {
+        this.registry = registry;
+        this.transactionsProcessed = preRegister(TransactionOutcome.class, outcome -> transactionProcessedCounter(outcome.tag()));
+        this.accountsCreated = preRegister(AccountOutcome.class, outcome -> accountCreatedCounter(outcome.tag()));
+        this.accountsUpdated = preRegister(AccountOutcome.class, outcome -> accountUpdatedCounter(outcome.tag()));
+        this.processedEventLookups = preRegister(LookupSource.class, source -> processedEventLookupCounter(source.tag()));
+        this.outboxSaved = preRegister(OutboxEventType.class, type -> Counter.builder(Metrics.OUTBOX_EVENT_SAVED_TOTAL)
+            .tag("event_type", type.tag())
+            .description("Total number of outbox events saved")
+            .baseUnit(UNIT_EXECUTIONS)
+            .register(registry));
+        this.outboxFailed = preRegister(OutboxEventType.class, type -> Counter.builder(Metrics.OUTBOX_EVENT_FAILED_TOTAL)
+            .tag("event_type", type.tag())
+            .description("Total number of outbox event failures")
+            .baseUnit(UNIT_EXECUTIONS)
+            .register(registry));
+        this.outboxCoalesced = preRegister(OutboxEventType.class, type -> Counter.builder(Metrics.OUTBOX_EVENT_COALESCED_TOTAL)
+            .tag("event_type", type.tag())
+            .description("Total number of outbox events superseded by a later one for the same aggregate")
+            .baseUnit(UNIT_EXECUTIONS)
+            .register(registry));
+        this.transactionTimers = preRegister(TimedOperation.class, operation -> transactionTimerOf(operation.tag()));
+        this.lockWaitTimers = preRegister(LockType.class, lock -> Timer.builder(Metrics.TRANSFER_LOCK_WAIT)
+            .tag("lock", lock.tag())
+            .description("Time a transfer waits to acquire the locks on its accounts")
+            .publishPercentileHistogram(true)
+            .register(registry));
+        this.lockHoldTimers = preRegister(LockType.class, lock -> Timer.builder(Metrics.TRANSFER_LOCK_HOLD)
+            .tag("lock", lock.tag())
+            .description("Time the locks on a transfer's accounts are held until released")
+            .publishPercentileHistogram(true)
+            .register(registry));
+        this.accountsRetrieved = Counter.builder(Metrics.ACCOUNT_RETRIEVED_TOTAL)
+            .description("Total number of accounts read by id")
+            .register(registry);
+        this.accountsLocked = Counter.builder(Metrics.ACCOUNT_LOCKED_TOTAL)
+            .description("Total number of accounts read by id with a row lock")
+            .register(registry);
+        this.accountRetrievalTimer = Timer.builder(Metrics.ACCOUNT_RETRIEVAL_DURATION)
+            .description("Duration of the query that lists all accounts")
+            .publishPercentileHistogram(true)
+            .register(registry);
+        this.outboxSendLagTimer = Timer.builder(Metrics.OUTBOX_SEND_LAG)
+            .description("Time from an outbox event being written (created_at) to Kafka acknowledging it (sent_at)")
+            .publishPercentileHistogram(true)
+            .maximumExpectedValue(MAX_EXPECTED_LAG)
+            .register(registry);
+        this.outboxPartitions = SettableGauge.register(Metrics.OUTBOX_PARTITIONS,
+            "Number of daily outbox_event partitions", Tags.empty(), registry);
+    }
 
     // ========== COUNTER METHODS ==========
 
@@ -44,85 +126,169 @@ public class MetricService {
     }
 
     /**
-     * Obtiene o crea un contador para eventos de cuenta creada.
+     * Contador de cuentas creadas, registrado al arrancar.
      * 
-     * @param status estado de la cuenta
+     * @param outcome resultado del alta
      * @return contador de cuentas creadas
      */
-    public final Counter accountCreated(String status) {
-        String key = "account_created_" + status;
-        return totalExecutions.computeIfAbsent(key,
-            t -> Counter.builder(Metrics.ACCOUNT_CREATED_TOTAL)
-                .tag("status", status)
-                .description("Total number of accounts created")
-                .baseUnit(UNIT_EXECUTIONS)
-                .register(registry));
+    public final Counter accountCreated(AccountOutcome outcome) {
+        return accountsCreated.get(outcome);
     }
 
     /**
-     * Obtiene o crea un contador para eventos de cuenta actualizada.
+     * Contador de cuentas leídas por id.
      * 
-     * @param status estado de la cuenta
+     * @return contador de cuentas leídas
+     */
+    public final Counter accountRetrieved() {
+        return accountsRetrieved;
+    }
+
+    /**
+     * Contador de cuentas leídas por id con bloqueo de fila.
+     * 
+     * @return contador de cuentas bloqueadas
+     */
+    public final Counter accountLocked() {
+        return accountsLocked;
+    }
+
+    /**
+     * Contador de cuentas actualizadas, registrado al arrancar.
+     * 
+     * @param outcome resultado de la actualización
      * @return contador de cuentas actualizadas
      */
-    public final Counter accountUpdated(String status) {
-        String key = "account_updated_" + status;
-        return totalExecutions.computeIfAbsent(key,
-            t -> Counter.builder(Metrics.ACCOUNT_UPDATED_TOTAL)
-                .tag("status", status)
-                .description("Total number of accounts updated")
-                .baseUnit(UNIT_EXECUTIONS)
-                .register(registry));
+    public final Counter accountUpdated(AccountOutcome outcome) {
+        return accountsUpdated.get(outcome);
     }
 
     /**
-     * Obtiene o crea un contador para eventos de transacción procesada.
+     * Contador de transacciones procesadas, registrado al arrancar.
      * 
-     * @param transactionStatus estado de la transacción
+     * @param outcome resultado de la transacción
      * @return contador de transacciones
      */
-    public final Counter transactionProcessed(String transactionStatus) {
-        String key = "transaction_processed_" + transactionStatus;
-        return totalExecutions.computeIfAbsent(key,
-            t -> Counter.builder(Metrics.TRANSACTION_PROCESSED_TOTAL)
-                .tag("status", transactionStatus)
-                .description("Total number of transactions processed")
-                .baseUnit(UNIT_EXECUTIONS)
-                .register(registry));
+    public final Counter transactionProcessed(TransactionOutcome outcome) {
+        return transactionsProcessed.get(outcome);
     }
 
     /**
-     * Obtiene o crea un contador para eventos de outbox guardados.
+     * Contador de eventos guardados en el outbox, registrado al arrancar.
      * 
      * @param eventType tipo de evento
      * @return contador de eventos guardados
      */
-    public final Counter outboxEventSaved(String eventType) {
-        String key = "outbox_saved_" + eventType;
-        return totalExecutions.computeIfAbsent(key,
-            t -> Counter.builder(Metrics.OUTBOX_EVENT_SAVED_TOTAL)
-                .tag("event_type", eventType)
-                .description("Total number of outbox events saved")
-                .baseUnit(UNIT_EXECUTIONS)
-                .register(registry));
+    public final Counter outboxEventSaved(OutboxEventType eventType) {
+        return outboxSaved.get(eventType);
     }
 
     /**
-     * Obtiene o crea un contador para fallos al guardar eventos outbox.
+     * Contador de fallos al guardar eventos en el outbox, registrado al arrancar.
      * 
      * @param eventType tipo de evento
      * @return contador de eventos fallidos
      */
-    public final Counter outboxEventFailed(String eventType) {
-        String key = "outbox_failed_" + eventType;
-        return totalExecutions.computeIfAbsent(key,
-            t -> Counter.builder(Metrics.OUTBOX_EVENT_FAILED_TOTAL)
-                .tag("event_type", eventType)
-                .description("Total number of outbox event failures")
+    public final Counter outboxEventFailed(OutboxEventType eventType) {
+        return outboxFailed.get(eventType);
+    }
+
+    /**
+     * Contador de eventos del outbox absorbidos por uno posterior del mismo agregado,
+     * registrado al arrancar.
+     * 
+     * @param eventType tipo de evento
+     * @return contador de eventos agrupados
+     */
+    public final Counter outboxEventCoalesced(OutboxEventType eventType) {
+        return outboxCoalesced.get(eventType);
+    }
+
+    /**
+     * Obtiene o crea un contador para confirmaciones de outbox descartadas por cola llena.
+     * 
+     * @return contador de confirmaciones descartadas
+     */
+    public final Counter outboxAckDropped() {
+        return totalExecutions.computeIfAbsent("outbox_ack_dropped",
+            t -> Counter.builder(Metrics.OUTBOX_ACK_DROPPED_TOTAL)
+                .description("Outbox acknowledgements dropped because the write-back queue was full")
                 .baseUnit(UNIT_EXECUTIONS)
                 .register(registry));
     }
 
+    /**
+     * Obtiene o crea un contador de filas del outbox retiradas por la retención.
+     * 
+     * @param action acción aplicada ("purged" para filas SENT borradas, "archived" para FAILED archivadas)
+     * @return contador de filas
+     */
+    public final Counter outboxRetentionRows(String action) {
+        String key = "outbox_retention_" + action;
+        return totalExecutions.computeIfAbsent(key,
+            t -> Counter.builder(Metrics.OUTBOX_RETENTION_ROWS_TOTAL)
+                .tag("action", action)
+                .description("Total number of outbox rows removed by the retention job")
+                .register(registry));
+    }
+
+    /**
+     * Obtiene o crea un contador de particiones del outbox eliminadas.
+     * 
+     * @return contador de particiones eliminadas
+     */
+    public final Counter outboxPartitionsDropped() {
+        return totalExecutions.computeIfAbsent("outbox_partitions_dropped",
+            t -> Counter.builder(Metrics.OUTBOX_RETENTION_PARTITIONS_DROPPED_TOTAL)
+                .description("Total number of outbox partitions dropped by the retention job")
+                .register(registry));
+    }
+
+    /**
+     * Obtiene o crea un contador de comprobaciones de duplicados según dónde se resolvieron.
+     * 
+     * @param source "cache" o "database"
+     * @return contador de comprobaciones
+     */
+    public final Counter processedEventLookup(String source) {
+        String key = "processed_event_lookup_" + source;
+        return totalExecutions.computeIfAbsent(key, t -> processedEventLookupCounter(source));
+    }
+
+    /**
+     * Contador de comprobaciones de duplicados, registrado al arrancar.
+     * 
+     * @param source dónde se resolvió la comprobación
+     * @return contador de comprobaciones
+     */
+    public final Counter processedEventLookup(LookupSource source) {
+        return processedEventLookups.get(source);
+    }
+
+    /**
+     * Obtiene o crea un contador de filas de processed_event purgadas.
+     * 
+     * @return contador de filas purgadas
+     */
+    public final Counter processedEventPurged() {
+        return totalExecutions.computeIfAbsent("processed_event_purged",
+            t -> Counter.builder(Metrics.PROCESSED_EVENT_PURGED_TOTAL)
+                .description("Total number of processed_event rows purged below the offset watermark")
+                .register(registry));
+    }
+
+    /**
+     * Obtiene o crea un contador de flushes fallidos del ledger write-behind.
+     * 
+     * @return contador de flushes fallidos
+     */
+    public final Counter ledgerFlushFailed() {
+        return totalExecutions.computeIfAbsent("ledger_flush_failed",
+            t -> Counter.builder(Metrics.LEDGER_FLUSH_FAILED_TOTAL)
+                .description("Total number of write-behind ledger flushes that failed and reset the ledger")
+                .register(registry));
+    }
+
     // ========== TIMER METHODS ==========
 
     /**
@@ -147,10 +313,109 @@ public class MetricService {
      */
     public final Timer transactionTimer(String transactionType) {
         String key = "transaction_timer_" + transactionType;
-        return timers.computeIfAbsent(key,
-            t -> Timer.builder(Metrics.TRANSACTION_DURATION)
-                .tag("type", transactionType)
-                .description("Transaction processing duration")
+        return timers.computeIfAbsent(key, t -> transactionTimerOf(transactionType));
+    }
+
+    /**
+     * Timer de transacción, registrado al arrancar.
+     * 
+     * @param operation operación medida
+     * @return timer de transacción
+     */
+    public final Timer transactionTimer(TimedOperation operation) {
+        return transactionTimers.get(operation);
+    }
+
+    /**
+     * Timer del listado completo de cuentas.
+     * 
+     * @return timer de lectura de cuentas
+     */
+    public final Timer accountRetrievalTimer() {
+        return accountRetrievalTimer;
+    }
+
+    /**
+     * Histograma de espera hasta obtener los bloqueos de una transferencia.
+     * 
+     * @param lock bloqueo medido
+     * @return timer de espera
+     */
+    public final Timer lockWaitTimer(LockType lock) {
+        return lockWaitTimers.get(lock);
+    }
+
+    /**
+     * Histograma del tiempo que una transferencia mantiene sus bloqueos.
+     * 
+     * @param lock bloqueo medido
+     * @return timer de retención
+     */
+    public final Timer lockHoldTimer(LockType lock) {
+        return lockHoldTimers.get(lock);
+    }
+
+    /**
+     * Histograma del retraso entre que un evento entra en el outbox y Kafka lo confirma.
+     * 
+     * @return timer de retraso de envío
+     */
+    public final Timer outboxSendLagTimer() {
+        return outboxSendLagTimer;
+    }
+
+    /**
+     * Obtiene o crea el histograma de retraso de consumo de una partición: tiempo entre el
+     * timestamp del registro en Kafka y su entrega al listener.
+     * 
+     * @param topicPartition partición consumida
+     * @return timer de retraso de consumo
+     */
+    public final Timer consumerLagTimer(TopicPartition topicPartition) {
+        return consumerLagTimers.computeIfAbsent(topicPartition,
+            tp -> Timer.builder(Metrics.KAFKA_CONSUMER_LAG)
+                .tag("topic", tp.topic())
+                .tag("partition", String.valueOf(tp.partition()))
+                .description("Time from a record being appended to Kafka to its delivery to the listener")
+                .publishPercentileHistogram(true)
+                .maximumExpectedValue(MAX_EXPECTED_LAG)
+                .register(registry));
+    }
+
+    /**
+     * Obtiene o crea el timer de escritura en lote de estados del outbox.
+     * 
+     * @return timer de flush
+     */
+    public final Timer outboxAckFlushTimer() {
+        return timers.computeIfAbsent(Metrics.OUTBOX_ACK_FLUSH_DURATION,
+            t -> Timer.builder(Metrics.OUTBOX_ACK_FLUSH_DURATION)
+                .description("Duration of each outbox status write-back flush")
+                .publishPercentileHistogram(true)
+                .register(registry));
+    }
+
+    /**
+     * Obtiene o crea el timer de cada ejecución de la retención del outbox.
+     * 
+     * @return timer de retención
+     */
+    public final Timer outboxRetentionTimer() {
+        return timers.computeIfAbsent(Metrics.OUTBOX_RETENTION_DURATION,
+            t -> Timer.builder(Metrics.OUTBOX_RETENTION_DURATION)
+                .description("Duration of each outbox retention run")
+                .register(registry));
+    }
+
+    /**
+     * Obtiene o crea el timer de cada group commit del ledger write-behind.
+     * 
+     * @return timer de flush del ledger
+     */
+    public final Timer ledgerFlushTimer() {
+        return timers.computeIfAbsent(Metrics.LEDGER_FLUSH_DURATION,
+            t -> Timer.builder(Metrics.LEDGER_FLUSH_DURATION)
+                .description("Duration of each write-behind ledger group commit")
                 .publishPercentileHistogram(true)
                 .register(registry));
     }
@@ -198,6 +463,79 @@ public class MetricService {
                 .register(registry));
     }
 
+    /**
+     * Registra un gauge con la profundidad de la cola de confirmaciones del outbox.
+     * 
+     * @param queue cola observada
+     */
+    public final void outboxAckQueueDepth(Collection<?> queue) {
+        Gauge.builder(Metrics.OUTBOX_ACK_QUEUE_DEPTH, queue, Collection::size)
+            .description("Outbox acknowledgements waiting to be written back")
+            .register(registry);
+    }
+
+    /**
+     * Gauge con el número de particiones diarias del outbox.
+     * 
+     * @return gauge de particiones
+     */
+    public final SettableGauge outboxPartitions() {
+        return outboxPartitions;
+    }
+
+    // ========== REGISTRATION ==========
+
+    private Counter accountCreatedCounter(String status) {
+        return Counter.builder(Metrics.ACCOUNT_CREATED_TOTAL)
+            .tag("status", status)
+            .description("Total number of accounts created")
+            .baseUnit(UNIT_EXECUTIONS)
+            .register(registry);
+    }
+
+    private Counter accountUpdatedCounter(String status) {
+        return Counter.builder(Metrics.ACCOUNT_UPDATED_TOTAL)
+            .tag("status", status)
+            .description("Total number of accounts updated")
+            .baseUnit(UNIT_EXECUTIONS)
+            .register(registry);
+    }
+
+    private Counter transactionProcessedCounter(String transactionStatus) {
+        return Counter.builder(Metrics.TRANSACTION_PROCESSED_TOTAL)
+            .tag("status", transactionStatus)
+            .description("Total number of transactions processed")
+            .baseUnit(UNIT_EXECUTIONS)
+            .register(registry);
+    }
+
+    private Counter processedEventLookupCounter(String source) {
+        return Counter.builder(Metrics.PROCESSED_EVENT_LOOKUP_TOTAL)
+            .tag("source", source)
+            .description("Total number of duplicate checks by where they were answered")
+            .register(registry);
+    }
+
+    private Timer transactionTimerOf(String transactionType) {
+        return Timer.builder(Metrics.TRANSACTION_DURATION)
+            .tag("type", transactionType)
+            .description("Transaction processing duration")
+            .publishPercentileHistogram(true)
+            .register(registry);
+    }
+
+    /**
+     * Registra un medidor por cada valor del enum. Micrometer devuelve el mismo medidor
+     * si la variante con String lo pide después con el mismo tag.
+     */
+    private static <E extends Enum<E>, M> Map<E, M> preRegister(Class<E> type, Function<E, M> factory) {
+        Map<E, M> meters = new EnumMap<>(type);
+        for (E value : type.getEnumConstants()) {
+            meters.put(value, factory.apply(value));
+        }
+        return meters;
+    }
+
     // ========== UTILITY METHODS ==========
 
     /**
@@ -11,6 +11,7 @@ public class Metrics {
     public static final String ACCOUNT_UPDATED_TOTAL = "account.updated.total";
     public static final String ACCOUNT_RETRIEVED_TOTAL = "account.retrieved.total";
     public static final String ACCOUNT_LOCKED_TOTAL = "account.locked.total";
+    public static final String ACCOUNT_RETRIEVAL_DURATION = "account.retrieval";
     
     // ========== TRANSACTION SERVICE ==========
     public static final String TRANSACTION_PROCESSED_TOTAL = "transaction.processed.total";
@@ -18,10 +19,32 @@ public class Metrics {
     public static final String TRANSACTION_INCORRECT_TOTAL = "transaction.incorrect.total";
     public static final String TRANSACTION_FAILED_TOTAL = "transaction.failed.total";
     public static final String TRANSACTION_DURATION = "transaction.duration";
+    public static final String TRANSFER_LOCK_WAIT = "transfer.lock.wait";
+    public static final String TRANSFER_LOCK_HOLD = "transfer.lock.hold";
     
     // ========== OUTBOX SERVICE ==========
     public static final String OUTBOX_EVENT_SAVED_TOTAL = "outbox.event.saved.total";
     public static final String OUTBOX_EVENT_FAILED_TOTAL = "outbox.event.failed.total";
+    public static final String OUTBOX_EVENT_COALESCED_TOTAL = "outbox.event.coalesced.total";
+    public static final String OUTBOX_ACK_QUEUE_DEPTH = "outbox.ack.queue.depth";
+    public static final String OUTBOX_ACK_FLUSH_DURATION = "outbox.ack.flush.duration";
+    public static final String OUTBOX_ACK_DROPPED_TOTAL = "outbox.ack.dropped.total";
+    public static final String OUTBOX_RETENTION_ROWS_TOTAL = "outbox.retention.rows.total";
+    public static final String OUTBOX_RETENTION_PARTITIONS_DROPPED_TOTAL = "outbox.retention.partitions.dropped.total";
+    public static final String OUTBOX_RETENTION_DURATION = "outbox.retention.duration";
+    public static final String OUTBOX_PARTITIONS = "outbox.partitions";
+    public static final String OUTBOX_SEND_LAG = "outbox.send.lag";
+    
+    // ========== KAFKA CONSUMERS ==========
+    public static final String KAFKA_CONSUMER_LAG = "kafka.consumer.lag";
+    
+    // ========== PROCESSED EVENTS ==========
+    public static final String PROCESSED_EVENT_LOOKUP_TOTAL = "processed.event.lookup.total";
+    public static final String PROCESSED_EVENT_PURGED_TOTAL = "processed.event.purged.total";
+    
+    // ========== WRITE-BEHIND LEDGER ==========
+    public static final String LEDGER_FLUSH_DURATION = "ledger.flush.duration";
+    public static final String LEDGER_FLUSH_FAILED_TOTAL = "ledger.flush.failed.total";
     
     // ========== SAGA EXECUTIONS ==========
     public static final String SAGA_EXECUTIONS_TOTAL = "saga.executions.total";
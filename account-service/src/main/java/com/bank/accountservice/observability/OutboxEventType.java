@@ -0,0 +1,22 @@
+package com.bank.accountservice.observability;
+
+/**
+ * Tipos de evento que account-service escribe en el outbox; es la columna type de
+ * outbox_event y el tag "event_type" de outbox.event.saved.total, outbox.event.failed.total
+ * y outbox.event.coalesced.total.
+ */
+public enum OutboxEventType {
+    ACCOUNT_CREATED("AccountCreatedEvent"),
+    ACCOUNT_UPDATED("AccountUpdatedEvent"),
+    TRANSACTION_PROCESSED("TransactionProcessedEvent");
+
+    private final String tag;
+
+    OutboxEventType(String tag) {
+        this.tag = tag;
+    }
+
+    public String tag() {
+        return tag;
+    }
+}
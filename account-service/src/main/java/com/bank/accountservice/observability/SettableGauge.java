@@ -0,0 +1,58 @@
+package com.bank.accountservice.observability;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
+/**
+ * Gauge que solo se fija, nunca se incrementa, como el número de particiones del outbox.
+ *
+ * El valor se guarda con sus bits en un AtomicLong: cada set es una única escritura
+ * atómica, así que con varios escritores gana el último y nunca se publica una mezcla
+ * de valores. Para gauges que suben y bajan está SimpleGauge.
+ */
+public class SettableGauge {
+
+    private final AtomicLong bits = new AtomicLong(Double.doubleToRawLongBits(0.0));
+
+    private SettableGauge() {
+    }
+
+    /**
+     * Establece el valor del gauge.
+     * 
+     * @param newValue nuevo valor
+     */
+    public void set(double newValue) {
+        bits.set(Double.doubleToRawLongBits(newValue));
+    }
+
+    /**
+     * Obtiene el valor actual del gauge.
+     * 
+     * @return valor actual
+     */
+    public double get() {
+        return Double.longBitsToDouble(bits.get());
+    }
+
+    /**
+     * Crea el gauge y lo registra en el MeterRegistry.
+     * 
+     * @param name nombre de la métrica
+     * @param description descripción de la métrica
+     * @param tags tags de la métrica
+     * @param registry registro donde se publica
+     * @return gauge registrado
+     */
+    public static SettableGauge register(String name, String description, Tags tags, MeterRegistry registry) {
+        SettableGauge gauge = new SettableGauge();
+        Gauge.builder(name, gauge, SettableGauge::get)
+            .description(description)
+            .tags(tags)
+            .register(registry);
+        return gauge;
+    }
+}
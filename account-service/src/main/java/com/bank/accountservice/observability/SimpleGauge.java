@@ -1,8 +1,6 @@
 package com.bank.accountservice.observability;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.DoubleAdder;
 
 import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
@@ -12,12 +10,17 @@ import lombok.Getter;
 
 /**
  * Gauge personalizado que mantiene un valor numérico que puede subir o bajar.
- * Envuelve un AtomicReference para proporcionar operaciones thread-safe.
+ *
+ * El valor vive en un DoubleAdder: cada hilo suma en su propia celda, así que
+ * increment y decrement no reservan memoria ni reintentan un CAS aunque muchos hilos
+ * actualicen el mismo gauge. Leerlo suma las celdas, lo que solo ocurre al exportar.
+ * Un DoubleAdder no se puede fijar de forma atómica: los gauges que solo se fijan
+ * usan SettableGauge.
  */
 @Getter
 public class SimpleGauge {
     
-    private final AtomicReference<Double> value;
+    private final DoubleAdder value;
     private final String name;
     private final String description;
     private final String baseUnit;
@@ -25,7 +28,7 @@ public class SimpleGauge {
     private final MeterRegistry registry;
 
     private SimpleGauge(Builder builder) {
-        this.value = new AtomicReference<>(0.0);
+        this.value = new DoubleAdder();
         this.name = builder.name;
         this.description = builder.description;
         this.baseUnit = builder.baseUnit;
@@ -46,7 +49,7 @@ public class SimpleGauge {
      * @param amount cantidad a incrementar
      */
     public void increment(double amount) {
-        value.accumulateAndGet(amount, Double::sum);
+        value.add(amount);
     }
 
     /**
@@ -62,16 +65,7 @@ public class SimpleGauge {
      * @param amount cantidad a decrementar
      */
     public void decrement(double amount) {
-        value.accumulateAndGet(-amount, Double::sum);
-    }
-
-    /**
-     * Establece el valor del gauge a un valor específico.
-     * 
-     * @param newValue nuevo valor
-     */
-    public void setValue(double newValue) {
-        value.set(newValue);
+        value.add(-amount);
     }
 
     /**
@@ -80,7 +74,7 @@ public class SimpleGauge {
      * @return valor actual
      */
     public double getValue() {
-        return value.get();
+        return value.sum();
     }
 
     /**
@@ -88,7 +82,7 @@ public class SimpleGauge {
      */
     public void register() {
         if (registry != null) {
-            Gauge.builder(name, value, AtomicReference::get)
+            Gauge.builder(name, value, DoubleAdder::sum)
                 .description(description)
                 .baseUnit(baseUnit)
                 .tags(tags)
@@ -0,0 +1,20 @@
+package com.bank.accountservice.observability;
+
+/**
+ * Operaciones medidas con transaction.duration; es su tag "type".
+ */
+public enum TimedOperation {
+    TRANSACTION_PROCESSING("transaction_processing"),
+    ACCOUNT_UPDATE("account_update"),
+    ACCOUNT_CREATION("account_creation");
+
+    private final String tag;
+
+    TimedOperation(String tag) {
+        this.tag = tag;
+    }
+
+    public String tag() {
+        return tag;
+    }
+}
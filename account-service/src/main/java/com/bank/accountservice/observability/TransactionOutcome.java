@@ -0,0 +1,20 @@
+package com.bank.accountservice.observability;
+
+/**
+ * Resultado de una transacción procesada; es el tag "status" de transaction.processed.total.
+ */
+public enum TransactionOutcome {
+    CORRECT("correct"),
+    INCORRECT("incorrect"),
+    FAILED("failed");
+
+    private final String tag;
+
+    TransactionOutcome(String tag) {
+        this.tag = tag;
+    }
+
+    public String tag() {
+        return tag;
+    }
+}
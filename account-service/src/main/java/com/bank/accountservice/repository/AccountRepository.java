@@ -8,6 +8,9 @@ import com.bank.accountservice.model.account.Account;
 
 import jakarta.persistence.LockModeType;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -17,4 +20,23 @@ public interface AccountRepository extends JpaRepository<Account, UUID> {
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("SELECT a FROM Account a WHERE a.id = :fromAccountId")
     Optional<Account> findByIdWithLock(UUID fromAccountId);
+
+    /**
+     * Bloquea las cuentas en orden de id: Postgres toma los bloqueos de fila después de
+     * ordenar, así que dos transacciones que bloquean cuentas comunes no se interbloquean.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Account a WHERE a.id IN :ids ORDER BY a.id")
+    List<Account> findAllByIdWithLock(Collection<UUID> ids);
+
+    @Query(value = "SELECT * FROM accounts ORDER BY created_at, id LIMIT :limit", nativeQuery = true)
+    List<Account> findFirstPage(int limit);
+
+    @Query(value = """
+        SELECT * FROM accounts
+        WHERE (created_at, id) > (:createdAt, :id)
+        ORDER BY created_at, id
+        LIMIT :limit
+        """, nativeQuery = true)
+    List<Account> findPageAfter(LocalDateTime createdAt, UUID id, int limit);
 }
\ No newline at end of file
@@ -1,13 +1,12 @@
 package com.bank.accountservice.repository;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
 import com.bank.accountservice.model.events.outbox.OutboxEvent;
 import com.bank.accountservice.model.events.outbox.OutboxStatus;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -15,11 +14,19 @@ import java.util.UUID;
 public interface OutboxEventRepository extends JpaRepository<OutboxEvent, UUID> {
     List<OutboxEvent> findByStatus(OutboxStatus pending);
 
-    @Query("""
-        SELECT e FROM OutboxEvent e
-        WHERE e.status = 'PENDING'
-        ORDER BY e.createdAt
-    """)
-    Page<OutboxEvent> findNextPending(Pageable pageable);
+    /**
+     * Bloquea los siguientes eventos PENDING sin lease vigente.
+     * SKIP LOCKED hace que otras instancias del relay se salten las filas ya
+     * reclamadas en lugar de esperar por ellas.
+     */
+    @Query(value = """
+        SELECT * FROM outbox_event
+        WHERE status = 'PENDING'
+          AND (locked_until IS NULL OR locked_until < :now)
+        ORDER BY created_at, id
+        LIMIT :limit
+        FOR UPDATE SKIP LOCKED
+    """, nativeQuery = true)
+    List<OutboxEvent> lockNextPending(LocalDateTime now, int limit);
 
-}
\ No newline at end of file
+}
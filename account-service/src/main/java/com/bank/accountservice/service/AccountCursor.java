@@ -0,0 +1,45 @@
+package com.bank.accountservice.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+import com.bank.accountservice.exception.InvalidAccountData;
+import com.bank.accountservice.model.account.Account;
+
+/**
+ * Posición en el listado de cuentas ordenado por (created_at, id).
+ *
+ * Se entrega al cliente como texto opaco en base64 url-safe; el cliente solo lo
+ * devuelve en el parámetro after para pedir la página siguiente.
+ */
+public record AccountCursor(LocalDateTime createdAt, UUID id) {
+
+    private static final String SEPARATOR = "|";
+
+    public static AccountCursor of(Account account) {
+        return new AccountCursor(account.getCreatedAt(), account.getId());
+    }
+
+    public String encode() {
+        byte[] raw = (createdAt + SEPARATOR + id).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+    }
+
+    public static AccountCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new InvalidAccountData("Invalid account cursor: " + cursor);
+            }
+            return new AccountCursor(
+                LocalDateTime.parse(raw.substring(0, separator)),
+                UUID.fromString(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidAccountData("Invalid account cursor: " + cursor, e);
+        }
+    }
+}
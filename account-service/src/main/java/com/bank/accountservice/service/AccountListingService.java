@@ -0,0 +1,111 @@
+package com.bank.accountservice.service;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bank.accountservice.dto.response.AccountResponseDTO;
+import com.bank.accountservice.exception.InvalidAccountData;
+import com.bank.accountservice.model.account.Account;
+import com.bank.accountservice.model.account.AccountStatus;
+import com.bank.accountservice.repository.AccountRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Listado de cuentas sin cargar la tabla entera en memoria.
+ *
+ * Las páginas usan keyset sobre (created_at, id): cada página empieza donde terminó la
+ * anterior usando el índice, sin OFFSET, así que su coste no depende de lo lejos que
+ * esté del principio. El stream recorre la tabla con un cursor de Postgres dentro de
+ * una transacción de solo lectura, leyendo fetch-size filas cada vez y entregándolas
+ * una a una.
+ */
+@Slf4j
+@Service
+public class AccountListingService {
+
+    private static final String STREAM_QUERY = """
+        SELECT account_number, owner_name, balance, status, created_at
+        FROM accounts
+        ORDER BY created_at, id
+        """;
+
+    private final AccountRepository accountRepository;
+    private final JdbcTemplate streamJdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int defaultLimit;
+    private final int maxLimit;
+
+    public AccountListingService(
+            AccountRepository accountRepository,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${spring.accounts.page.default-limit:100}") int defaultLimit,
+            @Value("${spring.accounts.page.max-limit:1000}") int maxLimit,
+            @Value("${spring.accounts.stream.fetch-size:1000}") int fetchSize) {
+        this.accountRepository = accountRepository;
+        this.streamJdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.streamJdbcTemplate.setFetchSize(fetchSize);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.defaultLimit = defaultLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    /**
+     * Devuelve hasta limit cuentas posteriores al cursor, o las primeras si no hay cursor.
+     * nextCursor es null cuando no quedan más cuentas.
+     */
+    public AccountPage findPage(AccountCursor after, Integer limit) {
+        int size = resolveLimit(limit);
+        // Se pide una fila de más para saber si hay página siguiente
+        List<Account> accounts = after == null
+            ? accountRepository.findFirstPage(size + 1)
+            : accountRepository.findPageAfter(after.createdAt(), after.id(), size + 1);
+        if (accounts.size() <= size) {
+            return new AccountPage(accounts, null);
+        }
+        List<Account> page = accounts.subList(0, size);
+        return new AccountPage(page, AccountCursor.of(page.get(size - 1)));
+    }
+
+    /**
+     * Entrega todas las cuentas al consumer en orden (created_at, id) según llegan de la
+     * base de datos. La transacción sigue abierta mientras dure el recorrido.
+     */
+    public long streamAccounts(Consumer<AccountResponseDTO> consumer) {
+        long[] streamed = new long[1];
+        readOnlyTransaction.executeWithoutResult(status ->
+            streamJdbcTemplate.query(STREAM_QUERY, (RowCallbackHandler) rs -> {
+                consumer.accept(AccountResponseDTO.builder()
+                    .accountNumber(rs.getString("account_number"))
+                    .ownerName(rs.getString("owner_name"))
+                    .balance(rs.getBigDecimal("balance"))
+                    .status(AccountStatus.valueOf(rs.getString("status")))
+                    .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+                    .build());
+                streamed[0]++;
+            }));
+        log.debug("[AccountListingService] Accounts streamed: {}", streamed[0]);
+        return streamed[0];
+    }
+
+    private int resolveLimit(Integer limit) {
+        if (limit == null) {
+            return defaultLimit;
+        }
+        if (limit < 1 || limit > maxLimit) {
+            throw new InvalidAccountData("limit must be between 1 and " + maxLimit);
+        }
+        return limit;
+    }
+
+    public record AccountPage(List<Account> accounts, AccountCursor nextCursor) {}
+}
@@ -5,18 +5,31 @@ import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import com.bank.accountservice.exception.AccountAlreadyExists;
 import com.bank.accountservice.exception.AccountNotFound;
+import com.bank.accountservice.model.Ids;
 import com.bank.accountservice.model.account.Account;
 import com.bank.accountservice.model.account.AccountStatus;
+import com.bank.accountservice.observability.AccountOutcome;
+import com.bank.accountservice.observability.LockType;
 import com.bank.accountservice.observability.MetricService;
+import com.bank.accountservice.observability.TimedOperation;
 import com.bank.accountservice.repository.AccountRepository;
+import com.bank.accountservice.service.ledger.AccountLedger;
+import com.bank.accountservice.service.ledger.LedgerChanges;
+import com.bank.accountservice.service.ledger.LedgerWriter;
 
 import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Servicio de gestión de cuentas.
@@ -31,18 +44,17 @@ public class AccountService {
     private final AccountRepository accountRepository;
     private final OutboxService outboxService;
     private final MetricService metricService;
+    private final AccountLedger accountLedger;
+    private final LedgerWriter ledgerWriter;
 
     public List<Account> findAllAccounts() {
         log.debug("[AccountService] Retrieving all accounts");
-        metricService.timer("account.retrieval").record(() -> {
-            // Operación registrada por el timer
-        });
-        return accountRepository.findAll();
+        return metricService.accountRetrievalTimer().record(() -> accountRepository.findAll());
     }
 
     public Account getAccountEntityById(UUID id) {
         log.debug("[AccountService] Getting account by ID - AccountId: {}", id);
-        metricService.accountCreated("retrieved").increment();
+        metricService.accountRetrieved().increment();
         return accountRepository.findById(id)
                 .orElseThrow(() -> {
                     log.warn("[AccountService] Account not found - AccountId: {}", id);
@@ -52,7 +64,7 @@ public class AccountService {
 
     public Account getAccountByIdWithLock(UUID id) {
         log.debug("[AccountService] Getting account by ID with lock - AccountId: {}", id);
-        metricService.accountCreated("locked").increment();
+        metricService.accountLocked().increment();
         return accountRepository.findByIdWithLock(id)
                 .orElseThrow(() -> {
                     log.warn("[AccountService] Account not found - AccountId: {}", id);
@@ -60,14 +72,79 @@ public class AccountService {
                 });
     }
 
+    /**
+     * Carga y bloquea las dos cuentas de una transferencia.
+     * Las filas se bloquean siempre en el mismo orden (por id, con el orden de Postgres),
+     * así dos transferencias opuestas entre las mismas cuentas no pueden interbloquearse.
+     * En modo write-behind se devuelven las cuentas del ledger en memoria, sin bloquear filas.
+     *
+     * Se mide la espera hasta tener las dos filas y, al terminar la transacción que
+     * las libera, el tiempo que estuvieron bloqueadas.
+     */
+    public Map<UUID, Account> getAccountsForTransfer(UUID fromAccountId, UUID toAccountId) {
+        if (accountLedger.isEnabled()) {
+            Map<UUID, Account> accounts = new HashMap<>(2);
+            accounts.put(fromAccountId, accountLedger.get(fromAccountId));
+            accounts.put(toAccountId, accountLedger.get(toAccountId));
+            return accounts;
+        }
+        Map<UUID, Account> accounts = lockAccounts(List.of(fromAccountId, toAccountId));
+        for (UUID id : List.of(fromAccountId, toAccountId)) {
+            if (!accounts.containsKey(id)) {
+                log.warn("[AccountService] Account not found - AccountId: {}", id);
+                throw new AccountNotFound("Account with ID " + id + " not found");
+            }
+        }
+        return accounts;
+    }
+
+    /**
+     * Bloquea todas las cuentas indicadas con una sola consulta, en orden de id.
+     * Un lote de transferencias que se aplica en una transacción las bloquea todas antes
+     * del primer registro: así toma sus bloqueos en el mismo orden que cualquier otro lote
+     * o transferencia y no puede interbloquearse con ellos. Las cuentas que no existen
+     * no aparecen en el resultado.
+     */
+    public Map<UUID, Account> lockAccounts(Collection<UUID> ids) {
+        long requested = System.nanoTime();
+        List<Account> locked = accountRepository.findAllByIdWithLock(ids);
+        metricService.accountLocked().increment(locked.size());
+        recordRowLock(requested);
+        Map<UUID, Account> accounts = new HashMap<>(locked.size() * 4 / 3 + 1);
+        locked.forEach(account -> accounts.put(account.getId(), account));
+        return accounts;
+    }
+
+    private void recordRowLock(long requested) {
+        long acquired = System.nanoTime();
+        metricService.lockWaitTimer(LockType.ROW).record(acquired - requested, TimeUnit.NANOSECONDS);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        // Postgres mantiene los bloqueos de fila hasta el commit o el rollback
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                metricService.lockHoldTimer(LockType.ROW).record(System.nanoTime() - acquired, TimeUnit.NANOSECONDS);
+            }
+        });
+    }
+
     @Transactional
     public Account updateAccount(Account account) {
-        UUID transactionId = UUID.randomUUID();
+        UUID transactionId = Ids.next();
         log.info("[AccountService] [TxId: {}] Updating account - AccountId: {}, AccountNumber: {}", 
             transactionId, account.getId(), account.getAccountNumber());
         
         long startTime = System.currentTimeMillis();
         try {
+            if (accountLedger.isEnabled()) {
+                Account updated = updateInLedger(account);
+                metricService.accountUpdated(AccountOutcome.SUCCESS).increment();
+                log.info("[AccountService] [TxId: {}] ✅ Account updated in ledger - AccountId: {}, Version: {}",
+                    transactionId, updated.getId(), updated.getVersionId());
+                return updated;
+            }
             Optional<Account> existing = accountRepository.findById(account.getId());
             if(existing.isPresent()) {
                 Account existingAccount = existing.get();
@@ -78,17 +155,45 @@ public class AccountService {
                 existingAccount.setVersionId(existingAccount.getVersionId() + 1);
                 saveAccount(existingAccount);
                 outboxService.saveAccountUpdatedEvent(existingAccount);
-                metricService.accountUpdated("success").increment();
+                metricService.accountUpdated(AccountOutcome.SUCCESS).increment();
                 log.info("[AccountService] [TxId: {}] ✅ Account updated successfully - AccountId: {}", transactionId, account.getId());
                 return existingAccount;
             } else {
                 log.warn("[AccountService] [TxId: {}] Account not found for update - AccountId: {}", transactionId, account.getId());
-                metricService.accountUpdated("failed").increment();
+                metricService.accountUpdated(AccountOutcome.FAILED).increment();
                 throw new AccountNotFound("Account with ID " + account.getId() + " not found");
             }
         } finally {
-            metricService.transactionTimer("account_update").record(System.currentTimeMillis() - startTime, java.util.concurrent.TimeUnit.MILLISECONDS);
+            metricService.transactionTimer(TimedOperation.ACCOUNT_UPDATE).record(System.currentTimeMillis() - startTime, java.util.concurrent.TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Actualiza la cuenta en el ledger write-behind. Dentro de una transferencia el cambio
+     * se suma a la operación en curso; desde la API se aplica como operación propia y se
+     * espera a que esté persistido.
+     */
+    private Account updateInLedger(Account account) {
+        if (LedgerChanges.current() != null) {
+            return stageLedgerUpdate(account);
+        }
+        return accountLedger.locked(account.getId(), account.getId(),
+            () -> ledgerWriter.applyAndWait(() -> stageLedgerUpdate(account)));
+    }
+
+    private Account stageLedgerUpdate(Account account) {
+        Account current = accountLedger.get(account.getId());
+        if (current != account) {
+            current.setAccountNumber(account.getAccountNumber());
+            current.setOwnerName(account.getOwnerName());
+            current.setStatus(account.getStatus());
+            current.setBalance(account.getBalance());
         }
+        long previousVersion = current.getVersionId();
+        current.setVersionId(previousVersion + 1);
+        LedgerChanges.current().stageAccount(current, previousVersion);
+        outboxService.saveAccountUpdatedEvent(current);
+        return current;
     }
 
     public Account saveAccount(Account account) {
@@ -98,7 +203,7 @@ public class AccountService {
 
     @Transactional
     public Account createAccount(Account account) {
-        UUID transactionId = UUID.randomUUID();
+        UUID transactionId = Ids.next();
         log.info("[AccountService] [TxId: {}] Creating new account - AccountNumber: {}, Owner: {}", 
             transactionId, account.getAccountNumber(), account.getOwnerName());
         
@@ -108,19 +213,19 @@ public class AccountService {
             if (existing.isPresent()) {
                 log.warn("[AccountService] [TxId: {}] Account already exists - AccountNumber: {}", 
                     transactionId, account.getAccountNumber());
-                metricService.accountCreated("already_exists").increment();
+                metricService.accountCreated(AccountOutcome.ALREADY_EXISTS).increment();
                 throw new AccountAlreadyExists("Account with account number " + account.getAccountNumber() + " already exists");
             }
             else {
                 Account saved = accountRepository.save(account);
                 outboxService.saveAccountCreatedEvent(saved);
-                metricService.accountCreated("success").increment();
+                metricService.accountCreated(AccountOutcome.SUCCESS).increment();
                 log.info("[AccountService] [TxId: {}] ✅ Account created successfully - AccountId: {}, AccountNumber: {}", 
                     transactionId, saved.getId(), saved.getAccountNumber());
                 return saved;
             }
         } finally {
-            metricService.transactionTimer("account_creation").record(System.currentTimeMillis() - startTime, java.util.concurrent.TimeUnit.MILLISECONDS);
+            metricService.transactionTimer(TimedOperation.ACCOUNT_CREATION).record(System.currentTimeMillis() - startTime, java.util.concurrent.TimeUnit.MILLISECONDS);
         }
     }
 
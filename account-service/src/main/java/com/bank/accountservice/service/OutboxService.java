@@ -1,19 +1,33 @@
 package com.bank.accountservice.service;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import com.bank.accountservice.event.consumer.TransactionProcessedEvent;
 import com.bank.accountservice.exception.CouldNotSerializeEvent;
 import com.bank.accountservice.kafka.KafkaTopics;
 import com.bank.accountservice.mapper.AccountMapper;
+import com.bank.accountservice.model.Ids;
 import com.bank.accountservice.model.account.Account;
 import com.bank.accountservice.model.events.outbox.OutboxEvent;
+import com.bank.accountservice.model.events.outbox.OutboxEventSaved;
 import com.bank.accountservice.model.transaction.TransactionStatus;
 import com.bank.accountservice.observability.MetricService;
+import com.bank.accountservice.observability.OutboxEventType;
 import com.bank.accountservice.repository.OutboxEventRepository;
+import com.bank.accountservice.service.ledger.LedgerChanges;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import lombok.RequiredArgsConstructor;
@@ -24,52 +38,120 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class OutboxService {
 
+    private static final Object PENDING_OUTBOX = new Object();
+
     private final OutboxEventRepository outboxEventRepository;
     private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher applicationEventPublisher;
     private final AccountMapper accountMapper;
     private final MetricService metricService;
 
+    /**
+     * Agrupa los AccountUpdatedEvent de una misma cuenta: transactions-service solo usa la
+     * última versión y estado, así que basta una fila por cuenta y transacción (o por
+     * group commit en modo write-behind). La fila es la del primer evento, con su posición
+     * y su id, y lleva el estado del último.
+     */
+    @Value("${spring.outbox.account-updated.coalesce:false}")
+    private boolean coalesceAccountUpdates;
+
+    /**
+     * Difiere los inserts del outbox hasta el commit para que Hibernate los envíe en un
+     * único lote JDBC (hibernate.jdbc.batch_size) en lugar de uno por cada flush.
+     */
+    @Value("${spring.outbox.batch-inserts:false}")
+    private boolean batchInserts;
+
     /**
      * Guarda un evento en la tabla outbox_event para posterior publicación a Kafka.
      *
      * @param aggregateType tipo de la entidad (ej: "Transaction", "Account")
      * @param aggregateId   ID de la entidad
-     * @param eventType     tipo del evento (ej: "TransactionRequestedMessage")
+     * @param eventType     tipo del evento (ej: TRANSACTION_PROCESSED)
      * @param topic         tema de Kafka donde se publicará el evento
      * @param payload       objeto del evento a serializar
      * @throws EventSerializationException si hay error en la serialización
      */
-    public void saveOutboxEvent(String aggregateType, UUID aggregateId, String eventType, String topic, Object payload) {
-        UUID transactionId = UUID.randomUUID();
+    public void saveOutboxEvent(String aggregateType, UUID aggregateId, OutboxEventType eventType, String topic, Object payload) {
+        saveOutboxEvent(aggregateType, aggregateId, eventType, topic, aggregateId.toString(), payload);
+    }
+
+    /**
+     * Igual que {@link #saveOutboxEvent(String, UUID, OutboxEventType, String, Object)} pero indicando
+     * la clave con la que se publicará el evento en Kafka.
+     *
+     * @param partitionKey  clave del registro; los eventos con la misma clave van a la misma partición
+     */
+    public void saveOutboxEvent(String aggregateType, UUID aggregateId, OutboxEventType eventType, String topic, String partitionKey, Object payload) {
+        writeOutboxEvent(aggregateType, aggregateId, eventType, topic, partitionKey, payload);
+    }
+
+    private OutboxEvent writeOutboxEvent(String aggregateType, UUID aggregateId, OutboxEventType eventType, String topic, String partitionKey, Object payload) {
+        UUID transactionId = Ids.next();
         try {
             log.debug("[OutboxEventService] [TxId: {}] Serializing payload for event - AggregateType: {}, AggregateId: {}, EventType: {}", 
-                transactionId, aggregateType, aggregateId, eventType);
+                transactionId, aggregateType, aggregateId, eventType.tag());
             
             // Serializar el payload a JSON string
             String payloadJson = objectMapper.writeValueAsString(payload);
 
             OutboxEvent outboxEvent = OutboxEvent.builder()
+                    .id(Ids.next())
                     .aggregateType(aggregateType)
                     .aggregateId(aggregateId)
-                    .type(eventType)
+                    .type(eventType.tag())
                     .topic(topic)
+                    .partitionKey(partitionKey)
                     .payload(payloadJson)
                     .build();
 
-            outboxEventRepository.save(outboxEvent);
+            LedgerChanges ledgerChanges = LedgerChanges.current();
+            PendingOutbox pending = batchInserts ? pendingOutbox() : null;
+            if (ledgerChanges != null) {
+                // Modo write-behind: lo persiste el group commit del ledger, que despierta al relay
+                outboxEvent.prePersist();
+                ledgerChanges.stageOutbox(outboxEvent);
+            } else if (pending != null) {
+                // Se inserta junto al resto de eventos de la transacción justo antes del commit
+                pending.events.add(outboxEvent);
+            } else {
+                outboxEventRepository.save(outboxEvent);
+                // El relay lo recibe tras el commit de la transacción actual
+                applicationEventPublisher.publishEvent(new OutboxEventSaved(outboxEvent.getId(), topic));
+            }
             metricService.outboxEventSaved(eventType).increment();
             
             log.info("[OutboxEventService] [TxId: {}] ✅ Event saved to outbox - EventType: {}, Topic: {}, AggregateId: {}, EventId: {}", 
-                transactionId, eventType, topic, aggregateId, outboxEvent.getId());
-                
+                transactionId, eventType.tag(), topic, aggregateId, outboxEvent.getId());
+            return outboxEvent;
+
         } catch (Exception e) {
             log.error("[OutboxEventService] [TxId: {}] ❌ Failed to save outbox event - AggregateType: {}, AggregateId: {}, EventType: {}, Error: {}", 
-                transactionId, aggregateType, aggregateId, eventType, e.getMessage(), e);
+                transactionId, aggregateType, aggregateId, eventType.tag(), e.getMessage(), e);
             metricService.outboxEventFailed(eventType).increment();
-            throw new CouldNotSerializeEvent("Failed to save outbox event for " + eventType + " with aggregateId " + aggregateId, e);
+            throw new CouldNotSerializeEvent("Failed to save outbox event for " + eventType.tag() + " with aggregateId " + aggregateId, e);
         }
     }
 
+    /**
+     * Reclama un lote de eventos pendientes para la instancia indicada.
+     * Las filas se bloquean con SKIP LOCKED solo durante esta transacción; a partir de
+     * ahí las protege el lease, que caduca solo si la instancia se cae sin publicarlas.
+     *
+     * @param owner     identificador de la instancia del relay
+     * @param batchSize número máximo de eventos a reclamar
+     * @param lease     duración del lease
+     * @return eventos reclamados, en orden de creación
+     */
+    @Transactional
+    public List<OutboxEvent> claimPendingEvents(String owner, int batchSize, Duration lease) {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> events = outboxEventRepository.lockNextPending(now, batchSize);
+        LocalDateTime until = now.plus(lease);
+        events.forEach(event -> event.lease(owner, until));
+        return events;
+    }
+
     public void completeTransaction(TransactionProcessedEvent transactionProcessedEvent, TransactionStatus transactionState) {
         try {
             log.debug("[AccountService] [TxId: {}] Saving TransactionProcessedEvent - TransactionId: {}", transactionProcessedEvent.transactionId(), transactionProcessedEvent.transactionId());
@@ -81,8 +163,9 @@ public class OutboxService {
             saveOutboxEvent(
                 "Transaction", 
                 transactionProcessedEvent.transactionId(), 
-                "TransactionProcessedEvent", 
+                OutboxEventType.TRANSACTION_PROCESSED,
                 KafkaTopics.TRANSACTION_COMPLETED, 
+                String.valueOf(transactionProcessedEvent.fromAccountId()),
                 payload
             );
         } catch (CouldNotSerializeEvent e) {
@@ -96,7 +179,7 @@ public class OutboxService {
             saveOutboxEvent(
                 "Account",
                 account.getId(),
-                "AccountCreatedEvent",
+                OutboxEventType.ACCOUNT_CREATED,
                 KafkaTopics.ACCOUNT_CREATED,
                 accountMapper.fromEntityToMessage(account)
             );
@@ -109,15 +192,23 @@ public class OutboxService {
     }
 
     public void saveAccountUpdatedEvent(Account account) {
+        PendingOutbox pending = coalesceAccountUpdates ? pendingOutbox() : null;
+        if (pending != null && coalesceAccountUpdatedEvent(pending, account)) {
+            return;
+        }
         try {
             log.debug("[AccountService] [TxId: {}] Saving AccountUpdatedEvent - AccountId: {}", account.getId(), account.getId());
-            saveOutboxEvent(
+            OutboxEvent event = writeOutboxEvent(
                 "Account", 
                 account.getId(), 
-                "AccountUpdatedEvent", 
+                OutboxEventType.ACCOUNT_UPDATED,
                 KafkaTopics.ACCOUNT_UPDATED, 
+                account.getId().toString(),
                 accountMapper.fromEntityToMessage(account)
             );
+            if (pending != null) {
+                pending.accountUpdates.put(account.getId(), event);
+            }
             log.debug("[AccountService] [TxId: {}] AccountUpdatedEvent saved to outbox - EventId: {}", account.getId(), account.getId());
             
         } catch (CouldNotSerializeEvent e) {
@@ -126,4 +217,76 @@ public class OutboxService {
             throw new CouldNotSerializeEvent("Failed to serialize AccountUpdatedEvent", e);
         }
     }
+
+    /**
+     * Si la cuenta ya tiene un AccountUpdatedEvent en la transacción actual, le pone el
+     * estado nuevo en lugar de escribir otra fila. El evento conserva su posición en el
+     * outbox, así que se publica antes que los eventos escritos después de él.
+     * En modo write-behind (o sin transacción) no se llega aquí: el ledger agrupa en su
+     * propio group commit.
+     *
+     * @return true si el estado se ha agrupado en un evento anterior
+     */
+    private boolean coalesceAccountUpdatedEvent(PendingOutbox pending, Account account) {
+        OutboxEvent first = pending.accountUpdates.get(account.getId());
+        if (first == null) {
+            return false;
+        }
+        try {
+            // Si ya está persistido, el cambio de payload se escribe en el flush
+            first.setPayload(objectMapper.writeValueAsString(accountMapper.fromEntityToMessage(account)));
+        } catch (Exception e) {
+            log.error("[AccountService] Failed to serialize AccountUpdatedEvent - AccountId: {}, Error: {}",
+                account.getId(), e.getMessage(), e);
+            metricService.outboxEventFailed(OutboxEventType.ACCOUNT_UPDATED).increment();
+            throw new CouldNotSerializeEvent("Failed to serialize AccountUpdatedEvent", e);
+        }
+        metricService.outboxEventCoalesced(OutboxEventType.ACCOUNT_UPDATED).increment();
+        return true;
+    }
+
+    /**
+     * Escrituras del outbox diferidas de la transacción actual, o null si no se pueden
+     * diferir (modo write-behind o sin transacción).
+     */
+    private PendingOutbox pendingOutbox() {
+        if (LedgerChanges.current() != null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        PendingOutbox pending = (PendingOutbox) TransactionSynchronizationManager.getResource(PENDING_OUTBOX);
+        if (pending == null) {
+            pending = new PendingOutbox();
+            TransactionSynchronizationManager.bindResource(PENDING_OUTBOX, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        return pending;
+    }
+
+    /**
+     * Eventos de una transacción pendientes de escribir en el outbox, que se persisten
+     * todos de una vez antes del commit; con order_inserts Hibernate los envía como un
+     * único lote de inserts. Guarda también el primer AccountUpdatedEvent de cada cuenta,
+     * sobre el que se agrupan los siguientes.
+     */
+    private final class PendingOutbox implements TransactionSynchronization {
+
+        private final Map<UUID, OutboxEvent> accountUpdates = new HashMap<>();
+        private final List<OutboxEvent> events = new ArrayList<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            if (events.isEmpty()) {
+                return;
+            }
+            outboxEventRepository.saveAll(events);
+            // Un único aviso basta para que el relay reclame todo el lote
+            OutboxEvent last = events.get(events.size() - 1);
+            applicationEventPublisher.publishEvent(new OutboxEventSaved(last.getId(), last.getTopic()));
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(PENDING_OUTBOX);
+        }
+    }
 }
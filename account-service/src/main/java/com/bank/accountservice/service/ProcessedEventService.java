@@ -0,0 +1,290 @@
+package com.bank.accountservice.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.bank.accountservice.model.events.processedevent.ProcessedEvent;
+import com.bank.accountservice.observability.LookupSource;
+import com.bank.accountservice.observability.MetricService;
+import com.bank.accountservice.repository.ConsumerWatermarkRepository;
+import com.bank.accountservice.repository.ProcessedEventRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Control de idempotencia sobre la tabla processed_event.
+ *
+ * Mantiene por cada topic-partition asignada una caché con los ids procesados más
+ * recientes. Al asignarse la partición se precarga desde la base de datos; si caben
+ * todas sus filas la caché es completa y responde también los "no procesado" sin ir
+ * a la base de datos. En cuanto descarta un id por capacidad deja de ser completa y
+ * los fallos de caché se consultan en la base de datos.
+ *
+ * Antes de mirar los ids se compara el offset con la marca de agua de la partición
+ * (tabla consumer_watermark, una fila por grupo y topic-partition): las reentregas
+ * de Kafka quedan por debajo y se descartan sin buscar el id. Los ids solo hacen
+ * falta para los duplicados que genera el productor con un offset nuevo.
+ *
+ * Los ids y las marcas de agua se actualizan en memoria solo tras el commit, para que
+ * un rollback nunca haga pasar por duplicado un evento que no se aplicó.
+ */
+@Slf4j
+@Service
+public class ProcessedEventService {
+
+    private final ProcessedEventRepository processedEventRepository;
+    private final ConsumerWatermarkRepository consumerWatermarkRepository;
+    private final MetricService metricService;
+    private final int cacheSize;
+    private final long retentionOffsets;
+    private final long retentionHours;
+    private final String consumerGroup;
+    private final Map<TopicPartition, RecentIds> caches = new ConcurrentHashMap<>();
+    private final Map<TopicPartition, Long> watermarks = new ConcurrentHashMap<>();
+
+    public ProcessedEventService(
+            ProcessedEventRepository processedEventRepository,
+            ConsumerWatermarkRepository consumerWatermarkRepository,
+            MetricService metricService,
+            @Value("${spring.processed-event.cache-size:10000}") int cacheSize,
+            @Value("${spring.processed-event.retention.offsets:100000}") long retentionOffsets,
+            @Value("${spring.processed-event.retention.hours:24}") long retentionHours,
+            @Value("${spring.kafka.consumer.group-id}") String consumerGroup) {
+        this.processedEventRepository = processedEventRepository;
+        this.consumerWatermarkRepository = consumerWatermarkRepository;
+        this.consumerGroup = consumerGroup;
+        this.metricService = metricService;
+        this.cacheSize = cacheSize;
+        this.retentionOffsets = retentionOffsets;
+        this.retentionHours = retentionHours;
+    }
+
+    /**
+     * Devuelve cuáles de los registros recibidos en una partición ya fueron procesados.
+     */
+    public Set<UUID> findProcessed(String topic, int partition, Collection<Delivery> deliveries) {
+        TopicPartition topicPartition = new TopicPartition(topic, partition);
+        long watermark = watermark(topicPartition);
+        Set<UUID> processed = new HashSet<>();
+        List<UUID> candidates = new ArrayList<>(deliveries.size());
+        for (Delivery delivery : deliveries) {
+            if (delivery.offset() <= watermark) {
+                processed.add(delivery.eventId());
+            } else {
+                candidates.add(delivery.eventId());
+            }
+        }
+        metricService.processedEventLookup(LookupSource.WATERMARK).increment(processed.size());
+
+        if (!candidates.isEmpty()) {
+            processed.addAll(findProcessedIds(topicPartition, candidates));
+        }
+        return processed;
+    }
+
+    private Set<UUID> findProcessedIds(TopicPartition topicPartition, List<UUID> eventIds) {
+        RecentIds cache = caches.get(topicPartition);
+        Set<UUID> processed = new HashSet<>();
+        List<UUID> unknown = eventIds.stream()
+            .filter(eventId -> {
+                if (cache != null && cache.contains(eventId)) {
+                    processed.add(eventId);
+                    return false;
+                }
+                return cache == null || !cache.isComplete();
+            })
+            .toList();
+
+        metricService.processedEventLookup(LookupSource.CACHE).increment(eventIds.size() - (double) unknown.size());
+        if (!unknown.isEmpty()) {
+            metricService.processedEventLookup(LookupSource.DATABASE).increment(unknown.size());
+            processed.addAll(processedEventRepository.findProcessedEventIds(unknown));
+        }
+        return processed;
+    }
+
+    /**
+     * Guarda los eventos en la transacción actual y los añade a la caché tras el commit.
+     */
+    public void saveAll(List<ProcessedEvent> events) {
+        processedEventRepository.saveAll(events);
+        afterCommit(() -> events.forEach(this::remember));
+    }
+
+    public void save(ProcessedEvent event) {
+        processedEventRepository.save(event);
+        afterCommit(() -> remember(event));
+    }
+
+    /**
+     * Añade a la caché eventos ya persistidos por otra vía (group commit del ledger).
+     */
+    public void remember(Collection<ProcessedEvent> events) {
+        events.forEach(this::remember);
+    }
+
+    /**
+     * Avanza la marca de agua de la partición en la transacción actual. Solo debe
+     * llamarse con el último offset de un tramo aplicado sin huecos.
+     */
+    @Transactional
+    public void advanceWatermark(String topic, int partition, long offset) {
+        consumerWatermarkRepository.advance(consumerGroup, topic, partition, offset);
+        TopicPartition topicPartition = new TopicPartition(topic, partition);
+        afterCommit(() -> watermarks.merge(topicPartition, offset, Math::max));
+    }
+
+    /**
+     * Avanza en una única transacción la marca de agua de varias particiones.
+     */
+    @Transactional
+    public void advanceWatermarks(Map<TopicPartition, Long> offsets) {
+        offsets.forEach((topicPartition, offset) ->
+            advanceWatermark(topicPartition.topic(), topicPartition.partition(), offset));
+    }
+
+    /**
+     * Precarga la caché de las particiones recién asignadas a este consumidor.
+     */
+    public void warm(Collection<TopicPartition> partitions) {
+        for (TopicPartition topicPartition : partitions) {
+            List<UUID> recent = processedEventRepository.findRecentEventIds(
+                topicPartition.topic(), topicPartition.partition(), cacheSize);
+            RecentIds cache = new RecentIds(cacheSize, recent.size() < cacheSize);
+            // Se insertan del más antiguo al más reciente para que los descartes respeten el orden
+            for (int i = recent.size() - 1; i >= 0; i--) {
+                cache.add(recent.get(i));
+            }
+            caches.put(topicPartition, cache);
+            watermarks.put(topicPartition, loadWatermark(topicPartition));
+            log.info("[ProcessedEventService] Cache warmed - Partition: {}, Ids: {}, Complete: {}",
+                topicPartition, recent.size(), cache.isComplete());
+        }
+    }
+
+    /**
+     * Libera la caché de las particiones que este consumidor deja de leer.
+     */
+    public void evict(Collection<TopicPartition> partitions) {
+        partitions.forEach(topicPartition -> {
+            caches.remove(topicPartition);
+            watermarks.remove(topicPartition);
+        });
+    }
+
+    /**
+     * Elimina las filas que quedan por debajo de la marca de agua de su partición
+     * (offset máximo procesado menos la ventana configurada) y que además superan la
+     * antigüedad mínima. Kafka no reentrega por debajo del offset confirmado y los
+     * duplicados del productor llegan poco después del original, así que esas filas ya
+     * no pueden detectar ningún duplicado.
+     */
+    @Transactional
+    @Scheduled(cron = "${spring.processed-event.retention.cron:0 */10 * * * *}")
+    public void purge() {
+        int deleted = processedEventRepository.deleteBelowWatermark(
+            retentionOffsets, LocalDateTime.now().minusHours(retentionHours));
+        metricService.processedEventPurged().increment(deleted);
+        if (deleted > 0) {
+            log.info("[ProcessedEventService] ✅ Purged {} processed events below watermark", deleted);
+        }
+    }
+
+    /**
+     * Marca de agua en memoria de la partición. Si aún no está (la partición no pasó
+     * por warm), se lee fuera del mapa: la consulta no debe ejecutarse dentro del
+     * compute del ConcurrentHashMap, que bloquea el bin mientras dura. Si otro hilo la
+     * publicó entretanto, prevalece la suya.
+     */
+    private long watermark(TopicPartition topicPartition) {
+        Long watermark = watermarks.get(topicPartition);
+        if (watermark != null) {
+            return watermark;
+        }
+        long loaded = loadWatermark(topicPartition);
+        Long previous = watermarks.putIfAbsent(topicPartition, loaded);
+        return previous != null ? previous : loaded;
+    }
+
+    private long loadWatermark(TopicPartition topicPartition) {
+        return consumerWatermarkRepository
+            .findOffset(consumerGroup, topicPartition.topic(), topicPartition.partition())
+            .orElse(-1L);
+    }
+
+    private void remember(ProcessedEvent event) {
+        RecentIds cache = caches.get(new TopicPartition(event.getTopic(), event.getPartition()));
+        if (cache != null) {
+            cache.add(event.getEventId());
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Id de evento y offset con el que llegó.
+     */
+    public record Delivery(UUID eventId, long offset) {}
+
+    /**
+     * Ids recientes de una partición en orden de llegada, acotados a la capacidad.
+     */
+    private static final class RecentIds {
+
+        private final Map<UUID, Boolean> ids;
+        private volatile boolean complete;
+
+        RecentIds(int capacity, boolean complete) {
+            this.complete = complete;
+            this.ids = new LinkedHashMap<>(capacity * 4 / 3 + 1) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<UUID, Boolean> eldest) {
+                    if (size() > capacity) {
+                        RecentIds.this.complete = false;
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        synchronized boolean contains(UUID eventId) {
+            return ids.containsKey(eventId);
+        }
+
+        synchronized void add(UUID eventId) {
+            ids.put(eventId, Boolean.TRUE);
+        }
+
+        boolean isComplete() {
+            return complete;
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package com.bank.accountservice.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bank.accountservice.event.consumer.TransactionProcessedEvent;
+import com.bank.accountservice.model.events.processedevent.ProcessedEvent;
+import com.bank.accountservice.service.ledger.AccountLedger;
+import com.bank.accountservice.service.ledger.LedgerChanges;
+import com.bank.accountservice.service.ledger.LedgerWriter;
+
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Aplica un lote de transferencias recibidas en un único poll de Kafka.
+ * Todo el lote se ejecuta en una sola transacción de base de datos; si algún
+ * registro falla se deshace el lote y se reprocesa registro a registro para
+ * aislar el fallo sin perder el resto.
+ *
+ * Antes del primer registro se bloquean todas las cuentas del lote con una consulta
+ * ordenada por id. Los lotes de los distintos consumidores comparten cuentas calientes;
+ * si cada uno las bloqueara en el orden de sus registros se interbloquearían entre sí y
+ * cada interbloqueo acabaría en el reproceso registro a registro.
+ *
+ * En modo write-behind cada registro se aplica sobre el ledger en memoria y el lote
+ * termina cuando el group commit que contiene sus cambios está persistido.
+ *
+ * La marca de agua de cada partición avanza en la misma transacción que los registros
+ * que cubre (en modo write-behind, en el mismo flush), y solo hasta el último registro
+ * aplicado sin huecos: tras un registro fallido, los siguientes de su partición ya no
+ * la mueven y sus reentregas se descartan por processed_event.
+ */
+@Slf4j
+@Service
+public class TransactionBatchService {
+
+    private final TransactionService transactionService;
+    private final AccountService accountService;
+    private final ProcessedEventService processedEventService;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final AccountLedger accountLedger;
+    private final LedgerWriter ledgerWriter;
+
+    public TransactionBatchService(
+            TransactionService transactionService,
+            AccountService accountService,
+            ProcessedEventService processedEventService,
+            EntityManager entityManager,
+            PlatformTransactionManager transactionManager,
+            AccountLedger accountLedger,
+            LedgerWriter ledgerWriter) {
+        this.transactionService = transactionService;
+        this.accountService = accountService;
+        this.processedEventService = processedEventService;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.accountLedger = accountLedger;
+        this.ledgerWriter = ledgerWriter;
+    }
+
+    /**
+     * Procesa el lote completo y devuelve los registros que no se pudieron aplicar,
+     * en el mismo orden en que llegaron.
+     */
+    public List<BatchFailure> processBatch(List<BatchItem> items) {
+        if (items.isEmpty()) {
+            return List.of();
+        }
+        if (accountLedger.isEnabled()) {
+            return processInLedger(items);
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                accountService.lockAccounts(accountIds(items));
+                for (BatchItem item : items) {
+                    transactionService.doTransaction(item.event());
+                    // Flush por registro para que la versión de cada cuenta avance en cada transferencia
+                    entityManager.flush();
+                }
+                processedEventService.saveAll(items.stream().map(BatchItem::toProcessedEvent).toList());
+                processedEventService.advanceWatermarks(lastOffsets(items));
+            });
+            log.info("[TransactionBatchService] ✅ Batch applied in a single transaction - Size: {}", items.size());
+            return List.of();
+        } catch (RuntimeException e) {
+            log.warn("[TransactionBatchService] Batch of {} records rolled back, retrying record by record - Error: {}",
+                items.size(), e.getMessage());
+            return processIndividually(items);
+        }
+    }
+
+    /**
+     * Aplica cada registro sobre el ledger con sus dos cuentas bloqueadas y espera a que
+     * se persistan los grupos en los que entraron. Los registros no abren transacción:
+     * la única es la del flush del grupo. Si un grupo falla, sus registros se devuelven
+     * como fallidos y se reentregan.
+     */
+    private List<BatchFailure> processInLedger(List<BatchItem> items) {
+        List<BatchFailure> failures = new ArrayList<>();
+        Map<BatchItem, CompletableFuture<Void>> applied = new LinkedHashMap<>();
+        LedgerWatermarks watermarks = new LedgerWatermarks(accountLedger.epoch());
+        for (BatchItem item : items) {
+            try {
+                applied.put(item, applyInLedger(item, watermarks));
+            } catch (RuntimeException e) {
+                log.error("[TransactionBatchService] [TxId: {}] ❌ Record failed in ledger - TransactionId: {}, Error: {}",
+                    item.eventId(), item.event().transactionId(), e.getMessage(), e);
+                failures.add(new BatchFailure(item, e));
+            }
+        }
+
+        applied.forEach((item, committed) -> {
+            try {
+                LedgerWriter.await(committed);
+            } catch (RuntimeException e) {
+                failures.add(new BatchFailure(item, e));
+            }
+        });
+        failures.sort((a, b) -> Integer.compare(a.item().index(), b.item().index()));
+        log.info("[TransactionBatchService] ✅ Batch applied through the ledger - Size: {}, Failed: {}",
+            items.size(), failures.size());
+        return failures;
+    }
+
+    /**
+     * Aplica un registro sobre el ledger con sus dos cuentas bloqueadas, junto con su
+     * processed_event y, si nada anterior de su partición ha fallado, su marca de agua.
+     * Los registros de una misma partición deben llegar aquí en orden de offset.
+     *
+     * @return future que se completa cuando el grupo que contiene el registro está persistido
+     */
+    public CompletableFuture<Void> applyInLedger(BatchItem item, LedgerWatermarks watermarks) {
+        try {
+            return accountLedger.locked(item.event().fromAccountId(), item.event().toAccountId(),
+                () -> ledgerWriter.apply(() -> {
+                    transactionService.doTransactionInLedger(item.event());
+                    LedgerChanges changes = LedgerChanges.current();
+                    changes.stageProcessed(item.toProcessedEvent());
+                    watermarks.stage(changes, item);
+                }));
+        } catch (RuntimeException e) {
+            watermarks.block(item);
+            throw e;
+        }
+    }
+
+    private static Set<UUID> accountIds(List<BatchItem> items) {
+        Set<UUID> ids = new HashSet<>(items.size() * 2);
+        for (BatchItem item : items) {
+            ids.add(item.event().fromAccountId());
+            ids.add(item.event().toAccountId());
+        }
+        return ids;
+    }
+
+    private List<BatchFailure> processIndividually(List<BatchItem> items) {
+        List<BatchFailure> failures = new ArrayList<>();
+        Set<TopicPartition> blocked = new HashSet<>();
+        for (BatchItem item : items) {
+            TopicPartition topicPartition = item.topicPartition();
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    transactionService.doTransaction(item.event());
+                    processedEventService.save(item.toProcessedEvent());
+                    if (!blocked.contains(topicPartition)) {
+                        processedEventService.advanceWatermark(item.topic(), item.partition(), item.offset());
+                    }
+                });
+            } catch (RuntimeException e) {
+                log.error("[TransactionBatchService] [TxId: {}] ❌ Record failed in isolation - TransactionId: {}, Error: {}",
+                    item.eventId(), item.event().transactionId(), e.getMessage(), e);
+                failures.add(new BatchFailure(item, e));
+                blocked.add(topicPartition);
+            }
+        }
+        return failures;
+    }
+
+    private static Map<TopicPartition, Long> lastOffsets(List<BatchItem> items) {
+        Map<TopicPartition, Long> offsets = new HashMap<>();
+        items.forEach(item -> offsets.merge(item.topicPartition(), item.offset(), Math::max));
+        return offsets;
+    }
+
+    /**
+     * Marcas de agua de un lote aplicado sobre el ledger. Un registro solo registra la
+     * suya si ningún registro anterior de su partición ha fallado y el ledger no se ha
+     * reiniciado desde que empezó el lote: tras un flush fallido los registros que
+     * vienen detrás se persisten en grupos nuevos, y si movieran la marca de agua los
+     * registros del grupo perdido se descartarían al reentregarse.
+     */
+    public static final class LedgerWatermarks {
+
+        private final long epoch;
+        private final Set<TopicPartition> blocked = ConcurrentHashMap.newKeySet();
+
+        /**
+         * @param epoch época del ledger al empezar el lote
+         */
+        public LedgerWatermarks(long epoch) {
+            this.epoch = epoch;
+        }
+
+        void stage(LedgerChanges changes, BatchItem item) {
+            if (changes.epoch() == epoch && !blocked.contains(item.topicPartition())) {
+                changes.stageWatermark(item.topicPartition(), item.offset());
+            }
+        }
+
+        /**
+         * Deja de mover la marca de agua de la partición del registro durante el resto del lote.
+         */
+        void block(BatchItem item) {
+            blocked.add(item.topicPartition());
+        }
+    }
+
+    /**
+     * Registro de un lote junto con sus coordenadas en Kafka.
+     *
+     * @param index posición del registro dentro del lote recibido por el listener
+     */
+    public record BatchItem(
+        int index,
+        UUID eventId,
+        TransactionProcessedEvent event,
+        String topic,
+        int partition,
+        long offset
+    ) {
+        public TopicPartition topicPartition() {
+            return new TopicPartition(topic, partition);
+        }
+
+        ProcessedEvent toProcessedEvent() {
+            return new ProcessedEvent(eventId, event.getClass().getSimpleName(), topic, partition, offset);
+        }
+    }
+
+    public record BatchFailure(BatchItem item, RuntimeException cause) {}
+}
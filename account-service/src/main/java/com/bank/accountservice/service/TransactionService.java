@@ -10,6 +10,12 @@ import com.bank.accountservice.exception.CouldNotProcessTransaction;
 import com.bank.accountservice.model.account.Account;
 import com.bank.accountservice.model.transaction.TransactionStatus;
 import com.bank.accountservice.observability.MetricService;
+import com.bank.accountservice.observability.TimedOperation;
+import com.bank.accountservice.observability.TransactionOutcome;
+import com.bank.accountservice.service.ledger.LedgerChanges;
+
+import java.util.Map;
+import java.util.UUID;
 
 import jakarta.persistence.OptimisticLockException;
 import lombok.RequiredArgsConstructor;
@@ -25,58 +31,76 @@ public class TransactionService {
 
     @Transactional
     public void doTransaction(TransactionProcessedEvent transactionProcessedEvent) {
-        metricService.transactionTimer("transaction_processing").record(() -> {
+        applyTransaction(transactionProcessedEvent);
+    }
+
+    /**
+     * Variante del modo write-behind: se ejecuta dentro de una operación del ledger y sin
+     * transacción JPA, porque todo lo que escribe queda en el grupo que LedgerWriter
+     * persiste después. Así cada registro no abre una transacción ni toma una conexión.
+     */
+    public void doTransactionInLedger(TransactionProcessedEvent transactionProcessedEvent) {
+        if (LedgerChanges.current() == null) {
+            throw new IllegalStateException("doTransactionInLedger must run inside a ledger operation");
+        }
+        applyTransaction(transactionProcessedEvent);
+    }
+
+    private void applyTransaction(TransactionProcessedEvent transactionProcessedEvent) {
+        metricService.transactionTimer(TimedOperation.TRANSACTION_PROCESSING).record(() -> {
             TransactionStatus transactionState;
             try {
                 if (transactionProcessedEvent.toAccountId().equals(transactionProcessedEvent.fromAccountId())) {
                     log.warn("TransactionService - Invalid transaction data: FromAccount and ToAccount are the same - AccountId: {}",
                         transactionProcessedEvent.fromAccountId());
                     transactionState = TransactionStatus.INCORRECT;
-                    metricService.transactionProcessed("incorrect").increment();
+                    metricService.transactionProcessed(TransactionOutcome.INCORRECT).increment();
                     outboxService.completeTransaction(transactionProcessedEvent, transactionState);
                     return;
                 }
-                Account fromAccount = accountService.getAccountByIdWithLock(transactionProcessedEvent.fromAccountId());
-                Account toAccount = accountService.getAccountByIdWithLock(transactionProcessedEvent.toAccountId());
+                Map<UUID, Account> accounts = accountService.getAccountsForTransfer(
+                    transactionProcessedEvent.fromAccountId(), transactionProcessedEvent.toAccountId());
+                Account fromAccount = accounts.get(transactionProcessedEvent.fromAccountId());
+                Account toAccount = accounts.get(transactionProcessedEvent.toAccountId());
                 //TODO: Create more states, not doing it now to simplify the flow
                 if (!accountService.checkAccountAvailable(transactionProcessedEvent.fromAccountVersionId(), fromAccount)) {
                     transactionState = TransactionStatus.INCORRECT;
                     log.warn("TransactionService - Transaction incorrect due to fromAccount issues");
-                    metricService.transactionProcessed("incorrect").increment();
+                    metricService.transactionProcessed(TransactionOutcome.INCORRECT).increment();
                 } else if (!accountService.checkFoundsInAccount(transactionProcessedEvent.amount(), fromAccount)) {
                     transactionState = TransactionStatus.INCORRECT;
                     log.warn("TransactionService - Transaction incorrect due to insufficient funds");
-                    metricService.transactionProcessed("incorrect").increment();
+                    metricService.transactionProcessed(TransactionOutcome.INCORRECT).increment();
                 } else if(!accountService.checkAccountAvailable(transactionProcessedEvent.toAccountVersionId(), toAccount)) {
                     transactionState = TransactionStatus.INCORRECT;
                     log.warn("TransactionService - Transaction incorrect due to toAccount issues");
-                    metricService.transactionProcessed("incorrect").increment();
+                    metricService.transactionProcessed(TransactionOutcome.INCORRECT).increment();
                 } else {
                     accountService.removeMoneyFromAccount(fromAccount, transactionProcessedEvent.amount());
                     accountService.addMoneyToAccount(toAccount, transactionProcessedEvent.amount());
                     transactionState = TransactionStatus.CORRECT;
-                    metricService.transactionProcessed("correct").increment();
+                    metricService.transactionProcessed(TransactionOutcome.CORRECT).increment();
                 }
                 outboxService.completeTransaction(transactionProcessedEvent, transactionState);
             } catch (AccountNotFound e) {
                 log.error("TransactionService - AccountNotFoundException - TransactionId: {}",
                     transactionProcessedEvent.transactionId(), e);
-                metricService.transactionProcessed("failed").increment();
+                metricService.transactionProcessed(TransactionOutcome.FAILED).increment();
                 outboxService.completeTransaction(transactionProcessedEvent, TransactionStatus.FAILED);
             } catch (OptimisticLockException e) {
                 log.error("TransactionService - OptimisticLockException - TransactionId: {}",
                     transactionProcessedEvent.transactionId(), e);
-                metricService.transactionProcessed("failed").increment();
+                metricService.transactionProcessed(TransactionOutcome.FAILED).increment();
                 throw new CouldNotProcessTransaction("Unexpected error processing transaction", e);
             } catch (DataAccessException e) {
                 log.error("TransactionService - DataAccessException - TransactionId: {}",
                     transactionProcessedEvent.transactionId(), e);
-                metricService.transactionProcessed("failed").increment();
+                metricService.transactionProcessed(TransactionOutcome.FAILED).increment();
                 throw new CouldNotProcessTransaction("Unexpected error processing transaction", e);
             } catch (Exception e) {
                 log.error("TransactionService - Unexpected error processing transaction - TransactionId: {}",
                     transactionProcessedEvent.transactionId(), e);
-                metricService.transactionProcessed("failed").increment();
+                metricService.transactionProcessed(TransactionOutcome.FAILED).increment();
                 throw new CouldNotProcessTransaction("Unexpected error processing transaction", e);
             }
         });
@@ -0,0 +1,150 @@
+package com.bank.accountservice.service.ledger;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.bank.accountservice.exception.AccountNotFound;
+import com.bank.accountservice.model.account.Account;
+import com.bank.accountservice.model.account.AccountStatus;
+import com.bank.accountservice.observability.LockType;
+import com.bank.accountservice.observability.MetricService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Saldos en memoria del modo write-behind.
+ *
+ * Con el ledger activo la copia en memoria de cada cuenta es la autoritativa: las
+ * transferencias la modifican directamente y LedgerWriter persiste los cambios
+ * agrupados. Cada cuenta se carga de la base de datos la primera vez que se usa, con
+ * JDBC para que no quede gestionada por ningún contexto de persistencia.
+ *
+ * Igual que el TransferEngine, asume un único account-service escribiendo las cuentas;
+ * si otra instancia las modifica, el flush detecta la versión cambiada, falla y el
+ * ledger se reconstruye desde la base de datos.
+ */
+@Slf4j
+@Component
+public class AccountLedger {
+
+    private static final String SELECT_ACCOUNT = """
+        SELECT id, account_number, owner_name, balance, status, version_id, created_at, updated_at
+        FROM accounts WHERE id = ?
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MetricService metricService;
+    private final boolean enabled;
+    private final ReentrantLock[] stripes;
+    private final Map<UUID, Account> accounts = new ConcurrentHashMap<>();
+    private final AtomicLong epoch = new AtomicLong();
+
+    public AccountLedger(
+            JdbcTemplate jdbcTemplate,
+            MetricService metricService,
+            @Value("${spring.ledger.write-behind.enabled:false}") boolean enabled,
+            @Value("${spring.ledger.write-behind.lock-stripes:64}") int lockStripes) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.metricService = metricService;
+        this.enabled = enabled;
+        this.stripes = new ReentrantLock[lockStripes];
+        for (int i = 0; i < lockStripes; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Devuelve la cuenta en memoria, cargándola si aún no está.
+     * Dentro de una operación del ledger anota su estado para poder deshacerla.
+     */
+    public Account get(UUID id) {
+        Account account = accounts.computeIfAbsent(id, this::load);
+        LedgerChanges changes = LedgerChanges.current();
+        if (changes != null) {
+            changes.touch(account);
+        }
+        return account;
+    }
+
+    /**
+     * Ejecuta la acción con las cuentas indicadas bloqueadas, siempre en el mismo orden
+     * para que dos operaciones opuestas no se interbloqueen. Registra la espera y el
+     * tiempo de retención de los stripes.
+     */
+    public <T> T locked(UUID first, UUID second, Supplier<T> action) {
+        int a = stripeOf(first);
+        int b = stripeOf(second);
+        ReentrantLock low = stripes[Math.min(a, b)];
+        ReentrantLock high = stripes[Math.max(a, b)];
+        long requested = System.nanoTime();
+        low.lock();
+        if (high != low) {
+            high.lock();
+        }
+        long acquired = System.nanoTime();
+        metricService.lockWaitTimer(LockType.STRIPE).record(acquired - requested, TimeUnit.NANOSECONDS);
+        try {
+            return action.get();
+        } finally {
+            if (high != low) {
+                high.unlock();
+            }
+            low.unlock();
+            metricService.lockHoldTimer(LockType.STRIPE).record(System.nanoTime() - acquired, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Descarta todas las cuentas en memoria tras un flush fallido. Las operaciones
+     * preparadas con el estado anterior se rechazan por su época.
+     */
+    void reset() {
+        epoch.incrementAndGet();
+        accounts.clear();
+        log.warn("[AccountLedger] Ledger reset, accounts will be reloaded from the database");
+    }
+
+    /**
+     * Época actual del ledger; avanza con cada reinicio tras un flush fallido.
+     */
+    public long epoch() {
+        return epoch.get();
+    }
+
+    private int stripeOf(UUID accountId) {
+        return accountId == null ? 0 : Math.floorMod(accountId.hashCode(), stripes.length);
+    }
+
+    private Account load(UUID id) {
+        return jdbcTemplate.query(SELECT_ACCOUNT, rs -> {
+            if (!rs.next()) {
+                log.warn("[AccountLedger] Account not found - AccountId: {}", id);
+                throw new AccountNotFound("Account with ID " + id + " not found");
+            }
+            Account account = Account.builder()
+                .accountNumber(rs.getString("account_number"))
+                .ownerName(rs.getString("owner_name"))
+                .balance(rs.getBigDecimal("balance"))
+                .status(AccountStatus.valueOf(rs.getString("status")))
+                .versionId(rs.getLong("version_id"))
+                .build();
+            account.setId(rs.getObject("id", UUID.class));
+            account.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
+            account.setUpdatedAt(rs.getTimestamp("updated_at").toLocalDateTime());
+            return account;
+        }, id);
+    }
+}
@@ -0,0 +1,158 @@
+package com.bank.accountservice.service.ledger;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.apache.kafka.common.TopicPartition;
+
+import com.bank.accountservice.model.account.Account;
+import com.bank.accountservice.model.account.AccountStatus;
+import com.bank.accountservice.model.events.outbox.OutboxEvent;
+import com.bank.accountservice.model.events.processedevent.ProcessedEvent;
+
+/**
+ * Cambios pendientes de una operación aplicada sobre el ledger en memoria.
+ *
+ * Se asocian al hilo actual mientras dura la operación (igual que una transacción de
+ * Spring), de modo que AccountService y OutboxService registran aquí sus escrituras en
+ * lugar de enviarlas a JPA. Si la operación falla, las cuentas tocadas vuelven al estado
+ * en que se leyeron.
+ */
+public final class LedgerChanges {
+
+    private static final ThreadLocal<LedgerChanges> CURRENT = new ThreadLocal<>();
+
+    private final long epoch;
+    private final Map<UUID, AccountChange> accounts = new LinkedHashMap<>();
+    private final List<OutboxEvent> outboxEvents = new ArrayList<>();
+    private final List<ProcessedEvent> processedEvents = new ArrayList<>();
+    private final Map<TopicPartition, Long> watermarks = new LinkedHashMap<>();
+    private final Map<Account, AccountChange> touched = new IdentityHashMap<>();
+
+    LedgerChanges(long epoch) {
+        this.epoch = epoch;
+    }
+
+    /**
+     * Cambios asociados al hilo actual, o null si no hay una operación del ledger en curso.
+     */
+    public static LedgerChanges current() {
+        return CURRENT.get();
+    }
+
+    static void bind(LedgerChanges changes) {
+        CURRENT.set(changes);
+    }
+
+    static void unbind() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Anota el estado de una cuenta antes de modificarla para poder deshacer la operación.
+     */
+    void touch(Account account) {
+        touched.computeIfAbsent(account, AccountChange::of);
+    }
+
+    /**
+     * Registra el nuevo estado de una cuenta.
+     *
+     * @param expectedVersion versión que la cuenta tenía antes de este cambio
+     */
+    public void stageAccount(Account account, long expectedVersion) {
+        accounts.merge(account.getId(), AccountChange.of(account).expecting(expectedVersion), AccountChange::merge);
+    }
+
+    public void stageOutbox(OutboxEvent outboxEvent) {
+        outboxEvents.add(outboxEvent);
+    }
+
+    public void stageProcessed(ProcessedEvent processedEvent) {
+        processedEvents.add(processedEvent);
+    }
+
+    /**
+     * Registra la marca de agua de una partición para escribirla en el mismo flush que el
+     * resto de cambios. Solo debe llamarse con el último offset de un tramo aplicado sin huecos.
+     */
+    public void stageWatermark(TopicPartition topicPartition, long offset) {
+        watermarks.merge(topicPartition, offset, Math::max);
+    }
+
+    void rollback() {
+        touched.forEach((account, before) -> before.restore(account));
+    }
+
+    /**
+     * Época del ledger sobre la que se preparó la operación; cambia con cada flush fallido.
+     */
+    public long epoch() {
+        return epoch;
+    }
+
+    Map<UUID, AccountChange> accounts() {
+        return accounts;
+    }
+
+    List<OutboxEvent> outboxEvents() {
+        return outboxEvents;
+    }
+
+    List<ProcessedEvent> processedEvents() {
+        return processedEvents;
+    }
+
+    Map<TopicPartition, Long> watermarks() {
+        return watermarks;
+    }
+
+    /**
+     * Estado de una cuenta a persistir.
+     *
+     * @param expectedVersion versión que debe tener la fila para aplicar el cambio
+     */
+    record AccountChange(
+        UUID id,
+        String accountNumber,
+        String ownerName,
+        BigDecimal balance,
+        AccountStatus status,
+        long version,
+        long expectedVersion,
+        LocalDateTime updatedAt
+    ) {
+        static AccountChange of(Account account) {
+            return new AccountChange(account.getId(), account.getAccountNumber(), account.getOwnerName(),
+                account.getBalance(), account.getStatus(), account.getVersionId(), account.getVersionId(),
+                LocalDateTime.now());
+        }
+
+        AccountChange expecting(long expected) {
+            return new AccountChange(id, accountNumber, ownerName, balance, status, version, expected, updatedAt);
+        }
+
+        /**
+         * Combina dos cambios de la misma cuenta: estado de la versión más reciente y
+         * versión esperada de la más antigua, sea cual sea el orden en que lleguen.
+         */
+        static AccountChange merge(AccountChange a, AccountChange b) {
+            AccountChange latest = a.version() >= b.version() ? a : b;
+            return latest.expecting(Math.min(a.expectedVersion(), b.expectedVersion()));
+        }
+
+        void restore(Account account) {
+            account.setAccountNumber(accountNumber);
+            account.setOwnerName(ownerName);
+            account.setBalance(balance);
+            account.setStatus(status);
+            account.setVersionId(version);
+        }
+    }
+}
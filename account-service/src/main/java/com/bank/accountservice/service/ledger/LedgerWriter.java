@@ -0,0 +1,386 @@
+package com.bank.accountservice.service.ledger;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bank.accountservice.exception.CouldNotPersistLedger;
+import com.bank.accountservice.model.events.outbox.OutboxEvent;
+import com.bank.accountservice.model.events.outbox.OutboxEventSaved;
+import com.bank.accountservice.model.events.processedevent.ProcessedEvent;
+import com.bank.accountservice.observability.MetricService;
+import com.bank.accountservice.observability.OutboxEventType;
+import com.bank.accountservice.service.ProcessedEventService;
+import com.bank.accountservice.service.ledger.LedgerChanges.AccountChange;
+
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Group commit del modo write-behind.
+ *
+ * Cada operación del ledger deja sus cambios en el grupo abierto y recibe un future que
+ * se completa cuando ese grupo está en la base de datos. Un hilo dedicado cierra el
+ * grupo al vencer la ventana de flush (o al llenarse) y lo persiste en una transacción
+ * con una sentencia JDBC en lote por tabla: saldos (un UPDATE por cuenta con el último
+ * estado del grupo), outbox_event y processed_event. En la misma transacción avanza la
+ * marca de agua de cada partición hasta el mayor offset que el grupo trae para ella.
+ *
+ * La durabilidad la dan los offsets de transaction.requested: el consumidor solo
+ * confirma el lote cuando su grupo está persistido, así que lo que se pierda en memoria
+ * se vuelve a aplicar al reentregarse. Si un flush falla se descarta el ledger y también
+ * el grupo abierto, preparado sobre ese estado.
+ *
+ * Con spring.outbox.account-updated.coalesce los AccountUpdatedEvent de una misma cuenta
+ * dentro del grupo se reducen a uno con el estado de la última versión. La fila conserva
+ * la posición, el id y el created_at del primero, de modo que no se publica después de
+ * los eventos que le siguieron (por ejemplo el transaction.completed de su transferencia).
+ */
+@Slf4j
+@Component
+public class LedgerWriter implements SmartLifecycle {
+
+    private static final String UPDATE_ACCOUNT = """
+        UPDATE accounts
+        SET account_number = ?, owner_name = ?, balance = ?, status = ?, version_id = ?, updated_at = ?
+        WHERE id = ? AND version_id = ?
+        """;
+    private static final String INSERT_OUTBOX = """
+        INSERT INTO outbox_event (id, aggregate_type, aggregate_id, type, topic, partition_key, payload, status, attempts, created_at)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+        """;
+    private static final String INSERT_PROCESSED = """
+        INSERT INTO processed_event (event_id, event_type, topic, partition, record_offset, processed_at)
+        VALUES (?, ?, ?, ?, ?, ?)
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AccountLedger accountLedger;
+    private final ProcessedEventService processedEventService;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final MetricService metricService;
+    private final long flushIntervalNanos;
+    private final int flushSize;
+    private final boolean coalesceAccountUpdates;
+
+    private final Object monitor = new Object();
+    private GroupCommit open = new GroupCommit();
+    private volatile boolean running;
+    private Thread writer;
+
+    public LedgerWriter(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            AccountLedger accountLedger,
+            ProcessedEventService processedEventService,
+            ApplicationEventPublisher applicationEventPublisher,
+            MetricService metricService,
+            @Value("${spring.ledger.write-behind.flush-interval-ms:5}") long flushIntervalMs,
+            @Value("${spring.ledger.write-behind.flush-size:1000}") int flushSize,
+            @Value("${spring.outbox.account-updated.coalesce:false}") boolean coalesceAccountUpdates) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.accountLedger = accountLedger;
+        this.processedEventService = processedEventService;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.metricService = metricService;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        this.flushSize = flushSize;
+        this.coalesceAccountUpdates = coalesceAccountUpdates;
+    }
+
+    /**
+     * Ejecuta una operación sobre el ledger y deja sus cambios en el grupo abierto.
+     * Debe llamarse con las cuentas afectadas bloqueadas (AccountLedger#locked) para
+     * que los cambios de cada cuenta entren en los grupos en el orden en que se hicieron.
+     *
+     * @return future que se completa cuando los cambios están persistidos
+     */
+    public CompletableFuture<Void> apply(Runnable operation) {
+        LedgerChanges changes = new LedgerChanges(accountLedger.epoch());
+        LedgerChanges.bind(changes);
+        try {
+            operation.run();
+        } catch (RuntimeException e) {
+            changes.rollback();
+            throw e;
+        } finally {
+            LedgerChanges.unbind();
+        }
+        return append(changes);
+    }
+
+    /**
+     * Igual que {@link #apply(Runnable)} pero esperando al commit, para operaciones
+     * que no vienen de Kafka y no se pueden reentregar.
+     */
+    public <T> T applyAndWait(Supplier<T> operation) {
+        Object[] result = new Object[1];
+        CompletableFuture<Void> committed = apply(() -> result[0] = operation.get());
+        await(committed);
+        @SuppressWarnings("unchecked")
+        T value = (T) result[0];
+        return value;
+    }
+
+    /**
+     * Espera al commit de un grupo propagando su error.
+     */
+    public static void await(CompletableFuture<Void> committed) {
+        try {
+            committed.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private CompletableFuture<Void> append(LedgerChanges changes) {
+        synchronized (monitor) {
+            if (!running) {
+                return CompletableFuture.failedFuture(new CouldNotPersistLedger("Ledger writer is not running"));
+            }
+            if (changes.epoch() != accountLedger.epoch()) {
+                return CompletableFuture.failedFuture(
+                    new CouldNotPersistLedger("Ledger was reset while the operation was being applied"));
+            }
+            open.add(changes);
+            if (open.size() >= flushSize) {
+                monitor.notifyAll();
+            }
+            return open.committed;
+        }
+    }
+
+    private void run() {
+        while (true) {
+            GroupCommit group;
+            try {
+                synchronized (monitor) {
+                    while (running && !open.isReady()) {
+                        long wait = open.isEmpty() ? flushIntervalNanos : open.deadline - System.nanoTime();
+                        TimeUnit.NANOSECONDS.timedWait(monitor, Math.max(wait, 1));
+                    }
+                    if (open.isEmpty()) {
+                        if (!running) {
+                            return;
+                        }
+                        continue;
+                    }
+                    group = open;
+                    open = new GroupCommit();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+                continue;
+            }
+            flush(group);
+        }
+    }
+
+    private void flush(GroupCommit group) {
+        List<OutboxEvent> outboxEvents = group.outboxEvents;
+        Timer.Sample sample = Timer.start();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                updateAccounts(new ArrayList<>(group.accounts.values()));
+                insertOutboxEvents(outboxEvents);
+                insertProcessedEvents(group.processedEvents);
+                if (!group.watermarks.isEmpty()) {
+                    processedEventService.advanceWatermarks(group.watermarks);
+                }
+            });
+        } catch (RuntimeException e) {
+            GroupCommit discarded;
+            synchronized (monitor) {
+                accountLedger.reset();
+                discarded = open;
+                open = new GroupCommit();
+            }
+            CouldNotPersistLedger failure = new CouldNotPersistLedger("Ledger flush failed", e);
+            group.committed.completeExceptionally(failure);
+            discarded.committed.completeExceptionally(failure);
+            metricService.ledgerFlushFailed().increment();
+            log.error("[LedgerWriter] ❌ Flush failed, {} operations will be redelivered - Error: {}",
+                group.operations + discarded.operations, e.getMessage(), e);
+            return;
+        } finally {
+            sample.stop(metricService.ledgerFlushTimer());
+        }
+
+        processedEventService.remember(group.processedEvents);
+        if (group.coalesced > 0) {
+            metricService.outboxEventCoalesced(OutboxEventType.ACCOUNT_UPDATED).increment(group.coalesced);
+        }
+        if (!outboxEvents.isEmpty()) {
+            OutboxEvent last = outboxEvents.get(outboxEvents.size() - 1);
+            applicationEventPublisher.publishEvent(new OutboxEventSaved(last.getId(), last.getTopic()));
+        }
+        group.committed.complete(null);
+        log.debug("[LedgerWriter] Group committed - Operations: {}, Accounts: {}, Outbox: {}",
+            group.operations, group.accounts.size(), outboxEvents.size());
+    }
+
+    private void updateAccounts(List<AccountChange> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        int[][] counts = jdbcTemplate.batchUpdate(UPDATE_ACCOUNT, changes, changes.size(), (ps, change) -> {
+            ps.setString(1, change.accountNumber());
+            ps.setString(2, change.ownerName());
+            ps.setBigDecimal(3, change.balance());
+            ps.setString(4, change.status().name());
+            ps.setLong(5, change.version());
+            ps.setTimestamp(6, Timestamp.valueOf(change.updatedAt()));
+            ps.setObject(7, change.id());
+            ps.setLong(8, change.expectedVersion());
+        });
+        int i = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                if (count == 0) {
+                    throw new CouldNotPersistLedger("Account " + changes.get(i).id()
+                        + " was modified outside the ledger (expected version " + changes.get(i).expectedVersion() + ")");
+                }
+                i++;
+            }
+        }
+    }
+
+    private void insertOutboxEvents(List<OutboxEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_OUTBOX, events, events.size(), (ps, event) -> {
+            ps.setObject(1, event.getId());
+            ps.setString(2, event.getAggregateType());
+            ps.setObject(3, event.getAggregateId());
+            ps.setString(4, event.getType());
+            ps.setString(5, event.getTopic());
+            ps.setString(6, event.getPartitionKey());
+            ps.setString(7, event.getPayload());
+            ps.setString(8, event.getStatus().name());
+            ps.setInt(9, event.getAttempts());
+            ps.setTimestamp(10, Timestamp.valueOf(event.getCreatedAt()));
+        });
+    }
+
+    private void insertProcessedEvents(List<ProcessedEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_PROCESSED, events, events.size(), (ps, event) -> {
+            ps.setObject(1, event.getEventId());
+            ps.setString(2, event.getEventType());
+            ps.setString(3, event.getTopic());
+            ps.setInt(4, event.getPartition());
+            ps.setLong(5, event.getOffset());
+            ps.setTimestamp(6, Timestamp.valueOf(event.getProcessedAt()));
+        });
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        writer = new Thread(this::run, "ledger-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public void stop() {
+        synchronized (monitor) {
+            running = false;
+            monitor.notifyAll();
+        }
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Arranca antes y se detiene después que los listeners de Kafka, para que ningún
+     * consumidor quede esperando un grupo que ya no se va a persistir.
+     */
+    @Override
+    public int getPhase() {
+        return Integer.MAX_VALUE - 200;
+    }
+
+    /**
+     * Cambios acumulados durante una ventana de flush.
+     */
+    private final class GroupCommit {
+
+        private final Map<UUID, AccountChange> accounts = new LinkedHashMap<>();
+        private final List<OutboxEvent> outboxEvents = new ArrayList<>();
+        private final Map<UUID, OutboxEvent> accountUpdates = new HashMap<>();
+        private final List<ProcessedEvent> processedEvents = new ArrayList<>();
+        private final Map<TopicPartition, Long> watermarks = new LinkedHashMap<>();
+        private final CompletableFuture<Void> committed = new CompletableFuture<>();
+        private int operations;
+        private int coalesced;
+        private long deadline;
+
+        void add(LedgerChanges changes) {
+            if (operations++ == 0) {
+                deadline = System.nanoTime() + flushIntervalNanos;
+            }
+            changes.accounts().forEach((id, change) -> accounts.merge(id, change, AccountChange::merge));
+            for (OutboxEvent event : changes.outboxEvents()) {
+                OutboxEvent first = coalesceAccountUpdates && OutboxEventType.ACCOUNT_UPDATED.tag().equals(event.getType())
+                    ? accountUpdates.putIfAbsent(event.getAggregateId(), event)
+                    : null;
+                if (first != null) {
+                    // Las operaciones de una cuenta llegan en orden, así que la última es la más reciente
+                    first.setPayload(event.getPayload());
+                    coalesced++;
+                } else {
+                    outboxEvents.add(event);
+                }
+            }
+            processedEvents.addAll(changes.processedEvents());
+            changes.watermarks().forEach((topicPartition, offset) -> watermarks.merge(topicPartition, offset, Math::max));
+        }
+
+        int size() {
+            return outboxEvents.size() + processedEvents.size();
+        }
+
+        boolean isEmpty() {
+            return operations == 0;
+        }
+
+        boolean isReady() {
+            return !isEmpty() && (size() >= flushSize || System.nanoTime() >= deadline);
+        }
+    }
+}
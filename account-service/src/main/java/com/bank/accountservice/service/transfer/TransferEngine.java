@@ -0,0 +1,184 @@
+package com.bank.accountservice.service.transfer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.IntStream;
+
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.bank.accountservice.event.consumer.TransactionProcessedEvent;
+import com.bank.accountservice.observability.LockType;
+import com.bank.accountservice.observability.MetricService;
+import com.bank.accountservice.service.TransactionBatchService;
+import com.bank.accountservice.service.TransactionBatchService.BatchFailure;
+import com.bank.accountservice.service.TransactionBatchService.BatchItem;
+import com.bank.accountservice.service.TransactionBatchService.LedgerWatermarks;
+import com.bank.accountservice.service.ledger.AccountLedger;
+import com.bank.accountservice.service.ledger.LedgerWriter;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Motor de transferencias con un único escritor por shard de cuentas.
+ * Cada cuenta pertenece a un shard según el hash de su UUID y cada shard tiene un
+ * worker propio, de modo que las cuentas calientes se serializan en memoria en lugar
+ * de en la cola de bloqueos de Postgres.
+ *
+ * Solo actúa con el modo write-behind (AccountLedger): cada transferencia se aplica
+ * sobre el ledger en memoria, sin bloquear filas, y se persiste en el group commit de
+ * LedgerWriter. Sin el ledger el lote se delega entero en TransactionBatchService, que
+ * aplica las transferencias con bloqueos de fila. Por eso comparte la suposición del
+ * ledger: un único account-service escribiendo las cuentas.
+ *
+ * Una transferencia se envía al shard menor de sus dos cuentas. El worker toma los
+ * locks de los dos shards siempre en orden ascendente, por lo que dos transferencias
+ * opuestas entre las mismas cuentas no pueden interbloquearse. La espera por los locks
+ * y el tiempo que se mantienen se publican como transfer.lock.wait y transfer.lock.hold.
+ *
+ * Los registros de una misma partición se aplican en orden de offset: cada uno se
+ * entrega a su worker cuando el anterior de su partición ha terminado. Las particiones
+ * distintas avanzan en paralelo.
+ */
+@Slf4j
+@Component
+public class TransferEngine implements DisposableBean {
+
+    private final TransactionBatchService transactionBatchService;
+    private final AccountLedger accountLedger;
+    private final MetricService metricService;
+    private final boolean enabled;
+    private final ReentrantLock[] shardLocks;
+    private final ExecutorService[] shardWorkers;
+
+    public TransferEngine(
+            TransactionBatchService transactionBatchService,
+            AccountLedger accountLedger,
+            MetricService metricService,
+            @Value("${spring.transfer-engine.enabled:true}") boolean enabled,
+            @Value("${spring.transfer-engine.shards:8}") int shards) {
+        if (shards < 1) {
+            throw new IllegalArgumentException("spring.transfer-engine.shards must be at least 1");
+        }
+        this.transactionBatchService = transactionBatchService;
+        this.accountLedger = accountLedger;
+        this.metricService = metricService;
+        this.enabled = enabled;
+        this.shardLocks = new ReentrantLock[shards];
+        this.shardWorkers = new ExecutorService[shards];
+        for (int i = 0; i < shards; i++) {
+            final String threadName = "transfer-shard-" + i;
+            shardLocks[i] = new ReentrantLock();
+            shardWorkers[i] = Executors.newSingleThreadExecutor(r -> new Thread(r, threadName));
+        }
+    }
+
+    /**
+     * Reparte el lote entre los shards, espera a que todos los registros estén
+     * persistidos y devuelve los fallidos ordenados por su posición en el lote.
+     */
+    public List<BatchFailure> execute(List<BatchItem> items) {
+        if (!enabled || !accountLedger.isEnabled() || items.isEmpty()) {
+            return transactionBatchService.processBatch(items);
+        }
+
+        LedgerWatermarks watermarks = new LedgerWatermarks(accountLedger.epoch());
+        Map<TopicPartition, CompletableFuture<?>> previousByPartition = new HashMap<>();
+        List<CompletableFuture<CompletableFuture<Void>>> applied = new ArrayList<>(items.size());
+        for (BatchItem item : items) {
+            CompletableFuture<?> previous = previousByPartition.getOrDefault(
+                item.topicPartition(), CompletableFuture.completedFuture(null));
+            // handle y no then: un registro fallido no impide aplicar los siguientes de su partición
+            CompletableFuture<CompletableFuture<Void>> next = previous.handleAsync(
+                (result, error) -> applyOnShard(item, watermarks), shardWorkers[ownerShard(item.event())]);
+            previousByPartition.put(item.topicPartition(), next);
+            applied.add(next);
+        }
+
+        List<BatchFailure> failures = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            try {
+                LedgerWriter.await(unwrap(applied.get(i)));
+            } catch (RuntimeException e) {
+                failures.add(new BatchFailure(items.get(i), e));
+            }
+        }
+        return failures;
+    }
+
+    private CompletableFuture<Void> applyOnShard(BatchItem item, LedgerWatermarks watermarks) {
+        int[] lockOrder = lockOrder(item.event());
+
+        long requested = System.nanoTime();
+        for (int shard : lockOrder) {
+            shardLocks[shard].lock();
+        }
+        long acquired = System.nanoTime();
+        metricService.lockWaitTimer(LockType.SHARD).record(acquired - requested, TimeUnit.NANOSECONDS);
+        try {
+            return transactionBatchService.applyInLedger(item, watermarks);
+        } catch (RuntimeException e) {
+            log.error("[TransferEngine] [TxId: {}] ❌ Record failed in ledger - TransactionId: {}, Error: {}",
+                item.eventId(), item.event().transactionId(), e.getMessage(), e);
+            throw e;
+        } finally {
+            for (int i = lockOrder.length - 1; i >= 0; i--) {
+                shardLocks[lockOrder[i]].unlock();
+            }
+            metricService.lockHoldTimer(LockType.SHARD).record(System.nanoTime() - acquired, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static CompletableFuture<Void> unwrap(CompletableFuture<CompletableFuture<Void>> applied) {
+        try {
+            return applied.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Shards de las dos cuentas, sin repetir y en orden ascendente.
+     */
+    int[] lockOrder(TransactionProcessedEvent event) {
+        return IntStream.of(shardOf(event.fromAccountId()), shardOf(event.toAccountId()))
+            .distinct()
+            .sorted()
+            .toArray();
+    }
+
+    int ownerShard(TransactionProcessedEvent event) {
+        return Math.min(shardOf(event.fromAccountId()), shardOf(event.toAccountId()));
+    }
+
+    int shardOf(UUID accountId) {
+        return accountId == null ? 0 : Math.floorMod(accountId.hashCode(), shardLocks.length);
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        for (ExecutorService worker : shardWorkers) {
+            worker.shutdown();
+        }
+        for (ExecutorService worker : shardWorkers) {
+            if (!worker.awaitTermination(10, TimeUnit.SECONDS)) {
+                log.warn("[TransferEngine] Shard worker did not finish in time, forcing shutdown");
+                worker.shutdownNow();
+            }
+        }
+    }
+}
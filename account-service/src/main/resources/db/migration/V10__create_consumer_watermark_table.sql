@@ -0,0 +1,9 @@
+-- Highest applied offset per consumer group and topic-partition, used to discard redeliveries
+CREATE TABLE IF NOT EXISTS consumer_watermark (
+    consumer_group VARCHAR(255) NOT NULL,
+    topic VARCHAR(255) NOT NULL,
+    partition INTEGER NOT NULL,
+    record_offset BIGINT NOT NULL,
+    updated_at TIMESTAMP NOT NULL DEFAULT now(),
+    PRIMARY KEY (consumer_group, topic, partition)
+);
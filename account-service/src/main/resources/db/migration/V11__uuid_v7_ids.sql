@@ -0,0 +1,21 @@
+-- Time-ordered UUIDv7 (RFC 9562) generated in the database, matching the ids the service assigns.
+-- Rows inserted outside the application (backfills, manual fixes) get ids that keep the
+-- primary key indexes append-only instead of random v4 values.
+CREATE OR REPLACE FUNCTION uuid_generate_v7() RETURNS UUID AS $$
+BEGIN
+    -- Start from a random v4 (same variant bits), overlay the 48-bit millisecond timestamp
+    -- and turn the version nibble from 4 into 7
+    RETURN encode(
+        set_bit(
+            set_bit(
+                overlay(uuid_send(gen_random_uuid())
+                        PLACING substring(int8send(floor(extract(epoch FROM clock_timestamp()) * 1000)::BIGINT) FROM 3)
+                        FROM 1 FOR 6),
+                52, 1),
+            53, 1),
+        'hex')::UUID;
+END
+$$ LANGUAGE plpgsql VOLATILE;
+
+ALTER TABLE accounts ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE outbox_event ALTER COLUMN id SET DEFAULT uuid_generate_v7();
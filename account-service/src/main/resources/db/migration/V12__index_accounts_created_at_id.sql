@@ -0,0 +1,3 @@
+-- Listado por keyset de /bank_system/accounts/page: WHERE (created_at, id) > (?, ?) ORDER BY created_at, id
+CREATE INDEX IF NOT EXISTS idx_accounts_created_at_id
+ON accounts (created_at, id);
@@ -0,0 +1,3 @@
+-- Kafka record key used when publishing the event (aggregate id or from-account)
+ALTER TABLE IF EXISTS outbox_event
+    ADD COLUMN partition_key VARCHAR(255);
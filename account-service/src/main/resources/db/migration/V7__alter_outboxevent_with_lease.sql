@@ -0,0 +1,8 @@
+-- Lease columns used by the outbox relay to claim batches across instances
+ALTER TABLE IF EXISTS outbox_event
+    ADD COLUMN locked_by VARCHAR(100),
+    ADD COLUMN locked_until TIMESTAMP;
+
+-- Only PENDING rows are ever claimed
+CREATE INDEX IF NOT EXISTS idx_outbox_event_pending_created_at
+ON outbox_event (created_at) WHERE status = 'PENDING';
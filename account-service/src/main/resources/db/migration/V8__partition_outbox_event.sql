@@ -0,0 +1,63 @@
+-- Rebuild outbox_event as a table range-partitioned by created_at with one partition per day.
+-- Old partitions are dropped by OutboxRetentionService instead of deleting rows one by one.
+ALTER TABLE outbox_event RENAME TO outbox_event_legacy;
+
+CREATE TABLE outbox_event (
+    id UUID NOT NULL,
+    aggregate_type VARCHAR(255) NOT NULL,
+    aggregate_id UUID NOT NULL,
+    type VARCHAR(255) NOT NULL,
+    topic VARCHAR(255),
+    partition_key VARCHAR(255),
+    payload TEXT NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    attempts INTEGER,
+    created_at TIMESTAMP NOT NULL,
+    sent_at TIMESTAMP,
+    locked_by VARCHAR(100),
+    locked_until TIMESTAMP,
+    -- The partition key has to be part of the primary key
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+-- Catches rows outside the pre-created daily partitions (legacy rows included)
+CREATE TABLE outbox_event_default PARTITION OF outbox_event DEFAULT;
+
+DO $$
+DECLARE
+    day DATE;
+BEGIN
+    FOR day IN SELECT generate_series(current_date, current_date + 2, INTERVAL '1 day')::DATE LOOP
+        EXECUTE format(
+            'CREATE TABLE IF NOT EXISTS %I PARTITION OF outbox_event FOR VALUES FROM (%L) TO (%L)',
+            'outbox_event_' || to_char(day, 'YYYYMMDD'), day, day + 1);
+    END LOOP;
+END $$;
+
+INSERT INTO outbox_event (id, aggregate_type, aggregate_id, type, topic, partition_key, payload, status,
+                          attempts, created_at, sent_at, locked_by, locked_until)
+SELECT id, aggregate_type, aggregate_id, type, topic, partition_key, payload, status,
+       attempts, created_at, sent_at, locked_by, locked_until
+FROM outbox_event_legacy;
+
+DROP TABLE outbox_event_legacy;
+
+CREATE INDEX IF NOT EXISTS idx_outbox_event_status_created_at
+ON outbox_event (status, created_at);
+
+CREATE INDEX IF NOT EXISTS idx_outbox_event_pending_created_at
+ON outbox_event (created_at) WHERE status = 'PENDING';
+
+-- Compact archive of events that exhausted their publish attempts
+CREATE TABLE IF NOT EXISTS outbox_event_failed (
+    id UUID PRIMARY KEY,
+    aggregate_type VARCHAR(255) NOT NULL,
+    aggregate_id UUID NOT NULL,
+    type VARCHAR(255) NOT NULL,
+    topic VARCHAR(255),
+    partition_key VARCHAR(255),
+    payload TEXT NOT NULL,
+    attempts INTEGER,
+    created_at TIMESTAMP NOT NULL,
+    archived_at TIMESTAMP NOT NULL
+);
@@ -0,0 +1,3 @@
+-- Supports cache warm-up per topic-partition and the offset watermark purge
+CREATE INDEX IF NOT EXISTS idx_processed_event_topic_partition_offset
+ON processed_event (topic, partition, record_offset);
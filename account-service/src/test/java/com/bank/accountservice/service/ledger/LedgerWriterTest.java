@@ -0,0 +1,246 @@
+package com.bank.accountservice.service.ledger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import com.bank.accountservice.event.consumer.TransactionProcessedEvent;
+import com.bank.accountservice.exception.CouldNotPersistLedger;
+import com.bank.accountservice.model.Ids;
+import com.bank.accountservice.model.account.Account;
+import com.bank.accountservice.model.account.AccountStatus;
+import com.bank.accountservice.model.events.outbox.OutboxEvent;
+import com.bank.accountservice.observability.MetricService;
+import com.bank.accountservice.service.AccountService;
+import com.bank.accountservice.service.ProcessedEventService;
+import com.bank.accountservice.service.TransactionBatchService;
+import com.bank.accountservice.service.TransactionBatchService.BatchFailure;
+import com.bank.accountservice.service.TransactionBatchService.BatchItem;
+import com.bank.accountservice.service.TransactionService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+
+/**
+ * Si falla el flush de un grupo, el ledger se descarta, todos los registros del grupo
+ * vuelven como fallidos y, al reentregarse, se aplican sobre las cuentas recargadas de
+ * la base de datos sin arrastrar el cambio que no llegó a persistirse. Los
+ * AccountUpdatedEvent agrupados se escriben en la posición del primero.
+ */
+class LedgerWriterTest {
+
+    private static final BigDecimal OPENING_BALANCE = new BigDecimal("100.00");
+    private static final String ACCOUNT_UPDATED = "AccountUpdatedEvent";
+    private static final String TRANSACTION_PROCESSED = "TransactionProcessedEvent";
+
+    private final UUID payer = UUID.randomUUID();
+    private final UUID payee = UUID.randomUUID();
+    private final Map<UUID, Integer> loads = new ConcurrentHashMap<>();
+    private final AtomicBoolean failNextFlush = new AtomicBoolean();
+    private final List<OutboxEvent> staged = new CopyOnWriteArrayList<>();
+    private final List<OutboxEvent> inserted = new CopyOnWriteArrayList<>();
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final TransactionService transactionService = mock(TransactionService.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final ProcessedEventService processedEventService = mock(ProcessedEventService.class);
+
+    private final MetricService metricService = new MetricService(new SimpleMeterRegistry());
+    private AccountLedger accountLedger;
+    private LedgerWriter ledgerWriter;
+    private TransactionBatchService transactionBatchService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+
+        // La base de datos siempre devuelve el saldo inicial: nada llega a persistirse
+        when(jdbcTemplate.query(anyString(), any(ResultSetExtractor.class), any(UUID.class))).thenAnswer(invocation -> {
+            UUID id = invocation.getArgument(2);
+            loads.merge(id, 1, Integer::sum);
+            return account(id);
+        });
+        when(jdbcTemplate.batchUpdate(anyString(), anyList(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+            .thenAnswer(invocation -> {
+                String sql = invocation.getArgument(0);
+                if (sql.contains("UPDATE accounts") && failNextFlush.getAndSet(false)) {
+                    throw new QueryTimeoutException("flush timed out");
+                }
+                Collection<?> rows = invocation.getArgument(1);
+                if (sql.contains("INSERT INTO outbox_event")) {
+                    rows.forEach(row -> inserted.add((OutboxEvent) row));
+                }
+                int[] counts = new int[rows.size()];
+                Arrays.fill(counts, 1);
+                return new int[][] { counts };
+            });
+
+        startLedger(false, 2);
+
+        doAnswer(invocation -> {
+            TransactionProcessedEvent event = invocation.getArgument(0);
+            move(accountLedger.get(event.fromAccountId()), event.amount().negate());
+            move(accountLedger.get(event.toAccountId()), event.amount());
+            return null;
+        }).when(transactionService).doTransactionInLedger(any());
+    }
+
+    @AfterEach
+    void tearDown() {
+        ledgerWriter.stop();
+    }
+
+    private void startLedger(boolean coalesceAccountUpdates, int flushSize) {
+        accountLedger = new AccountLedger(jdbcTemplate, metricService, true, 8);
+        // Los grupos se cierran por tamaño, no por tiempo
+        ledgerWriter = new LedgerWriter(jdbcTemplate, transactionManager, accountLedger,
+            processedEventService, mock(ApplicationEventPublisher.class), metricService, 60_000, flushSize, coalesceAccountUpdates);
+        ledgerWriter.start();
+        transactionBatchService = new TransactionBatchService(transactionService, mock(AccountService.class),
+            mock(ProcessedEventService.class), mock(EntityManager.class), transactionManager, accountLedger, ledgerWriter);
+    }
+
+    @Test
+    void failsTheWholeGroupAndReappliesItOnRedelivery() {
+        List<BatchItem> items = List.of(item(0), item(1));
+
+        failNextFlush.set(true);
+        List<BatchFailure> failures = transactionBatchService.processBatch(items);
+
+        assertThat(failures).extracting(failure -> failure.item().index()).containsExactly(0, 1);
+        assertThat(failures).extracting(BatchFailure::cause).allMatch(CouldNotPersistLedger.class::isInstance);
+        assertThat(accountLedger.epoch()).isEqualTo(1);
+
+        // Reentrega: las cuentas se recargan y los dos registros se aplican una sola vez
+        assertThat(transactionBatchService.processBatch(items)).isEmpty();
+        assertThat(loads).containsEntry(payer, 2).containsEntry(payee, 2);
+        assertThat(accountLedger.get(payer).getBalance()).isEqualByComparingTo("80.00");
+        assertThat(accountLedger.get(payee).getBalance()).isEqualByComparingTo("120.00");
+        verify(transactionService, never()).doTransaction(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void advancesTheWatermarkOnlyInFlushesThatFollowNoLostGroup() {
+        List<BatchItem> items = List.of(item(0), item(1), item(2), item(3));
+
+        failNextFlush.set(true);
+        assertThat(transactionBatchService.processBatch(items))
+            .extracting(failure -> failure.item().index())
+            .contains(0, 1);
+        // Los registros 2 y 3 se descartan con el grupo abierto o se persisten tras el reinicio;
+        // en ningún caso pueden mover la marca de agua por encima de los que se perdieron
+        verify(processedEventService, never()).advanceWatermarks(any());
+
+        assertThat(transactionBatchService.processBatch(items)).isEmpty();
+        ArgumentCaptor<Map<TopicPartition, Long>> watermarks = ArgumentCaptor.forClass(Map.class);
+        verify(processedEventService, atLeastOnce()).advanceWatermarks(watermarks.capture());
+        // Según cómo se cierren los grupos la marca avanza en uno o varios pasos, siempre hasta el último
+        assertThat(watermarks.getAllValues())
+            .extracting(offsets -> offsets.get(new TopicPartition("transaction.requested", 0)))
+            .isSorted()
+            .last().isEqualTo(3L);
+    }
+
+    @Test
+    void writesCoalescedAccountUpdatesAtTheirFirstPosition() {
+        ledgerWriter.stop();
+        // Un grupo con los dos registros: cuatro filas del outbox y dos processed_event
+        startLedger(true, 6);
+        doAnswer(invocation -> {
+            TransactionProcessedEvent event = invocation.getArgument(0);
+            Account from = accountLedger.get(event.fromAccountId());
+            Account to = accountLedger.get(event.toAccountId());
+            move(from, event.amount().negate());
+            move(to, event.amount());
+            stage(ACCOUNT_UPDATED, from.getId(), from.getBalance().toPlainString());
+            stage(ACCOUNT_UPDATED, to.getId(), to.getBalance().toPlainString());
+            stage(TRANSACTION_PROCESSED, event.transactionId(), "COMPLETED");
+            return null;
+        }).when(transactionService).doTransactionInLedger(any());
+
+        assertThat(transactionBatchService.processBatch(List.of(item(0), item(1)))).isEmpty();
+
+        // Las actualizaciones de la segunda transferencia se agrupan sobre las de la primera,
+        // que siguen delante de su transaction.completed, con su id y el saldo final
+        assertThat(inserted).extracting(OutboxEvent::getId)
+            .containsExactly(staged.get(0).getId(), staged.get(1).getId(), staged.get(2).getId(), staged.get(5).getId());
+        assertThat(inserted).extracting(OutboxEvent::getType)
+            .containsExactly(ACCOUNT_UPDATED, ACCOUNT_UPDATED, TRANSACTION_PROCESSED, TRANSACTION_PROCESSED);
+        assertThat(inserted).extracting(OutboxEvent::getPayload).startsWith("80.00", "120.00");
+    }
+
+    private void stage(String type, UUID aggregateId, String payload) {
+        OutboxEvent event = OutboxEvent.builder()
+            .id(Ids.next())
+            .aggregateType("Account")
+            .aggregateId(aggregateId)
+            .type(type)
+            .topic(type)
+            .payload(payload)
+            .build();
+        event.prePersist();
+        staged.add(event);
+        LedgerChanges.current().stageOutbox(event);
+    }
+
+    private static void move(Account account, BigDecimal amount) {
+        long previousVersion = account.getVersionId();
+        account.setBalance(account.getBalance().add(amount));
+        account.setVersionId(previousVersion + 1);
+        LedgerChanges.current().stageAccount(account, previousVersion);
+    }
+
+    private BatchItem item(int index) {
+        TransactionProcessedEvent event = new TransactionProcessedEvent(
+            UUID.randomUUID(), payer, 1L, payee, 1L, BigDecimal.TEN);
+        return new BatchItem(index, UUID.randomUUID(), event, "transaction.requested", 0, index);
+    }
+
+    private static Account account(UUID id) {
+        Account account = Account.builder()
+            .accountNumber("ACC-" + id)
+            .ownerName("Owner")
+            .balance(OPENING_BALANCE)
+            .status(AccountStatus.ACTIVE)
+            .versionId(1L)
+            .build();
+        account.setId(id);
+        account.setCreatedAt(LocalDateTime.now());
+        account.setUpdatedAt(LocalDateTime.now());
+        return account;
+    }
+}
@@ -0,0 +1,223 @@
+package com.bank.accountservice.service.transfer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.bank.accountservice.event.consumer.TransactionProcessedEvent;
+import com.bank.accountservice.exception.CouldNotPersistLedger;
+import com.bank.accountservice.observability.MetricService;
+import com.bank.accountservice.service.TransactionBatchService;
+import com.bank.accountservice.service.TransactionBatchService.BatchFailure;
+import com.bank.accountservice.service.TransactionBatchService.BatchItem;
+import com.bank.accountservice.service.ledger.AccountLedger;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Cada transferencia se aplica sobre el ledger en el worker del menor de sus dos shards,
+ * con los dos shards bloqueados en orden ascendente; los registros de una partición se
+ * aplican en orden de offset y los fallos vuelven ordenados por su posición en el lote.
+ */
+class TransferEngineTest {
+
+    private static final int SHARDS = 4;
+
+    private final TransactionBatchService transactionBatchService = mock(TransactionBatchService.class);
+    private final AccountLedger accountLedger = mock(AccountLedger.class);
+    private TransferEngine transferEngine;
+
+    @BeforeEach
+    void setUp() {
+        when(accountLedger.isEnabled()).thenReturn(true);
+        transferEngine = engine(true);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        transferEngine.destroy();
+    }
+
+    @Test
+    void appliesEachTransferOnTheWorkerOfItsLowerShard() {
+        Map<Integer, String> workers = new ConcurrentHashMap<>();
+        when(transactionBatchService.applyInLedger(any(), any())).thenAnswer(invocation -> {
+            BatchItem item = invocation.getArgument(0);
+            workers.put(item.index(), Thread.currentThread().getName());
+            return CompletableFuture.completedFuture(null);
+        });
+
+        transferEngine.execute(List.of(
+            item(0, 0, accountOnShard(1), accountOnShard(3)),
+            item(1, 1, accountOnShard(3), accountOnShard(0)),
+            item(2, 2, accountOnShard(2), accountOnShard(2))));
+
+        assertThat(workers).containsEntry(0, "transfer-shard-1")
+            .containsEntry(1, "transfer-shard-0")
+            .containsEntry(2, "transfer-shard-2");
+        verify(transactionBatchService, never()).processBatch(any());
+    }
+
+    @Test
+    void locksBothShardsOnceInAscendingOrder() {
+        assertThat(transferEngine.lockOrder(event(accountOnShard(3), accountOnShard(1)))).containsExactly(1, 3);
+        assertThat(transferEngine.lockOrder(event(accountOnShard(2), accountOnShard(2)))).containsExactly(2);
+    }
+
+    @Test
+    void appliesTheRecordsOfEachPartitionInOffsetOrder() {
+        Map<Integer, List<Long>> appliedOffsets = new ConcurrentHashMap<>();
+        when(transactionBatchService.applyInLedger(any(), any())).thenAnswer(invocation -> {
+            BatchItem item = invocation.getArgument(0);
+            // El primero tarda para que el worker del segundo, libre, pudiera adelantarlo
+            Thread.sleep(item.offset() == 0 ? 50 : 0);
+            appliedOffsets.computeIfAbsent(item.partition(), p -> Collections.synchronizedList(new ArrayList<>()))
+                .add(item.offset());
+            return CompletableFuture.completedFuture(null);
+        });
+
+        List<BatchItem> items = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            // Cada registro de una partición cae en un shard distinto del anterior y no comparten locks
+            items.add(item(i, i % 2, i / 2, accountOnShard(i % SHARDS), accountOnShard(i % SHARDS)));
+        }
+
+        assertThat(transferEngine.execute(items)).isEmpty();
+        assertThat(appliedOffsets.get(0)).containsExactly(0L, 1L, 2L, 3L, 4L, 5L, 6L, 7L);
+        assertThat(appliedOffsets.get(1)).containsExactly(0L, 1L, 2L, 3L, 4L, 5L, 6L, 7L);
+    }
+
+    @Test
+    void neverRunsTwoTransfersThatShareAShardAtTheSameTime() {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        when(transactionBatchService.applyInLedger(any(), any())).thenAnswer(invocation -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(1);
+            running.decrementAndGet();
+            return CompletableFuture.completedFuture(null);
+        });
+
+        // Todas las transferencias tocan el shard 3, se reparten entre los workers 0, 1 y 2
+        // y cada una llega por una partición distinta para que nada las ordene
+        ExecutorService callers = Executors.newFixedThreadPool(4);
+        try {
+            assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+                List<Future<List<BatchFailure>>> batches = new ArrayList<>();
+                for (int i = 0; i < 50; i++) {
+                    batches.add(callers.submit(() -> transferEngine.execute(List.of(
+                        item(0, 0, 0, accountOnShard(3), accountOnShard(0)),
+                        item(1, 1, 0, accountOnShard(1), accountOnShard(3)),
+                        item(2, 2, 0, accountOnShard(3), accountOnShard(2))))));
+                }
+                for (Future<List<BatchFailure>> batch : batches) {
+                    assertThat(batch.get()).isEmpty();
+                }
+            });
+        } finally {
+            callers.shutdownNow();
+        }
+        assertThat(maxRunning).hasValue(1);
+    }
+
+    @Test
+    void returnsTheFailuresOfEveryRecordOrderedByBatchIndex() {
+        when(transactionBatchService.applyInLedger(any(), any())).thenAnswer(invocation -> {
+            BatchItem item = invocation.getArgument(0);
+            if (item.index() % 4 == 0) {
+                throw new IllegalStateException("failed");
+            }
+            if (item.index() % 4 == 2) {
+                return CompletableFuture.failedFuture(new CouldNotPersistLedger("flush failed"));
+            }
+            return CompletableFuture.completedFuture(null);
+        });
+
+        List<BatchItem> items = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            // Los índices altos caen en los shards bajos para que el orden no salga de los workers
+            items.add(item(i, i % 3, i, accountOnShard(SHARDS - 1 - i % SHARDS), accountOnShard(SHARDS - 1)));
+        }
+
+        List<BatchFailure> failures = transferEngine.execute(items);
+        assertThat(failures).extracting(failure -> failure.item().index()).containsExactly(0, 2, 4, 6);
+        assertThat(failures.get(0).cause()).isInstanceOf(IllegalStateException.class);
+        assertThat(failures.get(1).cause()).isInstanceOf(CouldNotPersistLedger.class);
+    }
+
+    @Test
+    void delegatesTheWholeBatchWhenDisabled() throws InterruptedException {
+        transferEngine.destroy();
+        transferEngine = engine(false);
+        List<BatchItem> items = List.of(
+            item(0, 0, accountOnShard(0), accountOnShard(1)),
+            item(1, 1, accountOnShard(2), accountOnShard(3)));
+        when(transactionBatchService.processBatch(items)).thenReturn(List.of());
+
+        assertThat(transferEngine.execute(items)).isEmpty();
+        verify(transactionBatchService).processBatch(items);
+        verify(transactionBatchService, never()).applyInLedger(any(), any());
+    }
+
+    @Test
+    void delegatesTheWholeBatchWithoutTheLedger() {
+        when(accountLedger.isEnabled()).thenReturn(false);
+        List<BatchItem> items = List.of(
+            item(0, 0, accountOnShard(0), accountOnShard(1)),
+            item(1, 1, accountOnShard(2), accountOnShard(3)));
+        when(transactionBatchService.processBatch(items)).thenReturn(List.of());
+
+        assertThat(transferEngine.execute(items)).isEmpty();
+        verify(transactionBatchService).processBatch(items);
+        verify(transactionBatchService, never()).applyInLedger(any(), any());
+    }
+
+    private TransferEngine engine(boolean enabled) {
+        return new TransferEngine(transactionBatchService, accountLedger,
+            new MetricService(new SimpleMeterRegistry()), enabled, SHARDS);
+    }
+
+    private UUID accountOnShard(int shard) {
+        UUID accountId;
+        do {
+            accountId = new UUID(ThreadLocalRandom.current().nextLong(), ThreadLocalRandom.current().nextLong());
+        } while (transferEngine.shardOf(accountId) != shard);
+        return accountId;
+    }
+
+    private static BatchItem item(int index, long offset, UUID fromAccountId, UUID toAccountId) {
+        return item(index, 0, offset, fromAccountId, toAccountId);
+    }
+
+    private static BatchItem item(int index, int partition, long offset, UUID fromAccountId, UUID toAccountId) {
+        return new BatchItem(index, UUID.randomUUID(), event(fromAccountId, toAccountId), "transaction.requested",
+            partition, offset);
+    }
+
+    private static TransactionProcessedEvent event(UUID fromAccountId, UUID toAccountId) {
+        return new TransactionProcessedEvent(UUID.randomUUID(), fromAccountId, 1L, toAccountId, 1L, BigDecimal.TEN);
+    }
+}
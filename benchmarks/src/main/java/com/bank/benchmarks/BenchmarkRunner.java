@@ -0,0 +1,34 @@
+package com.bank.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Punto de entrada del jar de benchmarks.
+ * Acepta las mismas opciones que la línea de comandos de JMH y añade siempre el
+ * profiler de GC (tasa de asignación por operación) y la salida en JSON, para poder
+ * comparar ejecuciones y detectar regresiones en el camino caliente.
+ *
+ * Uso: java -jar benchmarks/target/benchmarks.jar [opciones JMH] [regex de benchmarks]
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        Options options = new OptionsBuilder()
+            .parent(new CommandLineOptions(args))
+            .addProfiler(GCProfiler.class)
+            .resultFormat(ResultFormatType.JSON)
+            .result(System.getProperty("jmh.result", "target/jmh-result.json"))
+            .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,106 @@
+package com.bank.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bank.accountservice.observability.MetricService;
+import com.bank.accountservice.observability.SimpleGauge;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Incrementos y decrementos de un mismo gauge desde 1, 4, 16 y 64 hilos, como hace
+ * activeConnections al abrir y cerrar conexiones.
+ *
+ * boxed reproduce el SimpleGauge anterior (AtomicReference&lt;Double&gt; con
+ * accumulateAndGet): cada actualización reserva un Double y reintenta el CAS cuando
+ * otro hilo gana. simpleGauge es el actual, sobre DoubleAdder. Con -prof gc se ve la
+ * diferencia de asignación por operación.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GaugeContentionBenchmark {
+
+    private final AtomicReference<Double> boxed = new AtomicReference<>(0.0);
+    private SimpleGauge simpleGauge;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        simpleGauge = new MetricService(new SimpleMeterRegistry()).activeConnections("benchmark");
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void boxed_01() {
+        boxedUpDown();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void boxed_04() {
+        boxedUpDown();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public void boxed_16() {
+        boxedUpDown();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public void boxed_64() {
+        boxedUpDown();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void simpleGauge_01() {
+        simpleGaugeUpDown();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void simpleGauge_04() {
+        simpleGaugeUpDown();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public void simpleGauge_16() {
+        simpleGaugeUpDown();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public void simpleGauge_64() {
+        simpleGaugeUpDown();
+    }
+
+    private void boxedUpDown() {
+        boxed.accumulateAndGet(1.0, Double::sum);
+        boxed.accumulateAndGet(-1.0, Double::sum);
+    }
+
+    private void simpleGaugeUpDown() {
+        simpleGauge.increment();
+        simpleGauge.decrement();
+    }
+}
@@ -0,0 +1,114 @@
+package com.bank.benchmarks;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bank.accountservice.model.IdGenerator;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * Inserciones por segundo en una tabla con clave primaria UUID, como outbox_event o
+ * transaction, según el generador de ids: aleatorio (v4) u ordenado por tiempo (v7).
+ *
+ * La tabla se precarga con el mismo generador y el Postgres embebido arranca con poca
+ * memoria compartida, para que el índice de la clave primaria no quepa en caché y se
+ * note la diferencia entre insertar en páginas repartidas por todo el árbol o siempre
+ * en la última. Al terminar se imprime el tamaño del índice.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class IdInsertBenchmark {
+
+    /** Filas por lote JDBC, igual que hibernate.jdbc.batch_size. */
+    private static final int BATCH_SIZE = 50;
+    private static final String PAYLOAD = "{\"transactionId\":\"00000000-0000-0000-0000-000000000000\",\"transactionStatus\":\"CORRECT\"}";
+
+    @Param({ "random", "time-ordered" })
+    private String generator;
+
+    @Param({ "2000000" })
+    private int preloadedRows;
+
+    private EmbeddedPostgres postgres;
+    private Connection connection;
+    private PreparedStatement insert;
+    private IdGenerator ids;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        ids = IdGenerator.named(generator);
+        postgres = EmbeddedPostgres.builder()
+            .setServerConfig("shared_buffers", "32MB")
+            .start();
+        connection = postgres.getPostgresDatabase().getConnection();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("""
+                CREATE TABLE id_insert (
+                    id UUID PRIMARY KEY,
+                    created_at TIMESTAMP NOT NULL,
+                    payload TEXT NOT NULL
+                )
+                """);
+        }
+        connection.setAutoCommit(false);
+        insert = connection.prepareStatement("INSERT INTO id_insert (id, created_at, payload) VALUES (?, ?, ?)");
+        for (int loaded = 0; loaded < preloadedRows; loaded += BATCH_SIZE) {
+            insertBatch();
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CHECKPOINT");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        try (Statement statement = connection.createStatement();
+             ResultSet size = statement.executeQuery("SELECT pg_size_pretty(pg_relation_size('id_insert_pkey'))")) {
+            size.next();
+            System.out.println("id_insert_pkey size (" + generator + "): " + size.getString(1));
+        }
+        insert.close();
+        connection.close();
+        postgres.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int[] insertBatch() throws SQLException {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            insert.setObject(1, ids.next());
+            insert.setTimestamp(2, now);
+            insert.setString(3, PAYLOAD);
+            insert.addBatch();
+        }
+        int[] inserted = insert.executeBatch();
+        connection.commit();
+        return inserted;
+    }
+}
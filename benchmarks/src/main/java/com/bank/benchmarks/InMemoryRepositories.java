@@ -0,0 +1,81 @@
+package com.bank.benchmarks;
+
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+import com.bank.accountservice.model.account.Account;
+import com.bank.accountservice.model.events.outbox.OutboxEvent;
+import com.bank.accountservice.repository.AccountRepository;
+import com.bank.accountservice.repository.OutboxEventRepository;
+
+/**
+ * Repositorios en memoria para ejecutar los servicios sin base de datos.
+ * Solo implementan los métodos que usa el camino de una transferencia; cualquier otro
+ * lanza UnsupportedOperationException para que un cambio en ese camino no pase desapercibido.
+ */
+public final class InMemoryRepositories {
+
+    private InMemoryRepositories() {
+    }
+
+    public static AccountRepository accounts(Map<UUID, Account> store) {
+        return proxy(AccountRepository.class, Map.of(
+            "findById", args -> Optional.ofNullable(store.get((UUID) args[0])),
+            "findByIdWithLock", args -> Optional.ofNullable(store.get((UUID) args[0])),
+            "findAllByIdWithLock", args -> ((Collection<?>) args[0]).stream()
+                .map(store::get)
+                .filter(Objects::nonNull)
+                .toList(),
+            "findByAccountNumber", args -> store.values().stream()
+                .filter(account -> account.getAccountNumber().equals(args[0]))
+                .findFirst(),
+            "save", args -> {
+                Account account = (Account) args[0];
+                if (account.getId() == null) {
+                    account.setId(UUID.randomUUID());
+                }
+                store.put(account.getId(), account);
+                return account;
+            }
+        ));
+    }
+
+    /**
+     * Repositorio del outbox que no retiene los eventos, para que la memoria no crezca
+     * durante la medición; solo aplica la lógica de @PrePersist.
+     */
+    public static OutboxEventRepository outbox() {
+        return proxy(OutboxEventRepository.class, Map.of(
+            "save", args -> {
+                OutboxEvent event = (OutboxEvent) args[0];
+                event.prePersist();
+                return event;
+            }
+        ));
+    }
+
+    private static <T> T proxy(Class<T> type, Map<String, Function<Object[], Object>> handlers) {
+        Object instance = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (self, method, args) -> {
+            switch (method.getName()) {
+                case "toString":
+                    return "InMemory" + type.getSimpleName();
+                case "hashCode":
+                    return System.identityHashCode(self);
+                case "equals":
+                    return self == args[0];
+                default:
+                    Function<Object[], Object> handler = handlers.get(method.getName());
+                    if (handler == null) {
+                        throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName());
+                    }
+                    return handler.apply(args);
+            }
+        });
+        return type.cast(instance);
+    }
+}
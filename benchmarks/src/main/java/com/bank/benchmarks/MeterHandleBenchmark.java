@@ -0,0 +1,82 @@
+package com.bank.benchmarks;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bank.accountservice.observability.MetricService;
+import com.bank.accountservice.observability.Metrics;
+import com.bank.accountservice.observability.TimedOperation;
+import com.bank.accountservice.observability.TransactionOutcome;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Coste de las métricas que registra TransactionService.doTransaction en cada
+ * transferencia: un incremento de transaction.processed.total y una muestra de
+ * transaction.duration.
+ *
+ * byName reproduce la antigua variante con String de transactionProcessed, que
+ * concatenaba la clave y la buscaba con computeIfAbsent en cada llamada, y usa
+ * transactionTimer con String; byHandle usa los medidores registrados al arrancar e
+ * indexados por enum. El profiler de GC que añade BenchmarkRunner muestra la asignación
+ * por operación de la concatenación.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class MeterHandleBenchmark {
+
+    @Param({ "correct", "incorrect", "failed" })
+    private String status;
+
+    private final Map<String, Counter> countersByName = new ConcurrentHashMap<>();
+    private MetricService metricService;
+    private TransactionOutcome outcome;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        metricService = new MetricService(new SimpleMeterRegistry());
+        outcome = TransactionOutcome.valueOf(status.toUpperCase());
+        // Los dos caminos cuentan sobre los mismos medidores ya registrados
+        counterByName(status);
+        metricService.transactionTimer("transaction_processing");
+    }
+
+    @Benchmark
+    public void byName() {
+        counterByName(status).increment();
+        metricService.transactionTimer("transaction_processing").record(1, TimeUnit.MILLISECONDS);
+    }
+
+    @Benchmark
+    public void byHandle() {
+        metricService.transactionProcessed(outcome).increment();
+        metricService.transactionTimer(TimedOperation.TRANSACTION_PROCESSING).record(1, TimeUnit.MILLISECONDS);
+    }
+
+    private Counter counterByName(String transactionStatus) {
+        String key = "transaction_processed_" + transactionStatus;
+        return countersByName.computeIfAbsent(key, k -> metricService.getRegistry()
+            .counter(Metrics.TRANSACTION_PROCESSED_TOTAL, "status", transactionStatus));
+    }
+}
@@ -0,0 +1,116 @@
+package com.bank.benchmarks;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.messaging.Message;
+
+import com.bank.accountservice.config.JacksonConfig;
+import com.bank.accountservice.event.producer.AccountRequestedMessage;
+import com.bank.accountservice.kafka.KafkaTopics;
+import com.bank.accountservice.kafka.publisher.OutboxPublisher;
+import com.bank.accountservice.mapper.AccountMapper;
+import com.bank.accountservice.model.account.Account;
+import com.bank.accountservice.model.account.AccountStatus;
+import com.bank.accountservice.model.events.outbox.OutboxEvent;
+import com.bank.accountservice.observability.MetricService;
+import com.bank.accountservice.observability.OutboxEventType;
+import com.bank.accountservice.service.OutboxService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Piezas del camino de publicación de eventos medidas por separado:
+ * serialización a JSON en {@link OutboxService#saveOutboxEvent}, mapeo de la cuenta
+ * al mensaje y construcción del mensaje de Kafka con sus cabeceras.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OutboxBenchmark {
+
+    private OutboxService outboxService;
+    private AccountMapper accountMapper;
+    private OutboxPublisher outboxPublisher;
+    private Account account;
+    private Map<String, Object> completedPayload;
+    private OutboxEvent outboxEvent;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        accountMapper = new AccountMapper();
+        outboxService = new OutboxService(
+            InMemoryRepositories.outbox(),
+            new JacksonConfig().objectMapper(),
+            event -> { },
+            accountMapper,
+            new MetricService(new SimpleMeterRegistry()));
+        // Solo se usa toMessage, que no toca ninguna dependencia
+        outboxPublisher = new OutboxPublisher(null, null, null);
+
+        account = Account.builder()
+            .accountNumber("ACC-0001")
+            .ownerName("Benchmark Owner")
+            .balance(new BigDecimal("1500.00"))
+            .status(AccountStatus.ACTIVE)
+            .versionId(7L)
+            .build();
+        account.setId(UUID.randomUUID());
+
+        completedPayload = Map.of(
+            "transactionId", UUID.randomUUID().toString(),
+            "transactionStatus", "CORRECT",
+            "observations", "null");
+
+        outboxEvent = OutboxEvent.builder()
+            .aggregateType("Transaction")
+            .aggregateId(UUID.randomUUID())
+            .type(OutboxEventType.TRANSACTION_PROCESSED.tag())
+            .topic(KafkaTopics.TRANSACTION_COMPLETED)
+            .partitionKey(UUID.randomUUID().toString())
+            .payload("{\"transactionId\":\"" + UUID.randomUUID() + "\",\"transactionStatus\":\"CORRECT\"}")
+            .build();
+        outboxEvent.prePersist();
+    }
+
+    @Benchmark
+    public void saveTransactionCompletedEvent() {
+        outboxService.saveOutboxEvent(
+            "Transaction",
+            account.getId(),
+            OutboxEventType.TRANSACTION_PROCESSED,
+            KafkaTopics.TRANSACTION_COMPLETED,
+            completedPayload);
+    }
+
+    @Benchmark
+    public void saveAccountUpdatedEvent() {
+        outboxService.saveAccountUpdatedEvent(account);
+    }
+
+    @Benchmark
+    public AccountRequestedMessage fromEntityToMessage() {
+        return accountMapper.fromEntityToMessage(account);
+    }
+
+    @Benchmark
+    public Message<String> toKafkaMessage() {
+        return outboxPublisher.toMessage(outboxEvent);
+    }
+}
@@ -0,0 +1,161 @@
+package com.bank.benchmarks;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import com.bank.accountservice.AccountServiceApplication;
+import com.bank.accountservice.event.consumer.TransactionProcessedEvent;
+import com.bank.accountservice.service.TransactionBatchService;
+import com.bank.accountservice.service.TransactionBatchService.BatchFailure;
+import com.bank.accountservice.service.TransactionBatchService.BatchItem;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Sentencias SQL que Hibernate prepara por transferencia al aplicar un lote de Kafka
+ * con {@link TransactionBatchService#processBatch}, con los inserts del outbox
+ * diferidos hasta el commit (spring.outbox.batch-inserts) o uno por registro.
+ *
+ * Levanta account-service completo contra un Postgres y un broker Kafka embebidos. El
+ * relay del outbox queda parado para que sus consultas no se mezclen con las medidas.
+ * Los contadores auxiliares statements y transfers dan el total de la iteración; su
+ * cociente es el número de sentencias por transferencia.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class StatementsPerTransferBenchmark {
+
+    private static final BigDecimal INITIAL_BALANCE = new BigDecimal("1000000.00");
+    private static final BigDecimal AMOUNT = BigDecimal.ONE;
+    private static final String TOPIC = "transaction.requested";
+
+    @Param({ "false", "true" })
+    private boolean batchInserts;
+
+    /** Registros por poll de Kafka. */
+    @Param({ "50" })
+    private int batchSize;
+
+    private EmbeddedKafkaKraftBroker broker;
+    private EmbeddedPostgres postgres;
+    private ConfigurableApplicationContext context;
+    private TransactionBatchService transactionBatchService;
+    private Statistics statistics;
+    private final List<UUID> accountIds = new ArrayList<>();
+    private long[] versions;
+    private long offset;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        broker = new EmbeddedKafkaKraftBroker(1, 1);
+        broker.afterPropertiesSet();
+        postgres = EmbeddedPostgres.builder().start();
+
+        context = new SpringApplicationBuilder(AccountServiceApplication.class).run(
+            "--server.port=0",
+            "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+            "--spring.datasource.username=postgres",
+            "--spring.datasource.password=postgres",
+            "--spring.kafka.bootstrap-servers=" + broker.getBrokersAsString(),
+            "--spring.jpa.properties.hibernate.generate_statistics=true",
+            "--spring.jpa.properties.hibernate.show_sql=false",
+            "--spring.outbox.batch-inserts=" + batchInserts,
+            "--spring.outbox.wakeup.enabled=false",
+            "--spring.outbox.scheduler.delay-ms=3600000",
+            "--logging.level.root=WARN");
+        transactionBatchService = context.getBean(TransactionBatchService.class);
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+
+        // Cada lote usa parejas de cuentas distintas, así que cada cuenta avanza una versión por lote
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        for (int i = 0; i < batchSize * 2; i++) {
+            UUID id = UUID.randomUUID();
+            jdbcTemplate.update("""
+                INSERT INTO accounts (id, created_at, updated_at, account_number, owner_name, balance, status, version_id)
+                VALUES (?, now(), now(), ?, 'Benchmark Owner', ?, 'ACTIVE', 0)
+                """, id, "BENCH%06d".formatted(i), INITIAL_BALANCE);
+            accountIds.add(id);
+        }
+        versions = new long[accountIds.size()];
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        context.close();
+        postgres.close();
+        broker.destroy();
+    }
+
+    @Benchmark
+    public List<BatchFailure> processBatch(Statements statements) {
+        List<BatchItem> items = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            int from = i * 2;
+            int to = from + 1;
+            TransactionProcessedEvent event = new TransactionProcessedEvent(
+                UUID.randomUUID(),
+                accountIds.get(from), versions[from],
+                accountIds.get(to), versions[to],
+                AMOUNT);
+            items.add(new BatchItem(i, UUID.randomUUID(), event, TOPIC, 0, offset++));
+        }
+
+        long before = statistics.getPrepareStatementCount();
+        List<BatchFailure> failures = transactionBatchService.processBatch(items);
+        statements.statements += statistics.getPrepareStatementCount() - before;
+        statements.transfers += items.size();
+
+        if (failures.isEmpty()) {
+            for (int i = 0; i < versions.length; i++) {
+                versions[i]++;
+            }
+        }
+        return failures;
+    }
+
+    /**
+     * Totales de la iteración: sentencias preparadas por Hibernate y transferencias aplicadas.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Statements {
+
+        public long statements;
+        public long transfers;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            statements = 0;
+            transfers = 0;
+        }
+    }
+}
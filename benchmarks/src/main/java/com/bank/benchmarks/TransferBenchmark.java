@@ -0,0 +1,105 @@
+package com.bank.benchmarks;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bank.accountservice.config.JacksonConfig;
+import com.bank.accountservice.event.consumer.TransactionProcessedEvent;
+import com.bank.accountservice.mapper.AccountMapper;
+import com.bank.accountservice.model.account.Account;
+import com.bank.accountservice.model.account.AccountStatus;
+import com.bank.accountservice.observability.MetricService;
+import com.bank.accountservice.service.AccountService;
+import com.bank.accountservice.service.OutboxService;
+import com.bank.accountservice.service.TransactionService;
+import com.bank.accountservice.service.ledger.AccountLedger;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Coste en CPU y memoria de {@link TransactionService#doTransaction} sin base de datos:
+ * carga de cuentas, validaciones, actualización de saldos, serialización del evento
+ * de outbox y métricas. Los repositorios son los de {@link InMemoryRepositories}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransferBenchmark {
+
+    private static final BigDecimal AMOUNT = BigDecimal.ONE;
+
+    @Param({ "1000" })
+    private int accounts;
+
+    private final Map<UUID, Account> store = new ConcurrentHashMap<>();
+    private final List<UUID> accountIds = new ArrayList<>();
+    private final SplittableRandom random = new SplittableRandom(42);
+    private TransactionService transactionService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        MetricService metricService = new MetricService(new SimpleMeterRegistry());
+        OutboxService outboxService = new OutboxService(
+            InMemoryRepositories.outbox(),
+            new JacksonConfig().objectMapper(),
+            event -> { },
+            new AccountMapper(),
+            metricService);
+        // Camino por defecto, sin ledger write-behind: el LedgerWriter no llega a usarse
+        AccountService accountService = new AccountService(
+            InMemoryRepositories.accounts(store), outboxService, metricService,
+            new AccountLedger(null, metricService, false, 1), null);
+        transactionService = new TransactionService(accountService, outboxService, metricService);
+
+        for (int i = 0; i < accounts; i++) {
+            Account account = Account.builder()
+                .accountNumber("ACC-" + i)
+                .ownerName("Owner " + i)
+                .balance(new BigDecimal("1000000000000"))
+                .status(AccountStatus.ACTIVE)
+                .versionId(0L)
+                .build();
+            account.setId(UUID.randomUUID());
+            store.put(account.getId(), account);
+            accountIds.add(account.getId());
+        }
+    }
+
+    @Benchmark
+    public UUID doTransaction() {
+        UUID from = accountIds.get(random.nextInt(accounts));
+        UUID to = accountIds.get(random.nextInt(accounts));
+        // Las versiones se leen en cada invocación para recorrer siempre el camino CORRECT
+        TransactionProcessedEvent event = new TransactionProcessedEvent(
+            UUID.randomUUID(),
+            from,
+            store.get(from).getVersionId(),
+            to,
+            store.get(to).getVersionId(),
+            AMOUNT);
+        transactionService.doTransaction(event);
+        return event.transactionId();
+    }
+}
@@ -0,0 +1,186 @@
+package com.bank.benchmarks;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import com.bank.accountservice.AccountServiceApplication;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * account-service con hilos de plataforma (pool de Tomcat por defecto) frente al perfil
+ * virtual-threads, con inFlight peticiones HTTP simultáneas.
+ *
+ * Cada invocación lanza a la vez inFlight lecturas GET /bank_system/accounts/{id},
+ * que bloquean en JDBC, y espera a que terminen todas; el tiempo medido es el de la
+ * ráfaga completa. Ambos perfiles usan el mismo pool de Hikari, así que la diferencia
+ * está en cómo esperan las peticiones que no tienen conexión. Al final de cada
+ * iteración se imprimen p50/p99 por petición; failures cuenta respuestas no 2xx y
+ * timeouts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 20)
+@Measurement(iterations = 5, time = 20)
+@Fork(1)
+public class VirtualThreadsBenchmark {
+
+    private static final int ACCOUNTS = 1000;
+    private static final int POOL_SIZE = 20;
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(60);
+
+    @Param({ "platform", "virtual-threads" })
+    private String profile;
+
+    @Param({ "10000" })
+    private int inFlight;
+
+    private EmbeddedKafkaKraftBroker broker;
+    private EmbeddedPostgres postgres;
+    private ConfigurableApplicationContext context;
+    private ExecutorService clientExecutor;
+    private HttpClient httpClient;
+    private final List<URI> accountUris = new ArrayList<>();
+    private final List<long[]> iterationLatencies = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        broker = new EmbeddedKafkaKraftBroker(1, 1);
+        broker.afterPropertiesSet();
+        postgres = EmbeddedPostgres.builder()
+            .setServerConfig("max_connections", "100")
+            .start();
+
+        List<String> args = new ArrayList<>(List.of(
+            "--server.port=0",
+            "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+            "--spring.datasource.username=postgres",
+            "--spring.datasource.password=postgres",
+            "--spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+            "--spring.kafka.bootstrap-servers=" + broker.getBrokersAsString(),
+            "--spring.jpa.properties.hibernate.show_sql=false",
+            "--server.tomcat.max-connections=20000",
+            "--server.tomcat.accept-count=1000",
+            "--spring.outbox.wakeup.enabled=false",
+            "--spring.outbox.scheduler.delay-ms=3600000",
+            "--logging.level.root=WARN"));
+        if (!"platform".equals(profile)) {
+            args.add("--spring.profiles.active=" + profile);
+        }
+        context = new SpringApplicationBuilder(AccountServiceApplication.class).run(args.toArray(String[]::new));
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        for (int i = 0; i < ACCOUNTS; i++) {
+            UUID id = UUID.randomUUID();
+            jdbcTemplate.update("""
+                INSERT INTO accounts (id, created_at, updated_at, account_number, owner_name, balance, status, version_id)
+                VALUES (?, now(), now(), ?, 'Benchmark Owner', ?, 'ACTIVE', 0)
+                """, id, "VT%06d".formatted(i), BigDecimal.TEN);
+            accountUris.add(URI.create("http://localhost:" + port + "/bank_system/accounts/" + id));
+        }
+
+        // El cliente no debe ser el cuello de botella: sus hilos son siempre virtuales
+        clientExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        httpClient = HttpClient.newBuilder()
+            .executor(clientExecutor)
+            .connectTimeout(Duration.ofSeconds(30))
+            .build();
+    }
+
+    @TearDown(Level.Iteration)
+    public void printLatencies() {
+        long[] all = iterationLatencies.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        iterationLatencies.clear();
+        if (all.length > 0) {
+            System.out.printf("%n[%s] requests: %d, p50: %.1f ms, p99: %.1f ms, max: %.1f ms%n",
+                profile, all.length, percentileMs(all, 0.50), percentileMs(all, 0.99), all[all.length - 1] / 1e6);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        clientExecutor.close();
+        context.close();
+        postgres.close();
+        broker.destroy();
+    }
+
+    @Benchmark
+    public long burst(Failures failures) {
+        long[] latencies = new long[inFlight];
+        AtomicLong failed = new AtomicLong();
+        CompletableFuture<?>[] responses = new CompletableFuture<?>[inFlight];
+        for (int i = 0; i < inFlight; i++) {
+            int request = i;
+            HttpRequest get = HttpRequest.newBuilder(accountUris.get(i % ACCOUNTS)).timeout(REQUEST_TIMEOUT).GET().build();
+            long start = System.nanoTime();
+            responses[i] = httpClient.sendAsync(get, HttpResponse.BodyHandlers.discarding())
+                .handle((response, error) -> {
+                    latencies[request] = System.nanoTime() - start;
+                    if (error != null || response.statusCode() / 100 != 2) {
+                        failed.incrementAndGet();
+                    }
+                    return null;
+                });
+        }
+        CompletableFuture.allOf(responses).join();
+        failures.failures += failed.get();
+        iterationLatencies.add(latencies);
+        return latencies.length;
+    }
+
+    private static double percentileMs(long[] sorted, double quantile) {
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    /**
+     * Peticiones fallidas (no 2xx o timeout) en la iteración.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Failures {
+
+        public long failures;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            failures = 0;
+        }
+    }
+}
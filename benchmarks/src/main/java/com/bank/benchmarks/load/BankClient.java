@@ -0,0 +1,66 @@
+package com.bank.benchmarks.load;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+import java.util.UUID;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Cliente HTTP mínimo de las APIs de ambos servicios usado por el harness.
+ */
+final class BankClient {
+
+    private static final String ACCOUNTS_PATH = "/bank_system/accounts";
+    private static final String TRANSACTIONS_PATH = "/bank_system/transactionservice/transactions";
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String accountServiceUrl;
+    private final String transactionsServiceUrl;
+
+    BankClient(HttpClient httpClient, String accountServiceUrl, String transactionsServiceUrl) {
+        this.httpClient = httpClient;
+        this.accountServiceUrl = accountServiceUrl;
+        this.transactionsServiceUrl = transactionsServiceUrl;
+    }
+
+    void createAccount(String accountNumber, BigDecimal balance) throws IOException, InterruptedException {
+        post(accountServiceUrl + ACCOUNTS_PATH, Map.of(
+            "accountNumber", accountNumber,
+            "ownerName", "Load " + accountNumber,
+            "balance", balance,
+            "status", "ACTIVE"));
+    }
+
+    /**
+     * Solicita una transferencia y devuelve el id de la transacción creada.
+     */
+    UUID transfer(String fromAccountNumber, String toAccountNumber, BigDecimal amount) throws IOException, InterruptedException {
+        JsonNode response = post(transactionsServiceUrl + TRANSACTIONS_PATH, Map.of(
+            "fromAccountNumber", fromAccountNumber,
+            "toAccountNumber", toAccountNumber,
+            "amount", amount,
+            "type", "TRANSFER",
+            "description", "load-harness"));
+        return UUID.fromString(response.get("transactionId").asText());
+    }
+
+    private JsonNode post(String url, Map<String, Object> body) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+            .build();
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("POST " + url + " returned " + response.statusCode() + ": " + response.body());
+        }
+        return objectMapper.readTree(response.body());
+    }
+}
@@ -0,0 +1,50 @@
+package com.bank.benchmarks.load;
+
+import java.util.Arrays;
+
+/**
+ * Latencias registradas en nanosegundos. Guarda todas las muestras (una ejecución
+ * típica son cientos de miles) y calcula los percentiles exactos al final.
+ */
+final class LatencyStats {
+
+    private long[] samples = new long[1 << 16];
+    private int size;
+
+    synchronized void record(long nanos) {
+        if (size == samples.length) {
+            samples = Arrays.copyOf(samples, size * 2);
+        }
+        samples[size++] = nanos;
+    }
+
+    /**
+     * Resumen en milisegundos de las muestras registradas.
+     */
+    synchronized Summary summary() {
+        if (size == 0) {
+            return new Summary(0, 0, 0, 0, 0, 0);
+        }
+        long[] sorted = Arrays.copyOf(samples, size);
+        Arrays.sort(sorted);
+        double mean = Arrays.stream(sorted).average().orElse(0);
+        return new Summary(
+            size,
+            toMillis(mean),
+            toMillis(percentile(sorted, 0.50)),
+            toMillis(percentile(sorted, 0.95)),
+            toMillis(percentile(sorted, 0.99)),
+            toMillis(sorted[size - 1]));
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, index)];
+    }
+
+    private static double toMillis(double nanos) {
+        return Math.round(nanos / 10_000.0) / 100.0;
+    }
+
+    record Summary(int count, double meanMs, double p50Ms, double p95Ms, double p99Ms, double maxMs) {}
+}
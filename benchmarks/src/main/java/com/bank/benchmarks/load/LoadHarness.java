@@ -0,0 +1,264 @@
+package com.bank.benchmarks.load;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.http.HttpClient;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.ListOffsetsResult;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Harness de carga extremo a extremo.
+ *
+ * Arranca un broker Kafka embebido (spring-kafka-test, modo KRaft) y un Postgres
+ * embebido, o usa uno local si se indica load.db.url, y lanza account-service y
+ * transactions-service como procesos hijos contra ellos. Siembra las cuentas, espera a
+ * que transactions-service las haya replicado y envía transferencias con la mezcla
+ * configurada durante un calentamiento y una ventana de medición. Al terminar guarda
+ * en JSON la latencia de las sagas (p50/p95/p99) y el TPS sostenido.
+ *
+ * Uso (tras mvn -B package -DskipTests en la raíz):
+ * java -Dload.mix=zipf -Dload.duration-seconds=120 -cp benchmarks/target/benchmarks.jar com.bank.benchmarks.load.LoadHarness
+ */
+@Slf4j
+public final class LoadHarness {
+
+    private static final String ACCOUNT_DATABASE = "load_account_service";
+    private static final String TRANSACTIONS_DATABASE = "load_transactions_service";
+    private static final String TRANSACTIONS_GROUP = "transaction-service-group";
+    private static final String ACCOUNT_CREATED_TOPIC = "account.created";
+    private static final String[] TOPICS = {
+        "account.created", "account.updated", "transaction.requested", "transaction.completed"
+    };
+    private static final int TOPIC_PARTITIONS = 6;
+    private static final BigDecimal INITIAL_BALANCE = new BigDecimal("1000000.00");
+    private static final BigDecimal TRANSFER_AMOUNT = new BigDecimal("1.00");
+
+    private LoadHarness() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadOptions options = LoadOptions.fromSystemProperties();
+        HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+        EmbeddedKafkaKraftBroker broker = new EmbeddedKafkaKraftBroker(1, TOPIC_PARTITIONS, TOPICS);
+        broker.afterPropertiesSet();
+        EmbeddedPostgres embeddedPostgres = options.dbUrl().isBlank() ? EmbeddedPostgres.builder().start() : null;
+        try {
+            String serverUrl = embeddedPostgres != null
+                ? "jdbc:postgresql://localhost:" + embeddedPostgres.getPort()
+                : options.dbUrl();
+            recreateDatabases(serverUrl, options);
+
+            String bootstrapServers = broker.getBrokersAsString();
+            try (ServiceProcess accountService = ServiceProcess.start("account-service",
+                     options.accountServiceJar(), options.accountServicePort(), Map.of(
+                         "SPRING_DATASOURCE_URL_ACCOUNT_SERVICE", serverUrl + "/" + ACCOUNT_DATABASE,
+                         "SPRING_DATASOURCE_USERNAME_ACCOUNT_SERVICE", options.dbUser(),
+                         "SPRING_DATASOURCE_PASSWORD_ACCOUNT_SERVICE", options.dbPassword(),
+                         "KAFKA_BOOTSTRAP_SERVERS", bootstrapServers));
+                 ServiceProcess transactionsService = ServiceProcess.start("transactions-service",
+                     options.transactionsServiceJar(), options.transactionsServicePort(), Map.of(
+                         "SPRING_DATASOURCE_URL_TRANSACTION_SERVICE", serverUrl + "/" + TRANSACTIONS_DATABASE,
+                         "SPRING_DATASOURCE_USERNAME_TRANSACTION_SERVICE", options.dbUser(),
+                         "SPRING_DATASOURCE_PASSWORD_TRANSACTION_SERVICE", options.dbPassword(),
+                         "KAFKA_BOOTSTRAP_SERVERS", bootstrapServers));
+                 SagaTracker tracker = new SagaTracker(bootstrapServers)) {
+
+                accountService.awaitHealthy(httpClient);
+                transactionsService.awaitHealthy(httpClient);
+
+                BankClient client = new BankClient(httpClient, accountService.baseUrl(), transactionsService.baseUrl());
+                seedAccounts(client, options);
+                awaitAccountsReplicated(bootstrapServers, options.accounts());
+
+                LoadReport report = run(client, tracker, options);
+                report.write(options.result());
+                log.info("[LoadHarness] ✅ Run finished - Mix: {}, TPS: {}, p50: {} ms, p95: {} ms, p99: {} ms, Result: {}",
+                    report.mix(), report.sustainedTps(), report.sagaLatency().p50Ms(),
+                    report.sagaLatency().p95Ms(), report.sagaLatency().p99Ms(), options.result());
+            }
+        } finally {
+            if (embeddedPostgres != null) {
+                embeddedPostgres.close();
+            }
+            broker.destroy();
+        }
+    }
+
+    /**
+     * Crea bases de datos vacías para cada servicio; Flyway aplica las migraciones al arrancar.
+     */
+    private static void recreateDatabases(String serverUrl, LoadOptions options) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(
+                 serverUrl + "/postgres", options.dbUser(), options.dbPassword());
+             Statement statement = connection.createStatement()) {
+            for (String database : List.of(ACCOUNT_DATABASE, TRANSACTIONS_DATABASE)) {
+                statement.execute("DROP DATABASE IF EXISTS " + database);
+                statement.execute("CREATE DATABASE " + database);
+            }
+        }
+    }
+
+    private static void seedAccounts(BankClient client, LoadOptions options) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(options.concurrency());
+        try {
+            List<Future<?>> futures = new ArrayList<>(options.accounts());
+            for (int i = 0; i < options.accounts(); i++) {
+                String accountNumber = accountNumber(i);
+                futures.add(executor.submit(() -> {
+                    client.createAccount(accountNumber, INITIAL_BALANCE);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        log.info("[LoadHarness] Seeded {} accounts", options.accounts());
+    }
+
+    /**
+     * Espera a que transactions-service haya consumido todos los eventos account.created:
+     * hasta entonces rechazaría las transferencias con cuentas desconocidas.
+     */
+    private static void awaitAccountsReplicated(String bootstrapServers, int accounts) throws Exception {
+        try (Admin admin = Admin.create(Map.<String, Object>of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers))) {
+            Map<TopicPartition, OffsetSpec> latest = new HashMap<>();
+            for (int partition = 0; partition < TOPIC_PARTITIONS; partition++) {
+                latest.put(new TopicPartition(ACCOUNT_CREATED_TOPIC, partition), OffsetSpec.latest());
+            }
+
+            long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(2);
+            while (System.nanoTime() < deadline) {
+                Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> ends = admin.listOffsets(latest).all().get();
+                Map<TopicPartition, OffsetAndMetadata> committed = admin
+                    .listConsumerGroupOffsets(TRANSACTIONS_GROUP).partitionsToOffsetAndMetadata().get();
+                long published = ends.values().stream().mapToLong(ListOffsetsResult.ListOffsetsResultInfo::offset).sum();
+                long consumed = committed.entrySet().stream()
+                    .filter(entry -> entry.getKey().topic().equals(ACCOUNT_CREATED_TOPIC) && entry.getValue() != null)
+                    .mapToLong(entry -> entry.getValue().offset())
+                    .sum();
+                if (published >= accounts && consumed >= published) {
+                    log.info("[LoadHarness] ✅ Accounts replicated to transactions-service - Events: {}", published);
+                    return;
+                }
+                TimeUnit.MILLISECONDS.sleep(500);
+            }
+            throw new IllegalStateException("transactions-service did not replicate the seeded accounts in time");
+        }
+    }
+
+    private static LoadReport run(BankClient client, SagaTracker tracker, LoadOptions options) throws Exception {
+        IntSupplier picker = options.mix().picker(options);
+        Instant startedAt = Instant.now();
+        long start = System.nanoTime();
+        long windowStart = start + options.warmup().toNanos();
+        long windowEnd = windowStart + options.duration().toNanos();
+        // Con ritmo objetivo cada cliente espera entre envíos el intervalo que le corresponde
+        long pacingNanos = options.targetTps() > 0
+            ? TimeUnit.SECONDS.toNanos(options.concurrency()) / options.targetTps()
+            : 0;
+        AtomicLong submitted = new AtomicLong();
+        AtomicLong rejected = new AtomicLong();
+
+        tracker.openWindow(windowStart);
+        tracker.closeWindow(windowEnd);
+        log.info("[LoadHarness] Starting load - Mix: {}, Concurrency: {}, Target TPS: {}, Warmup: {}, Duration: {}",
+            options.mix(), options.concurrency(), options.targetTps(), options.warmup(), options.duration());
+
+        ExecutorService executor = Executors.newFixedThreadPool(options.concurrency());
+        try {
+            for (int worker = 0; worker < options.concurrency(); worker++) {
+                executor.execute(() -> {
+                    long next = System.nanoTime();
+                    while (next < windowEnd) {
+                        int[] pair = TransferMix.pickPair(picker);
+                        long sentAt = System.nanoTime();
+                        boolean measured = sentAt >= windowStart && sentAt < windowEnd;
+                        try {
+                            UUID transactionId = client.transfer(accountNumber(pair[0]), accountNumber(pair[1]), TRANSFER_AMOUNT);
+                            tracker.submitted(transactionId, sentAt);
+                            if (measured) {
+                                submitted.incrementAndGet();
+                            }
+                        } catch (IOException e) {
+                            if (measured) {
+                                rejected.incrementAndGet();
+                            }
+                            log.debug("[LoadHarness] Transfer rejected - Error: {}", e.getMessage());
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                        next = pacingNanos > 0 ? Math.max(next + pacingNanos, System.nanoTime()) : System.nanoTime();
+                        long wait = next - System.nanoTime();
+                        if (wait > 0) {
+                            try {
+                                TimeUnit.NANOSECONDS.sleep(wait);
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                                return;
+                            }
+                        }
+                    }
+                });
+            }
+        } finally {
+            executor.shutdown();
+        }
+        executor.awaitTermination(options.warmup().plus(options.duration()).plusMinutes(1).toMillis(), TimeUnit.MILLISECONDS);
+        tracker.awaitDrained(options.drain());
+
+        Map<String, Long> outcomes = new TreeMap<>();
+        tracker.outcomes().forEach((status, count) -> outcomes.put(status, count.get()));
+        LatencyStats.Summary latency = tracker.latencies().summary();
+        double seconds = options.duration().toMillis() / 1000.0;
+        return new LoadReport(
+            startedAt,
+            options.mix(),
+            options.accounts(),
+            options.concurrency(),
+            options.targetTps(),
+            options.duration().toSeconds(),
+            submitted.get(),
+            rejected.get(),
+            latency.count(),
+            tracker.pending(),
+            Math.round(tracker.completedInWindow() / seconds * 100) / 100.0,
+            latency,
+            outcomes);
+    }
+
+    private static String accountNumber(int index) {
+        return "LOAD%06d".formatted(index);
+    }
+}
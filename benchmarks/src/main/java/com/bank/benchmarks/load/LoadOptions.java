@@ -0,0 +1,78 @@
+package com.bank.benchmarks.load;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Parámetros de una ejecución del harness de carga, leídos de propiedades de sistema
+ * (-Dload.*). Los valores por defecto permiten lanzar una ejecución corta en local.
+ *
+ * @param mix                 reparto de cuentas origen/destino
+ * @param accounts            número de cuentas sembradas
+ * @param concurrency         clientes concurrentes enviando transferencias
+ * @param targetTps           ritmo objetivo de envío (0 = sin límite, bucle cerrado)
+ * @param warmup              duración del calentamiento, excluido del informe
+ * @param duration            duración de la ventana medida
+ * @param drain               espera máxima de las sagas pendientes al terminar
+ * @param hotFraction         fracción de cuentas calientes (mezcla HOT)
+ * @param hotShare            fracción del tráfico dirigida a las cuentas calientes (mezcla HOT)
+ * @param zipfExponent        exponente de la distribución (mezcla ZIPF)
+ * @param dbUrl               servidor Postgres externo (jdbc:postgresql://host:port); vacío = Postgres embebido
+ * @param dbUser              usuario del Postgres externo
+ * @param dbPassword          contraseña del Postgres externo
+ * @param accountServiceJar   jar ejecutable de account-service
+ * @param transactionsServiceJar jar ejecutable de transactions-service
+ * @param accountServicePort  puerto HTTP de account-service
+ * @param transactionsServicePort puerto HTTP de transactions-service
+ * @param result              fichero JSON de resultados
+ */
+public record LoadOptions(
+    TransferMix mix,
+    int accounts,
+    int concurrency,
+    int targetTps,
+    Duration warmup,
+    Duration duration,
+    Duration drain,
+    double hotFraction,
+    double hotShare,
+    double zipfExponent,
+    String dbUrl,
+    String dbUser,
+    String dbPassword,
+    Path accountServiceJar,
+    Path transactionsServiceJar,
+    int accountServicePort,
+    int transactionsServicePort,
+    Path result
+) {
+
+    public static LoadOptions fromSystemProperties() {
+        return new LoadOptions(
+            TransferMix.valueOf(property("load.mix", "uniform").toUpperCase()),
+            Integer.parseInt(property("load.accounts", "1000")),
+            Integer.parseInt(property("load.concurrency", "32")),
+            Integer.parseInt(property("load.target-tps", "0")),
+            Duration.ofSeconds(Long.parseLong(property("load.warmup-seconds", "15"))),
+            Duration.ofSeconds(Long.parseLong(property("load.duration-seconds", "60"))),
+            Duration.ofSeconds(Long.parseLong(property("load.drain-seconds", "30"))),
+            Double.parseDouble(property("load.hot.fraction", "0.01")),
+            Double.parseDouble(property("load.hot.share", "0.9")),
+            Double.parseDouble(property("load.zipf.exponent", "1.0")),
+            property("load.db.url", ""),
+            property("load.db.user", "postgres"),
+            property("load.db.password", "postgres"),
+            Path.of(property("load.account-service.jar",
+                "account-service/target/account-service-0.0.1-SNAPSHOT-exec.jar")),
+            Path.of(property("load.transactions-service.jar",
+                "transactions-service/target/transactions-service-0.0.1-SNAPSHOT-exec.jar")),
+            Integer.parseInt(property("load.account-service.port", "18083")),
+            Integer.parseInt(property("load.transactions-service.port", "18082")),
+            Path.of(property("load.result", "benchmarks/target/load-baseline.json"))
+        );
+    }
+
+    private static String property(String key, String defaultValue) {
+        return System.getProperty(key, defaultValue);
+    }
+}
@@ -0,0 +1,54 @@
+package com.bank.benchmarks.load;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Resultado de una ejecución del harness, guardado como JSON para usarlo como línea
+ * base y compararlo entre versiones.
+ *
+ * @param timestamp         inicio de la ejecución
+ * @param mix               mezcla de cuentas utilizada
+ * @param accounts          cuentas sembradas
+ * @param concurrency       clientes concurrentes
+ * @param targetTps         ritmo objetivo (0 = bucle cerrado)
+ * @param durationSeconds   duración de la ventana medida
+ * @param submitted         transferencias aceptadas dentro de la ventana
+ * @param rejected          peticiones HTTP fallidas dentro de la ventana
+ * @param completed         sagas de la ventana cuyo resultado llegó
+ * @param pending           sagas sin resultado al agotar la espera final
+ * @param sustainedTps      resultados recibidos por segundo dentro de la ventana
+ * @param sagaLatency       latencia extremo a extremo de las sagas de la ventana
+ * @param outcomes          resultados por estado final de la transacción
+ */
+public record LoadReport(
+    Instant timestamp,
+    TransferMix mix,
+    int accounts,
+    int concurrency,
+    int targetTps,
+    long durationSeconds,
+    long submitted,
+    long rejected,
+    long completed,
+    int pending,
+    double sustainedTps,
+    LatencyStats.Summary sagaLatency,
+    Map<String, Long> outcomes
+) {
+
+    void write(Path file) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .enable(SerializationFeature.INDENT_OUTPUT)
+            .writeValue(file.toFile(), this);
+    }
+}
@@ -0,0 +1,174 @@
+package com.bank.benchmarks.load;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.errors.WakeupException;
+import org.apache.kafka.common.serialization.StringDeserializer;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Mide la latencia extremo a extremo de cada saga: desde que se envía el POST de la
+ * transferencia hasta que account-service publica su resultado en transaction.completed.
+ *
+ * El evento de resultado puede llegar antes de que el cliente HTTP reciba la respuesta
+ * con el id, así que se guarda el instante de llegada de los ids aún no registrados y
+ * se empareja al registrarlos. Los duplicados del productor se ignoran.
+ */
+@Slf4j
+final class SagaTracker implements AutoCloseable {
+
+    private static final String TOPIC = "transaction.completed";
+
+    private final KafkaConsumer<String, String> consumer;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<UUID, Submission> inFlight = new ConcurrentHashMap<>();
+    private final Map<UUID, Completion> earlyCompletions = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> outcomes = new ConcurrentHashMap<>();
+    private final AtomicLong completedInWindow = new AtomicLong();
+    private final LatencyStats latencies = new LatencyStats();
+    private final Thread poller;
+
+    private volatile long windowStart = Long.MAX_VALUE;
+    private volatile long windowEnd = Long.MAX_VALUE;
+    private volatile boolean running = true;
+
+    SagaTracker(String bootstrapServers) {
+        Properties properties = new Properties();
+        properties.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        properties.put(ConsumerConfig.GROUP_ID_CONFIG, "load-harness-" + UUID.randomUUID());
+        properties.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        properties.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        properties.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        this.consumer = new KafkaConsumer<>(properties);
+        this.consumer.subscribe(List.of(TOPIC));
+        this.poller = new Thread(this::poll, "saga-tracker");
+        this.poller.setDaemon(true);
+        this.poller.start();
+    }
+
+    /**
+     * Abre la ventana de medición: solo las sagas enviadas y completadas dentro de
+     * ella cuentan para el informe.
+     */
+    void openWindow(long nanos) {
+        windowStart = nanos;
+    }
+
+    void closeWindow(long nanos) {
+        windowEnd = nanos;
+    }
+
+    /**
+     * Registra una transferencia aceptada por transactions-service.
+     */
+    void submitted(UUID transactionId, long startNanos) {
+        Submission submission = new Submission(startNanos, startNanos >= windowStart && startNanos < windowEnd);
+        Completion completion = earlyCompletions.remove(transactionId);
+        if (completion != null) {
+            complete(submission, completion);
+        } else {
+            inFlight.put(transactionId, submission);
+            // El resultado pudo llegar entre la comprobación y el put
+            completion = earlyCompletions.remove(transactionId);
+            if (completion != null && inFlight.remove(transactionId) != null) {
+                complete(submission, completion);
+            }
+        }
+    }
+
+    /**
+     * Espera a que terminen las sagas pendientes o a que venza el plazo.
+     */
+    void awaitDrained(Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (!inFlight.isEmpty() && System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(100);
+        }
+    }
+
+    int pending() {
+        return inFlight.size();
+    }
+
+    long completedInWindow() {
+        return completedInWindow.get();
+    }
+
+    Map<String, AtomicLong> outcomes() {
+        return outcomes;
+    }
+
+    LatencyStats latencies() {
+        return latencies;
+    }
+
+    private void poll() {
+        try {
+            while (running) {
+                for (ConsumerRecord<String, String> record : consumer.poll(Duration.ofMillis(100))) {
+                    onCompleted(record.value(), System.nanoTime());
+                }
+            }
+        } catch (WakeupException e) {
+            // Cierre solicitado
+        } finally {
+            consumer.close();
+        }
+    }
+
+    private void onCompleted(String payload, long completedAt) {
+        UUID transactionId;
+        String status;
+        try {
+            JsonNode event = objectMapper.readTree(payload);
+            transactionId = UUID.fromString(event.get("transactionId").asText());
+            status = event.path("transactionStatus").asText("UNKNOWN");
+        } catch (Exception e) {
+            log.warn("[SagaTracker] Unreadable completion event skipped - Error: {}", e.getMessage());
+            return;
+        }
+
+        Completion completion = new Completion(completedAt, status);
+        Submission submission = inFlight.remove(transactionId);
+        if (submission != null) {
+            complete(submission, completion);
+        } else {
+            earlyCompletions.putIfAbsent(transactionId, completion);
+        }
+    }
+
+    private void complete(Submission submission, Completion completion) {
+        if (completion.at() >= windowStart && completion.at() < windowEnd) {
+            completedInWindow.incrementAndGet();
+        }
+        if (submission.measured()) {
+            latencies.record(completion.at() - submission.startNanos());
+            outcomes.computeIfAbsent(completion.status(), s -> new AtomicLong()).incrementAndGet();
+        }
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        consumer.wakeup();
+        poller.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    private record Submission(long startNanos, boolean measured) {}
+
+    private record Completion(long at, String status) {}
+}
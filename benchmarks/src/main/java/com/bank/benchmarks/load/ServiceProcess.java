@@ -0,0 +1,94 @@
+package com.bank.benchmarks.load;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Servicio lanzado como proceso hijo desde su jar ejecutable.
+ * La configuración se pasa por variables de entorno, igual que en un despliegue real,
+ * y la salida del proceso se guarda en target/&lt;nombre&gt;.log.
+ */
+@Slf4j
+final class ServiceProcess implements AutoCloseable {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+
+    private final String name;
+    private final int port;
+    private final Process process;
+
+    private ServiceProcess(String name, int port, Process process) {
+        this.name = name;
+        this.port = port;
+        this.process = process;
+    }
+
+    static ServiceProcess start(String name, Path jar, int port, Map<String, String> environment) throws IOException {
+        if (!Files.isRegularFile(jar)) {
+            throw new IllegalStateException("Executable jar not found for " + name + ": " + jar
+                + " (run mvn -B package -DskipTests from the root first)");
+        }
+        Path logFile = Path.of("benchmarks", "target", name + ".log");
+        Files.createDirectories(logFile.getParent());
+
+        ProcessBuilder builder = new ProcessBuilder(List.of(
+            Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+            "-jar", jar.toString(),
+            "--server.port=" + port,
+            "--spring.jpa.properties.hibernate.show_sql=false",
+            "--logging.level.root=WARN"));
+        builder.environment().putAll(environment);
+        builder.redirectErrorStream(true);
+        builder.redirectOutput(logFile.toFile());
+
+        log.info("[ServiceProcess] Starting {} on port {} - Log: {}", name, port, logFile);
+        return new ServiceProcess(name, port, builder.start());
+    }
+
+    /**
+     * Espera a que el endpoint de health responda UP.
+     */
+    void awaitHealthy(HttpClient client) throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl() + "/actuator/health")).GET().build();
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException(name + " exited during startup with code " + process.exitValue());
+            }
+            try {
+                HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                if (response.statusCode() == 200 && response.body().contains("\"UP\"")) {
+                    log.info("[ServiceProcess] ✅ {} is up", name);
+                    return;
+                }
+            } catch (IOException e) {
+                // Aún no escucha en el puerto
+            }
+            TimeUnit.MILLISECONDS.sleep(500);
+        }
+        throw new IllegalStateException(name + " did not become healthy within " + STARTUP_TIMEOUT);
+    }
+
+    String baseUrl() {
+        return "http://localhost:" + port;
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(30, TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.bank.benchmarks.load;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntSupplier;
+
+/**
+ * Reparto de las cuentas que participan en las transferencias generadas.
+ * Cada mezcla devuelve un selector de índices de cuenta en [0, accounts).
+ */
+public enum TransferMix {
+
+    /**
+     * Todas las cuentas con la misma probabilidad: mínima contención.
+     */
+    UNIFORM {
+        @Override
+        IntSupplier picker(LoadOptions options) {
+            int accounts = options.accounts();
+            return () -> ThreadLocalRandom.current().nextInt(accounts);
+        }
+    },
+
+    /**
+     * Una pequeña fracción de cuentas recibe la mayor parte del tráfico: mide la
+     * contención sobre las mismas filas y el bloqueo optimista.
+     */
+    HOT {
+        @Override
+        IntSupplier picker(LoadOptions options) {
+            int accounts = options.accounts();
+            int hot = Math.max(2, (int) Math.ceil(accounts * options.hotFraction()));
+            double share = options.hotShare();
+            return () -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                return random.nextDouble() < share ? random.nextInt(hot) : random.nextInt(accounts);
+            };
+        }
+    },
+
+    /**
+     * Distribución de Zipf sobre el ranking de cuentas: pocas muy activas y una cola larga.
+     */
+    ZIPF {
+        @Override
+        IntSupplier picker(LoadOptions options) {
+            int accounts = options.accounts();
+            double[] cdf = new double[accounts];
+            double sum = 0;
+            for (int i = 0; i < accounts; i++) {
+                sum += 1.0 / Math.pow(i + 1, options.zipfExponent());
+                cdf[i] = sum;
+            }
+            double total = sum;
+            return () -> {
+                int index = Arrays.binarySearch(cdf, ThreadLocalRandom.current().nextDouble() * total);
+                return Math.min(accounts - 1, index >= 0 ? index : -index - 1);
+            };
+        }
+    };
+
+    abstract IntSupplier picker(LoadOptions options);
+
+    /**
+     * Elige un par origen/destino distinto según la mezcla.
+     */
+    static int[] pickPair(IntSupplier picker) {
+        int from = picker.getAsInt();
+        int to = picker.getAsInt();
+        while (to == from) {
+            to = picker.getAsInt();
+        }
+        return new int[] { from, to };
+    }
+}
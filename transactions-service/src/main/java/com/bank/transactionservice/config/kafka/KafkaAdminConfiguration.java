@@ -3,16 +3,21 @@ package com.bank.transactionservice.config.kafka;
 import java.util.Map;
 
 import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.NewTopic;
 import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.actuate.health.Health;
 import org.springframework.boot.actuate.health.HealthIndicator;
 import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
 import org.springframework.boot.ssl.SslBundles;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.KafkaAdmin;
 import org.springframework.stereotype.Component;
 
+import com.bank.transactionservice.kafka.KafkaTopics;
+
 @Configuration(proxyBeanMethods = false)
 public class KafkaAdminConfiguration {
 
@@ -27,6 +32,28 @@ public class KafkaAdminConfiguration {
         return new KafkaAdmin(configs);
     }
 
+    /**
+     * Topics publicados por este servicio. Los eventos se publican con clave (id de
+     * cuenta o de agregado), así que el número de particiones fija el paralelismo
+     * máximo de los consumidores manteniendo el orden por cuenta.
+     */
+    @Bean
+    public KafkaAdmin.NewTopics producedTopics(
+            @Value("${spring.kafka.topics.partitions:6}") int partitions,
+            @Value("${spring.kafka.topics.replication-factor:1}") short replicationFactor
+    ) {
+        return new KafkaAdmin.NewTopics(
+                topic(KafkaTopics.TRANSACTION_REQUESTED, partitions, replicationFactor)
+        );
+    }
+
+    private static NewTopic topic(String name, int partitions, short replicationFactor) {
+        return TopicBuilder.name(name)
+                .partitions(partitions)
+                .replicas(replicationFactor)
+                .build();
+    }
+
     @Component
     public class KafkaHealthIndicator implements HealthIndicator {
 
@@ -5,6 +5,7 @@ import org.apache.kafka.common.serialization.StringDeserializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
@@ -18,6 +19,9 @@ import org.springframework.util.backoff.FixedBackOff;
 
 import com.bank.transactionservice.event.consumer.AccountProcessedEvent;
 import com.bank.transactionservice.event.consumer.TransactionCompletedEvent;
+import com.bank.transactionservice.kafka.consumer.ConsumerLagInterceptor;
+import com.bank.transactionservice.kafka.consumer.ProcessedEventRebalanceListener;
+import com.bank.transactionservice.observability.MetricService;
 
 import lombok.RequiredArgsConstructor;
 
@@ -35,7 +39,17 @@ public class KafkaConsumerConfig {
     @Value("${spring.kafka.consumer.group-id}")
     private String groupId;
 
+    @Value("${spring.kafka.listener.concurrency:1}")
+    private int listenerConcurrency;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
     private final KafkaTemplate<String, String> kafkaTemplate;
+
+    private final ProcessedEventRebalanceListener processedEventRebalanceListener;
+
+    private final MetricService metricService;
     
     /**
      * Consumer factory for AccountProcessedEvent
@@ -62,6 +76,10 @@ public class KafkaConsumerConfig {
         factory.setCommonErrorHandler(defaultErrorHandler(kafkaTemplate));
         factory.setConsumerFactory(accountProcessedEventConsumerFactory());
         factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.setConcurrency(listenerConcurrency);
+        factory.getContainerProperties().setConsumerRebalanceListener(processedEventRebalanceListener);
+        factory.setRecordInterceptor(new ConsumerLagInterceptor<>(metricService));
+        useVirtualThreads(factory, "account-processed-");
         return factory;
     }
 
@@ -89,7 +107,11 @@ public class KafkaConsumerConfig {
             new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(transactionCompletedEventConsumerFactory());
         factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.setConcurrency(listenerConcurrency);
+        factory.getContainerProperties().setConsumerRebalanceListener(processedEventRebalanceListener);
         factory.setCommonErrorHandler(defaultErrorHandler(kafkaTemplate));
+        factory.setRecordInterceptor(new ConsumerLagInterceptor<>(metricService));
+        useVirtualThreads(factory, "transaction-completed-");
         return factory;
     }
 
@@ -104,4 +126,17 @@ public class KafkaConsumerConfig {
         return new DefaultErrorHandler(recoverer, backOff);
     }
 
+    /**
+     * Con spring.threads.virtual.enabled los consumidores corren en hilos virtuales. Spring
+     * Boot solo lo aplica a su propia factoría de contenedores, así que las de esta clase
+     * se configuran aquí.
+     */
+    private void useVirtualThreads(ConcurrentKafkaListenerContainerFactory<?, ?> factory, String threadNamePrefix) {
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+            executor.setVirtualThreads(true);
+            factory.getContainerProperties().setListenerTaskExecutor(executor);
+        }
+    }
+
 }
@@ -0,0 +1,24 @@
+package com.bank.transactionservice.config.observability;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.bank.transactionservice.observability.MetricService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Configuración de observabilidad para la aplicación.
+ * Las métricas se publican en el registro de Prometheus que configura Spring Boot.
+ */
+@Configuration
+public class ObservabilityConfig {
+
+    /**
+     * Bean de MetricService para gestión de métricas.
+     */
+    @Bean
+    public MetricService metricService(MeterRegistry registry) {
+        return new MetricService(registry);
+    }
+}
@@ -0,0 +1,42 @@
+package com.bank.transactionservice.config.persistence;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Envuelve el DataSource en un ConnectionLimitingDataSource cuando está activo
+ * spring.datasource.concurrency-limit (perfil virtual-threads).
+ *
+ * Por defecto los permisos coinciden con spring.datasource.hikari.maximum-pool-size:
+ * el tamaño del pool lo marca lo que aguanta Postgres, no el número de hilos, y con
+ * hilos virtuales ese número deja de estar acotado por el pool de Tomcat.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "spring.datasource.concurrency-limit.enabled", havingValue = "true")
+public class ConnectionLimitConfig {
+
+    @Bean
+    public static BeanPostProcessor connectionLimitingDataSourcePostProcessor(
+            @Value("${spring.datasource.concurrency-limit.permits:${spring.datasource.hikari.maximum-pool-size:10}}") int permits,
+            @Value("${spring.datasource.concurrency-limit.acquire-timeout-ms:30000}") long acquireTimeoutMs) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ConnectionLimitingDataSource)) {
+                    log.info("[ConnectionLimitConfig] Limiting concurrent connections - DataSource: {}, Permits: {}, AcquireTimeoutMs: {}",
+                        beanName, permits, acquireTimeoutMs);
+                    return new ConnectionLimitingDataSource(dataSource, permits, acquireTimeoutMs);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,141 @@
+package com.bank.transactionservice.config.persistence;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * DataSource que limita cuántas conexiones pueden estar prestadas a la vez.
+ *
+ * Con hilos virtuales cada petición y cada listener tiene su propio hilo y miles de
+ * ellos pueden pedir conexión al mismo tiempo. El semáforo, justo y con el mismo
+ * número de permisos que el pool de Hikari, los pone en cola en orden de llegada
+ * antes de llegar al pool, y el que no consigue permiso dentro de acquire-timeout
+ * falla con SQLTransientConnectionException igual que si agotara el pool. El permiso
+ * se devuelve al cerrar la conexión.
+ */
+@Slf4j
+public class ConnectionLimitingDataSource extends DelegatingDataSource {
+
+    private final Semaphore permits;
+    private final long acquireTimeoutMs;
+
+    public ConnectionLimitingDataSource(DataSource target, int permits, long acquireTimeoutMs) {
+        super(target);
+        this.permits = new Semaphore(permits, true);
+        this.acquireTimeoutMs = acquireTimeoutMs;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return limited(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return limited(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private void acquire() throws SQLException {
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                log.warn("[ConnectionLimitingDataSource] Connection permit not available - Waiting: {}, TimeoutMs: {}",
+                    permits.getQueueLength(), acquireTimeoutMs);
+                throw new SQLTransientConnectionException(
+                    "No connection permit available after " + acquireTimeoutMs + "ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a connection permit", e);
+        }
+    }
+
+    private Connection limited(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(
+            Connection.class.getClassLoader(),
+            new Class<?>[] { Connection.class },
+            new PermitReleasingHandler(connection));
+    }
+
+    /**
+     * Devuelve el permiso la primera vez que se cierra la conexión. equals, hashCode y
+     * toString se resuelven sobre el proxy, y unwrap/isWrapperFor lo tienen en cuenta
+     * antes de delegar en la conexión real.
+     */
+    private final class PermitReleasingHandler implements InvocationHandler {
+
+        private final Connection target;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private PermitReleasingHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Permit-limited proxy for target Connection [" + target + "]";
+                case "unwrap":
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return proxy;
+                    }
+                    break;
+                case "isWrapperFor":
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return true;
+                    }
+                    break;
+                case "close":
+                    if (released.compareAndSet(false, true)) {
+                        try {
+                            return invokeTarget(method, args);
+                        } finally {
+                            permits.release();
+                        }
+                    }
+                    break;
+                default:
+                    break;
+            }
+            return invokeTarget(method, args);
+        }
+
+        private Object invokeTarget(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.bank.transactionservice.config.persistence;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+import com.bank.transactionservice.model.IdGenerator;
+import com.bank.transactionservice.model.Ids;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Configuration
+public class IdGeneratorConfig {
+
+    @Value("${spring.ids.generator:time-ordered}")
+    private String generator;
+
+    @PostConstruct
+    void registerIdGenerator() {
+        Ids.use(IdGenerator.named(generator));
+        log.info("[IdGeneratorConfig] Using {} ids", generator);
+    }
+}
@@ -4,12 +4,14 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -22,11 +24,26 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.Valid;
 
 import com.bank.transactionservice.dto.request.TransactionRequestDTO;
+import com.bank.transactionservice.dto.response.TransactionBatchItemResponseDTO;
+import com.bank.transactionservice.dto.response.TransactionPageResponseDTO;
 import com.bank.transactionservice.dto.response.TransactionResponseDTO;
 import com.bank.transactionservice.mapper.TransactionMapper;
 import com.bank.transactionservice.model.transaction.Transaction;
+import com.bank.transactionservice.service.TransactionBatchService;
+import com.bank.transactionservice.service.TransactionBatchService.BatchItemResult;
+import com.bank.transactionservice.service.TransactionCursor;
+import com.bank.transactionservice.service.TransactionHistoryService;
+import com.bank.transactionservice.service.TransactionHistoryService.TransactionHistoryPage;
 import com.bank.transactionservice.service.TransactionService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -44,6 +61,9 @@ public class TransactionController {
 
     private final TransactionService transactionService;
     private final TransactionMapper transactionMapper;
+    private final TransactionHistoryService transactionHistoryService;
+    private final TransactionBatchService transactionBatchService;
+    private final ObjectMapper objectMapper;
     
     @GetMapping
     @Operation(summary = "Obtener todas las transacciones", description = "Recupera una lista de todas las transacciones")
@@ -55,7 +75,7 @@ public class TransactionController {
         log.info("[TransactionController] GET /bank_system/transactionservice/transactions");
         return ResponseEntity.ok(transactionService.getAllTransactions()
                 .stream()
-                .map(transactionMapper::fromEntityToResponse)
+                .map(transactionMapper::fromViewToResponse)
                 .collect(Collectors.toList()));
     }
 
@@ -68,8 +88,30 @@ public class TransactionController {
     })
     public ResponseEntity<TransactionResponseDTO> getTransactionById(@PathVariable UUID id) {
         log.info("[TransactionController] GET /bank_system/transactionservice/transactions/{}", id);
-        Transaction transaction = transactionService.getTransactionById(id);
-        return ResponseEntity.ok(transactionMapper.fromEntityToResponse(transaction));
+        return ResponseEntity.ok(transactionMapper.fromViewToResponse(transactionService.getTransactionById(id)));
+    }
+
+    @GetMapping("/accounts/{accountNumber}/history")
+    @Operation(summary = "Obtener historial de una cuenta",
+               description = "Recupera hasta limit transacciones de la cuenta, como origen o destino, de la más reciente a la más antigua a partir del cursor before")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Historial obtenido exitosamente",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = TransactionPageResponseDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Cursor o límite inválidos", content = @Content),
+        @ApiResponse(responseCode = "404", description = "Cuenta no encontrada", content = @Content)
+    })
+    public ResponseEntity<TransactionPageResponseDTO> getAccountHistory(
+            @PathVariable String accountNumber,
+            @RequestParam(required = false) String before,
+            @RequestParam(required = false) Integer limit) {
+        log.info("[TransactionController] GET /bank_system/transactionservice/transactions/accounts/{}/history - Before: {}, Limit: {}",
+            accountNumber, before, limit);
+        TransactionHistoryPage page = transactionHistoryService.findHistory(
+            accountNumber, before == null ? null : TransactionCursor.decode(before), limit);
+        return ResponseEntity.ok(TransactionPageResponseDTO.builder()
+                .transactions(page.transactions().stream().map(transactionMapper::fromViewToResponse).toList())
+                .nextCursor(page.nextCursor() == null ? null : page.nextCursor().encode())
+                .build());
     }
 
     @PostMapping
@@ -90,6 +132,56 @@ public class TransactionController {
             transactionRequestDTO.getType(),
             transactionRequestDTO.getDescription()
         );
-        return ResponseEntity.status(HttpStatus.CREATED).body(transactionMapper.fromEntityToResponse(t));
+        return ResponseEntity.status(HttpStatus.CREATED).body(transactionMapper.fromEntityToResponse(
+            t, transactionRequestDTO.getFromAccountNumber(), transactionRequestDTO.getToAccountNumber()));
+    }
+
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Crear transacciones en lote",
+               description = "Crea una transacción por cada elemento de la lista y devuelve un resultado por elemento, en el mismo orden")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Lote procesado; cada resultado indica si se creó la transacción",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = TransactionBatchItemResponseDTO.class)))
+    })
+    public ResponseEntity<List<TransactionBatchItemResponseDTO>> createTransactions(
+            @RequestBody List<TransactionRequestDTO> transactionRequestDTOs) {
+        log.info("[TransactionController] POST /bank_system/transactionservice/transactions/batch - Requests: {}",
+            transactionRequestDTOs.size());
+        return ResponseEntity.ok(toBatchResponse(transactionBatchService.createTransactions(transactionRequestDTOs.iterator())));
+    }
+
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Crear transacciones en lote desde NDJSON",
+               description = "Igual que el lote JSON, con una petición por línea; se procesa a medida que se lee. El índice de cada resultado cuenta las líneas no vacías")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Lote procesado; cada resultado indica si se creó la transacción",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = TransactionBatchItemResponseDTO.class)))
+    })
+    public ResponseEntity<List<TransactionBatchItemResponseDTO>> createTransactionsFromNdjson(InputStream body) throws IOException {
+        log.info("[TransactionController] POST /bank_system/transactionservice/transactions/batch (NDJSON)");
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            Iterator<TransactionRequestDTO> requests = reader.lines()
+                .filter(line -> !line.isBlank())
+                .map(this::readNdjsonLine)
+                .iterator();
+            return ResponseEntity.ok(toBatchResponse(transactionBatchService.createTransactions(requests)));
+        }
+    }
+
+    /**
+     * Una línea ilegible se entrega como null para que el servicio la rechace sin
+     * descartar el resto del lote.
+     */
+    private TransactionRequestDTO readNdjsonLine(String line) {
+        try {
+            return objectMapper.readValue(line, TransactionRequestDTO.class);
+        } catch (JsonProcessingException e) {
+            log.warn("[TransactionController] Malformed NDJSON line - Error: {}", e.getOriginalMessage());
+            return null;
+        }
+    }
+
+    private List<TransactionBatchItemResponseDTO> toBatchResponse(List<BatchItemResult> results) {
+        return results.stream().map(transactionMapper::fromBatchResultToResponse).toList();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,21 @@
+package com.bank.transactionservice.dto.response;
+
+import java.util.UUID;
+
+import com.bank.transactionservice.model.transaction.TransactionStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionBatchItemResponseDTO {
+    private int index;
+    private UUID transactionId;
+    private TransactionStatus status;
+    private String error;
+}
@@ -0,0 +1,17 @@
+package com.bank.transactionservice.dto.response;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionPageResponseDTO {
+    private List<TransactionResponseDTO> transactions;
+    private String nextCursor;
+}
@@ -0,0 +1,6 @@
+package com.bank.transactionservice.exception;
+
+public class CouldNotAccessAccountReplica extends RuntimeException {
+    public CouldNotAccessAccountReplica(String message) { super(message); }
+    public CouldNotAccessAccountReplica(String message, Throwable cause) { super(message, cause); }
+}
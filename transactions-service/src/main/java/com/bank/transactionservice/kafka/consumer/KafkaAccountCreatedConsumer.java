@@ -3,8 +3,8 @@ package com.bank.transactionservice.kafka.consumer;
 import com.bank.transactionservice.event.consumer.AccountProcessedEvent;
 import com.bank.transactionservice.kafka.KafkaTopics;
 import com.bank.transactionservice.model.processedevent.ProcessedEvent;
-import com.bank.transactionservice.repository.ProcessedEventRepository;
 import com.bank.transactionservice.service.AccountService;
+import com.bank.transactionservice.service.ProcessedEventService;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -14,6 +14,7 @@ import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.kafka.support.KafkaHeaders;
 import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.UUID;
 
@@ -28,7 +29,9 @@ public class KafkaAccountCreatedConsumer {
     
     private final AccountService accountService;
 
-    private final ProcessedEventRepository processedEventRepository;
+    private final ProcessedEventService processedEventService;
+
+    private final TransactionTemplate transactionTemplate;
     
     /**
      * Consume eventos de cuentas creadas desde Kafka.
@@ -49,28 +52,33 @@ public class KafkaAccountCreatedConsumer {
         UUID eventUuid = UUID.fromString(eventIdHeader);
         try {
 
-            if (processedEventRepository.existsById(eventUuid)) {
-                log.info("Evento duplicado ignorado. eventId={}", eventUuid);
-                ack.acknowledge();
-                return;
-            }
+            boolean applied = Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                if (processedEventService.isProcessed(topic, partition, offset, eventUuid)) {
+                    return false;
+                }
+                log.debug("[KafkaAccountCreatedConsumer] [TxId: {}] Received AccountCreatedEvent - AccountId: {}", 
+                    eventUuid, event.accountId());
 
-            log.debug("[KafkaAccountCreatedConsumer] [TxId: {}] Received AccountCreatedEvent - AccountId: {}", 
-                eventUuid, event.accountId());
-            
-            accountService.createAccountFromConsumer(event);
-            
-            processedEventRepository.save(
-                new ProcessedEvent(
-                    eventUuid,
-                    event.getClass().getSimpleName(),
-                    topic,
-                    partition,
-                    offset
-                )
-            );
+                accountService.createAccountFromConsumer(event);
+
+                processedEventService.save(
+                    new ProcessedEvent(
+                        eventUuid,
+                        event.getClass().getSimpleName(),
+                        topic,
+                        partition,
+                        offset
+                    )
+                );
+                processedEventService.advanceWatermark(topic, partition, offset);
+                return true;
+            }));
 
             ack.acknowledge();
+            if (!applied) {
+                log.info("Evento duplicado ignorado. eventId={}", eventUuid);
+                return;
+            }
             log.info("[KafkaAccountCreatedConsumer] [TxId: {}] ✅ Account created successfully - AccountId: {}", 
                 eventUuid, event.accountId());
         } catch (Exception e) {
@@ -3,7 +3,7 @@ package com.bank.transactionservice.kafka.consumer;
 import com.bank.transactionservice.event.consumer.TransactionCompletedEvent;
 import com.bank.transactionservice.kafka.KafkaTopics;
 import com.bank.transactionservice.model.processedevent.ProcessedEvent;
-import com.bank.transactionservice.repository.ProcessedEventRepository;
+import com.bank.transactionservice.service.ProcessedEventService;
 import com.bank.transactionservice.service.TransactionService;
 
 import lombok.RequiredArgsConstructor;
@@ -16,6 +16,7 @@ import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.kafka.support.KafkaHeaders;
 import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
  * Consumer de eventos de transacciones completadas.
@@ -28,7 +29,9 @@ public class KafkaCompletedTransactionConsumer {
     
     private final TransactionService transactionService;
 
-    private final ProcessedEventRepository processedEventRepository;
+    private final ProcessedEventService processedEventService;
+
+    private final TransactionTemplate transactionTemplate;
     /**
      * Consume eventos de transacciones completadas desde Kafka.
      * Actualiza el estado de la transacción en la base de datos local.
@@ -47,26 +50,32 @@ public class KafkaCompletedTransactionConsumer {
         UUID eventUuid = UUID.fromString(eventIdHeader);
         try {
 
-            if (processedEventRepository.existsById(eventUuid)) {
-                log.info("Evento duplicado ignorado. eventId={}", eventUuid);
-                ack.acknowledge();
-                return;
-            }
-            log.debug("[KafkaCompletedTransactionConsumer] Received TransactionCompletedEvent - TransactionId: {}", event.transactionId());
+            boolean applied = Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                if (processedEventService.isProcessed(topic, partition, offset, eventUuid)) {
+                    return false;
+                }
+                log.debug("[KafkaCompletedTransactionConsumer] Received TransactionCompletedEvent - TransactionId: {}", event.transactionId());
 
-            transactionService.updateTransaction(event.transactionId(), event.transactionStatus(), event.observations());
+                transactionService.updateTransaction(event.transactionId(), event.transactionStatus(), event.observations());
 
-            processedEventRepository.save(
-                new ProcessedEvent(
-                    eventUuid,
-                    event.getClass().getSimpleName(),
-                    topic,
-                    partition,
-                    offset
-                )
-            );
+                processedEventService.save(
+                    new ProcessedEvent(
+                        eventUuid,
+                        event.getClass().getSimpleName(),
+                        topic,
+                        partition,
+                        offset
+                    )
+                );
+                processedEventService.advanceWatermark(topic, partition, offset);
+                return true;
+            }));
 
             ack.acknowledge();
+            if (!applied) {
+                log.info("Evento duplicado ignorado. eventId={}", eventUuid);
+                return;
+            }
             log.info("[KafkaCompletedTransactionConsumer] ✅ Transaction updated successfully - TransactionId: {}, NewStatus: {}", 
                 event.transactionId(), event.transactionStatus());
         } catch (Exception e) {
@@ -3,23 +3,28 @@ package com.bank.transactionservice.kafka.publisher;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.KafkaHeaders;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import com.bank.transactionservice.model.Ids;
 import com.bank.transactionservice.model.outbox.OutboxEvent;
-import com.bank.transactionservice.model.outbox.OutboxStatus;
-import com.bank.transactionservice.repository.OutboxEventRepository;
+import com.bank.transactionservice.model.outbox.OutboxEventSaved;
+import com.bank.transactionservice.service.OutboxService;
 
-import java.time.LocalDateTime;
+import java.time.Duration;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Publicador de eventos Outbox.
@@ -29,60 +34,128 @@ import java.util.UUID;
 @Component
 @RequiredArgsConstructor
 @Slf4j
-public class OutboxPublisher {
+public class OutboxPublisher implements DisposableBean {
 
-    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxService outboxService;
+    private final OutboxAckWriter outboxAckWriter;
     private final KafkaTemplate<String, String> kafkaTemplate;
 
     @Value("${spring.outbox.batch-size}")
     private int batchSize;
 
+    /**
+     * Identificador de esta instancia del relay, usado como dueño del lease.
+     */
+    @Value("${spring.outbox.instance-id}")
+    private String instanceId;
+
+    @Value("${spring.outbox.lease-ms:30000}")
+    private long leaseMs;
+
+    /**
+     * Si está activo, cada commit que guarda eventos despierta al relay de inmediato
+     * y el scheduler queda solo como barrido de respaldo.
+     */
+    @Value("${spring.outbox.wakeup.enabled:true}")
+    private boolean wakeupEnabled;
+
+    private final AtomicBoolean wakeupPending = new AtomicBoolean();
+    private final ExecutorService relay = Executors.newSingleThreadExecutor(r -> new Thread(r, "outbox-relay"));
+
     /**
      * Publica eventos pendientes en Kafka.
-     * Ejecuta cada 5 segundos para procesar eventos que aún no han sido publicados.
+     * Reclama un lote con lease para que varias instancias puedan vaciar la tabla
+     * en paralelo sin publicar dos veces el mismo evento. Los leases de una instancia
+     * caída caducan y el lote vuelve a estar disponible.
+     *
+     * Con el wakeup activo este barrido solo recoge lo que no se publicó tras el commit:
+     * eventos de otra instancia, leases caducados y reintentos.
      */
     @Scheduled(fixedDelayString = "${spring.outbox.scheduler.delay-ms}")
     public void publishPendingEvents() {
-        Page<OutboxEvent> page = outboxEventRepository
-                .findNextPending(PageRequest.of(0, batchSize));
+        publishBatch();
+    }
 
-        if (page.isEmpty()) {
+    /**
+     * Despierta al relay cuando se confirma una transacción que guardó eventos.
+     * Los avisos se agrupan: si ya hay un vaciado pendiente no se encola otro, y ese
+     * vaciado recoge todo lo confirmado hasta que empiece a reclamar.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOutboxEventSaved(OutboxEventSaved saved) {
+        if (wakeupEnabled && wakeupPending.compareAndSet(false, true)) {
+            relay.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        wakeupPending.set(false);
+        try {
+            while (publishBatch() == batchSize) {
+                log.debug("[OutboxPublisher] Full batch claimed, draining next one");
+            }
+        } catch (RuntimeException e) {
+            // El barrido programado recogerá lo que quede pendiente
+            log.error("[OutboxPublisher] ❌ Wakeup drain failed - Error: {}", e.getMessage(), e);
+        }
+    }
+
+    private int publishBatch() {
+        List<OutboxEvent> events = outboxService.claimPendingEvents(instanceId, batchSize, Duration.ofMillis(leaseMs));
+
+        if (events.isEmpty()) {
             log.debug("[OutboxPublisher] No pending events");
-            return;
+            return 0;
         }
 
-        log.info("[OutboxPublisher] Processing {} events", page.getNumberOfElements());
+        log.info("[OutboxPublisher] [Instance: {}] Processing {} events", instanceId, events.size());
 
-        page.forEach(this::publishEventAsync);
+        events.forEach(this::publishEventAsync);
+        return events.size();
     }
 
     private void publishEventAsync(OutboxEvent event) {
-        UUID txId = UUID.randomUUID();
+        UUID txId = Ids.next();
 
-        Message<String> message = MessageBuilder
+        kafkaTemplate.send(toMessage(event))
+            .thenAccept(result -> onSuccess(event, txId, event.getTopic()))
+            .exceptionally(ex -> {
+                onFailure(event, txId, event.getTopic(), ex);
+                return null;
+            });
+
+    }
+
+    /**
+     * Construye el mensaje de Kafka de un evento outbox con sus cabeceras.
+     */
+    public Message<String> toMessage(OutboxEvent event) {
+        return MessageBuilder
                 .withPayload(event.getPayload())
                 .setHeader(KafkaHeaders.TOPIC, event.getTopic())
+                .setHeader(KafkaHeaders.KEY, partitionKey(event))
                 .setHeader("X-Event-Id", event.getId().toString())
                 .setHeader("X-Aggregate-Id", event.getAggregateId().toString())
                 .setHeader("X-Event-Type", event.getType())
                 .setHeader("X-Aggregate-Type", event.getAggregateType())
                 .setHeader("X-Timestamp", event.getCreatedAt().toString())
                 .build();
+    }
 
-        kafkaTemplate.send(message)
-            .thenAccept(result -> onSuccess(event, txId, event.getTopic()))
-            .exceptionally(ex -> {
-                onFailure(event, txId, event.getTopic(), ex);
-                return null;
-            });
-
+    /**
+     * Clave del registro en Kafka. Los eventos anteriores a la columna partition_key
+     * se publican con el id del agregado.
+     */
+    private String partitionKey(OutboxEvent event) {
+        return event.getPartitionKey() != null ? event.getPartitionKey() : event.getAggregateId().toString();
     }
 
-    @Transactional
-    protected void onSuccess(OutboxEvent event, UUID txId, String topic) {
-        event.setStatus(OutboxStatus.SENT);
-        event.setSentAt(LocalDateTime.now());
-        outboxEventRepository.save(event);
+    /**
+     * El estado se escribe en lote desde {@link OutboxAckWriter}; el callback del
+     * productor solo encola la confirmación.
+     */
+    private void onSuccess(OutboxEvent event, UUID txId, String topic) {
+        outboxAckWriter.sent(event.getId(), event.getCreatedAt());
 
         log.info(
             "[OutboxPublisher][TxId:{}] Event SENT - topic={}, type={}, aggregateId={}",
@@ -90,26 +163,29 @@ public class OutboxPublisher {
         );
     }
 
-    @Transactional
-    protected void onFailure(OutboxEvent event, UUID txId, String topic, Throwable ex) {
-        int attempts = event.incrementAttempts();
-        if (attempts >= 5) {
-            event.setStatus(OutboxStatus.FAILED);
+    private void onFailure(OutboxEvent event, UUID txId, String topic, Throwable ex) {
+        outboxAckWriter.failed(event.getId(), event.getCreatedAt());
+
+        int attempts = event.getAttempts() + 1;
+        if (attempts >= outboxAckWriter.getMaxAttempts()) {
             log.error(
                 "[OutboxPublisher][TxId:{}] Event FAILED permanently after {} attempts - {}",
                 txId, attempts, event.getId(), ex
             );
         } else {
-            event.setStatus(OutboxStatus.PENDING);
             log.warn(
                 "[OutboxPublisher][TxId:{}] Publish failed (attempt {}) - will retry",
                 txId, attempts, ex
             );
         }
-
-        outboxEventRepository.save(event);
     }
 
-
-
-}
\ No newline at end of file
+    @Override
+    public void destroy() throws InterruptedException {
+        relay.shutdown();
+        if (!relay.awaitTermination(10, TimeUnit.SECONDS)) {
+            log.warn("[OutboxPublisher] Relay did not finish in time, forcing shutdown");
+            relay.shutdownNow();
+        }
+    }
+}
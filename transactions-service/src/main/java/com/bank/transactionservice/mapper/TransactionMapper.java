@@ -5,8 +5,12 @@ import org.springframework.stereotype.Component;
 
 import com.bank.transactionservice.event.producer.TransactionRequestedMessage;
 import com.bank.transactionservice.dto.request.TransactionRequestDTO;
+import com.bank.transactionservice.dto.response.TransactionBatchItemResponseDTO;
 import com.bank.transactionservice.dto.response.TransactionResponseDTO;
 import com.bank.transactionservice.model.transaction.Transaction;
+import com.bank.transactionservice.model.transaction.TransactionStatus;
+import com.bank.transactionservice.repository.TransactionView;
+import com.bank.transactionservice.service.TransactionBatchService.BatchItemResult;
 
 @Component
 public class TransactionMapper {
@@ -19,11 +23,15 @@ public class TransactionMapper {
                 .build();
     }
 
-    public TransactionResponseDTO fromEntityToResponse(Transaction t) {
+    /**
+     * Respuesta de una transacción recién creada con los números de cuenta de la petición,
+     * para no inicializar sus referencias perezosas a Account.
+     */
+    public TransactionResponseDTO fromEntityToResponse(Transaction t, String fromAccountNumber, String toAccountNumber) {
         return TransactionResponseDTO.builder()
                 .transactionId(t.getId())
-                .fromAccountNumber(t.getFromAccount().getAccountNumber())
-                .toAccountNumber(t.getToAccount().getAccountNumber())
+                .fromAccountNumber(fromAccountNumber)
+                .toAccountNumber(toAccountNumber)
                 .amount(t.getAmount())
                 .type(t.getType())
                 .status(t.getStatus())
@@ -32,6 +40,34 @@ public class TransactionMapper {
                 .build();
     }
 
+    /**
+     * Respuesta de las lecturas, que ya traen los números de cuenta en la misma fila.
+     */
+    public TransactionResponseDTO fromViewToResponse(TransactionView v) {
+        return TransactionResponseDTO.builder()
+                .transactionId(v.getId())
+                .fromAccountNumber(v.getFromAccountNumber())
+                .toAccountNumber(v.getToAccountNumber())
+                .amount(v.getAmount())
+                .type(v.getType())
+                .status(v.getStatus())
+                .description(v.getDescription())
+                .createdAt(v.getCreatedAt())
+                .build();
+    }
+
+    /**
+     * Las peticiones aceptadas quedan PENDING como las individuales; las rechazadas, FAILED.
+     */
+    public TransactionBatchItemResponseDTO fromBatchResultToResponse(BatchItemResult r) {
+        return TransactionBatchItemResponseDTO.builder()
+                .index(r.index())
+                .transactionId(r.transactionId())
+                .status(r.accepted() ? TransactionStatus.PENDING : TransactionStatus.FAILED)
+                .error(r.error())
+                .build();
+    }
+
     public TransactionRequestedMessage mapTransactionToMessage(Transaction transaction) {
         return new TransactionRequestedMessage(
             transaction.getId(),
@@ -15,6 +15,7 @@ import jakarta.persistence.Column;
 import jakarta.persistence.EntityListeners;
 import jakarta.persistence.Id;
 import jakarta.persistence.MappedSuperclass;
+import jakarta.persistence.PrePersist;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
@@ -44,4 +45,15 @@ public abstract class BaseEntity {
 
     @LastModifiedBy
     private String updatedBy;
+
+    /**
+     * Las entidades propias (transacciones) reciben aquí su id, así que llegan a save
+     * sin id y se insertan con persist; las réplicas de cuentas traen el suyo.
+     */
+    @PrePersist
+    protected void onCreate() {
+        if (this.id == null) {
+            this.id = Ids.next();
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,29 @@
+package com.bank.transactionservice.model;
+
+import java.util.UUID;
+
+/**
+ * Estrategia con la que se generan los ids de las entidades y de los eventos del outbox.
+ *
+ * Por defecto se usan UUID v7, ordenados por tiempo; la versión aleatoria (v4) se
+ * mantiene para poder comparar ambos esquemas o volver atrás sin tocar el código.
+ */
+@FunctionalInterface
+public interface IdGenerator {
+
+    IdGenerator RANDOM = UUID::randomUUID;
+    IdGenerator TIME_ORDERED = UuidV7::next;
+
+    UUID next();
+
+    /**
+     * Generador configurado por nombre: "time-ordered" (v7) o "random" (v4).
+     */
+    static IdGenerator named(String name) {
+        return switch (name) {
+            case "time-ordered" -> TIME_ORDERED;
+            case "random" -> RANDOM;
+            default -> throw new IllegalArgumentException("Unknown id generator: " + name);
+        };
+    }
+}
@@ -0,0 +1,25 @@
+package com.bank.transactionservice.model;
+
+import java.util.UUID;
+
+/**
+ * Punto único de generación de ids.
+ *
+ * Las entidades asignan el id en @PrePersist, fuera del contexto de Spring, así que el
+ * generador se registra aquí al arrancar (IdGeneratorConfig) en lugar de inyectarse.
+ */
+public final class Ids {
+
+    private static volatile IdGenerator generator = IdGenerator.TIME_ORDERED;
+
+    private Ids() {
+    }
+
+    public static UUID next() {
+        return generator.next();
+    }
+
+    public static void use(IdGenerator idGenerator) {
+        generator = idGenerator;
+    }
+}
@@ -3,18 +3,25 @@ package com.bank.transactionservice.model.processedevent;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
+import org.springframework.data.domain.Persistable;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import lombok.AllArgsConstructor;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
 
 @Entity
 @Table(name = "processed_event")
+@Getter
 @NoArgsConstructor
 @AllArgsConstructor
-public class ProcessedEvent {
+public class ProcessedEvent implements Persistable<UUID> {
 
     @Id
     @Column(name = "event_id", nullable = false)
@@ -35,6 +42,13 @@ public class ProcessedEvent {
     @Column(name = "processed_at", nullable = false)
     private LocalDateTime processedAt = LocalDateTime.now();
 
+    /**
+     * El id lo asigna el productor, así que se marca como nuevo para que
+     * save haga persist (insert) en lugar de merge (select + insert).
+     */
+    @Transient
+    private boolean newEvent = true;
+
     public ProcessedEvent(UUID id, String eventType, String topic, int partition, long offset) {
         this.eventId = id;
         this.eventType = eventType;
@@ -42,5 +56,20 @@ public class ProcessedEvent {
         this.partition = partition;
         this.offset = offset;
     }
-}
 
+    @Override
+    public UUID getId() {
+        return eventId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newEvent;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.newEvent = false;
+    }
+}
@@ -0,0 +1,20 @@
+package com.bank.transactionservice.observability;
+
+/**
+ * Resultado de una búsqueda en la caché de cuentas; es el tag "result" de
+ * account.cache.lookup.total.
+ */
+public enum CacheResult {
+    HIT("hit"),
+    MISS("miss");
+
+    private final String tag;
+
+    CacheResult(String tag) {
+        this.tag = tag;
+    }
+
+    public String tag() {
+        return tag;
+    }
+}
@@ -0,0 +1,20 @@
+package com.bank.transactionservice.observability;
+
+/**
+ * Motivo por el que una cuenta sale de la caché; es el tag "cause" de
+ * account.cache.evicted.total.
+ */
+public enum EvictionCause {
+    SIZE("size"),
+    EXPIRED("expired");
+
+    private final String tag;
+
+    EvictionCause(String tag) {
+        this.tag = tag;
+    }
+
+    public String tag() {
+        return tag;
+    }
+}
@@ -0,0 +1,21 @@
+package com.bank.transactionservice.observability;
+
+/**
+ * Dónde se resolvió una comprobación de duplicados; es el tag "source" de
+ * processed.event.lookup.total.
+ */
+public enum LookupSource {
+    WATERMARK("watermark"),
+    CACHE("cache"),
+    DATABASE("database");
+
+    private final String tag;
+
+    LookupSource(String tag) {
+        this.tag = tag;
+    }
+
+    public String tag() {
+        return tag;
+    }
+}
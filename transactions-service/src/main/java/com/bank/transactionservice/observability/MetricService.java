@@ -0,0 +1,283 @@
+package com.bank.transactionservice.observability;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.apache.kafka.common.TopicPartition;
+
+import com.bank.transactionservice.model.transaction.TransactionStatus;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Servicio de métricas de transaction-service, con los mismos nombres y tags que
+ * MetricService en account-service para poder comparar los dos lados en Prometheus.
+ *
+ * Los medidores que se usan en cada petición o evento se registran al construir el
+ * servicio, uno por valor de su enum (TransactionStatus, CacheResult, EvictionCause,
+ * LookupSource), y se sirven desde un EnumMap; los de retraso de consumo se crean por
+ * partición la primera vez.
+ */
+public class MetricService {
+
+    /** Techo de los histogramas de retraso: un backlog puede tardar minutos en drenarse. */
+    private static final Duration MAX_EXPECTED_LAG = Duration.ofMinutes(10);
+
+    private final MeterRegistry registry;
+    private final Map<TopicPartition, Timer> consumerLagTimers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> outboxRetentionRows = new ConcurrentHashMap<>();
+
+    private final Map<TransactionStatus, Timer> sagaDurations;
+    private final Map<CacheResult, Counter> accountCacheLookups;
+    private final Map<EvictionCause, Counter> accountCacheEvictions;
+    private final Map<LookupSource, Counter> processedEventLookups;
+    private final Counter processedEventPurged;
+    private final Counter outboxAckDropped;
+    private final Counter outboxPartitionsDropped;
+    private final Timer outboxSendLagTimer;
+    private final Timer outboxAckFlushTimer;
+    private final Timer outboxRetentionTimer;
+    private final AtomicInteger outboxPartitions = new AtomicInteger();
+
+    public MetricService(MeterRegistry registry) {
+        this.registry = registry;
+        this.sagaDurations = preRegister(TransactionStatus.class, status -> Timer.builder(Metrics.SAGA_DURATION)
+            .tag("status", status.name().toLowerCase())
+            .description("Time from a transaction being created to its completion event being applied")
+            .publishPercentileHistogram(true)
+            .maximumExpectedValue(MAX_EXPECTED_LAG)
+            .register(registry));
+        this.accountCacheLookups = preRegister(CacheResult.class, result -> Counter.builder(Metrics.ACCOUNT_CACHE_LOOKUP_TOTAL)
+            .tag("result", result.tag())
+            .description("Total number of account lookups by cache result")
+            .register(registry));
+        this.accountCacheEvictions = preRegister(EvictionCause.class, cause -> Counter.builder(Metrics.ACCOUNT_CACHE_EVICTED_TOTAL)
+            .tag("cause", cause.tag())
+            .description("Total number of accounts evicted from the local cache")
+            .register(registry));
+        this.processedEventLookups = preRegister(LookupSource.class, source -> Counter.builder(Metrics.PROCESSED_EVENT_LOOKUP_TOTAL)
+            .tag("source", source.tag())
+            .description("Total number of duplicate checks by where they were answered")
+            .register(registry));
+        this.processedEventPurged = Counter.builder(Metrics.PROCESSED_EVENT_PURGED_TOTAL)
+            .description("Total number of processed_event rows purged below the offset watermark")
+            .register(registry);
+        this.outboxAckDropped = Counter.builder(Metrics.OUTBOX_ACK_DROPPED_TOTAL)
+            .description("Outbox acknowledgements dropped because the write-back queue was full")
+            .register(registry);
+        this.outboxPartitionsDropped = Counter.builder(Metrics.OUTBOX_RETENTION_PARTITIONS_DROPPED_TOTAL)
+            .description("Total number of outbox partitions dropped by the retention job")
+            .register(registry);
+        this.outboxSendLagTimer = Timer.builder(Metrics.OUTBOX_SEND_LAG)
+            .description("Time from an outbox event being written (created_at) to Kafka acknowledging it (sent_at)")
+            .publishPercentileHistogram(true)
+            .maximumExpectedValue(MAX_EXPECTED_LAG)
+            .register(registry);
+        this.outboxAckFlushTimer = Timer.builder(Metrics.OUTBOX_ACK_FLUSH_DURATION)
+            .description("Duration of each outbox status write-back flush")
+            .publishPercentileHistogram(true)
+            .register(registry);
+        this.outboxRetentionTimer = Timer.builder(Metrics.OUTBOX_RETENTION_DURATION)
+            .description("Duration of each outbox retention run")
+            .register(registry);
+        Gauge.builder(Metrics.OUTBOX_PARTITIONS, outboxPartitions, AtomicInteger::get)
+            .description("Number of daily outbox_event partitions")
+            .register(registry);
+    }
+
+    // ========== COUNTER METHODS ==========
+
+    /**
+     * Contador de búsquedas en la caché de cuentas, registrado al arrancar.
+     *
+     * @param result si la cuenta estaba en caché
+     * @return contador de búsquedas
+     */
+    public final Counter accountCacheLookup(CacheResult result) {
+        return accountCacheLookups.get(result);
+    }
+
+    /**
+     * Contador de cuentas que salen de la caché, registrado al arrancar.
+     *
+     * @param cause motivo de la expulsión
+     * @return contador de expulsiones
+     */
+    public final Counter accountCacheEvicted(EvictionCause cause) {
+        return accountCacheEvictions.get(cause);
+    }
+
+    /**
+     * Contador de comprobaciones de duplicados, registrado al arrancar.
+     *
+     * @param source dónde se resolvió la comprobación
+     * @return contador de comprobaciones
+     */
+    public final Counter processedEventLookup(LookupSource source) {
+        return processedEventLookups.get(source);
+    }
+
+    /**
+     * Contador de filas de processed_event purgadas.
+     *
+     * @return contador de filas purgadas
+     */
+    public final Counter processedEventPurged() {
+        return processedEventPurged;
+    }
+
+    /**
+     * Contador de confirmaciones de outbox descartadas por cola llena.
+     *
+     * @return contador de confirmaciones descartadas
+     */
+    public final Counter outboxAckDropped() {
+        return outboxAckDropped;
+    }
+
+    /**
+     * Obtiene o crea un contador de filas del outbox retiradas por la retención.
+     *
+     * @param action acción aplicada ("purged" para filas SENT borradas, "archived" para FAILED archivadas)
+     * @return contador de filas
+     */
+    public final Counter outboxRetentionRows(String action) {
+        return outboxRetentionRows.computeIfAbsent(action,
+            a -> Counter.builder(Metrics.OUTBOX_RETENTION_ROWS_TOTAL)
+                .tag("action", a)
+                .description("Total number of outbox rows removed by the retention job")
+                .register(registry));
+    }
+
+    /**
+     * Contador de particiones del outbox eliminadas.
+     *
+     * @return contador de particiones eliminadas
+     */
+    public final Counter outboxPartitionsDropped() {
+        return outboxPartitionsDropped;
+    }
+
+    // ========== TIMER METHODS ==========
+
+    /**
+     * Histograma de duración de la saga completa, por estado final.
+     *
+     * @param status estado con el que terminó la transacción
+     * @return timer de duración de la saga
+     */
+    public final Timer sagaDuration(TransactionStatus status) {
+        return sagaDurations.get(status);
+    }
+
+    /**
+     * Histograma del retraso entre que un evento entra en el outbox y Kafka lo confirma.
+     *
+     * @return timer de retraso de envío
+     */
+    public final Timer outboxSendLagTimer() {
+        return outboxSendLagTimer;
+    }
+
+    /**
+     * Obtiene o crea el histograma de retraso de consumo de una partición: tiempo entre el
+     * timestamp del registro en Kafka y su entrega al listener.
+     *
+     * @param topicPartition partición consumida
+     * @return timer de retraso de consumo
+     */
+    public final Timer consumerLagTimer(TopicPartition topicPartition) {
+        return consumerLagTimers.computeIfAbsent(topicPartition,
+            tp -> Timer.builder(Metrics.KAFKA_CONSUMER_LAG)
+                .tag("topic", tp.topic())
+                .tag("partition", String.valueOf(tp.partition()))
+                .description("Time from a record being appended to Kafka to its delivery to the listener")
+                .publishPercentileHistogram(true)
+                .maximumExpectedValue(MAX_EXPECTED_LAG)
+                .register(registry));
+    }
+
+    /**
+     * Timer de escritura en lote de estados del outbox.
+     *
+     * @return timer de flush
+     */
+    public final Timer outboxAckFlushTimer() {
+        return outboxAckFlushTimer;
+    }
+
+    /**
+     * Timer de cada ejecución de la retención del outbox.
+     *
+     * @return timer de retención
+     */
+    public final Timer outboxRetentionTimer() {
+        return outboxRetentionTimer;
+    }
+
+    // ========== GAUGE METHODS ==========
+
+    /**
+     * Registra un gauge con el número de cuentas en la caché local.
+     *
+     * @param size función que devuelve el tamaño actual de la caché
+     */
+    public final void accountCacheSize(Supplier<Number> size) {
+        Gauge.builder(Metrics.ACCOUNT_CACHE_SIZE, size)
+            .description("Number of accounts held in the local cache")
+            .register(registry);
+    }
+
+    /**
+     * Registra un gauge con la profundidad de la cola de confirmaciones del outbox.
+     *
+     * @param queue cola observada
+     */
+    public final void outboxAckQueueDepth(Collection<?> queue) {
+        Gauge.builder(Metrics.OUTBOX_ACK_QUEUE_DEPTH, queue, Collection::size)
+            .description("Outbox acknowledgements waiting to be written back")
+            .register(registry);
+    }
+
+    /**
+     * Valor del gauge con el número de particiones diarias del outbox.
+     *
+     * @return número de particiones publicado
+     */
+    public final AtomicInteger outboxPartitions() {
+        return outboxPartitions;
+    }
+
+    // ========== REGISTRATION ==========
+
+    /**
+     * Registra un medidor por cada valor del enum.
+     */
+    private static <E extends Enum<E>, M> Map<E, M> preRegister(Class<E> type, Function<E, M> factory) {
+        Map<E, M> meters = new EnumMap<>(type);
+        for (E value : type.getEnumConstants()) {
+            meters.put(value, factory.apply(value));
+        }
+        return meters;
+    }
+
+    // ========== UTILITY METHODS ==========
+
+    /**
+     * Obtiene el MeterRegistry utilizado por este servicio.
+     *
+     * @return MeterRegistry
+     */
+    public MeterRegistry getRegistry() {
+        return registry;
+    }
+}
@@ -0,0 +1,34 @@
+package com.bank.transactionservice.observability;
+
+/**
+ * Constantes de métricas para observabilidad del sistema.
+ * Define los nombres de las métricas que publica transaction-service; las que también
+ * existen en account-service usan el mismo nombre.
+ */
+public class Metrics {
+
+    // ========== SAGA ==========
+    public static final String SAGA_DURATION = "saga.duration";
+
+    // ========== ACCOUNT CACHE ==========
+    public static final String ACCOUNT_CACHE_LOOKUP_TOTAL = "account.cache.lookup.total";
+    public static final String ACCOUNT_CACHE_EVICTED_TOTAL = "account.cache.evicted.total";
+    public static final String ACCOUNT_CACHE_SIZE = "account.cache.size";
+
+    // ========== OUTBOX SERVICE ==========
+    public static final String OUTBOX_SEND_LAG = "outbox.send.lag";
+    public static final String OUTBOX_ACK_QUEUE_DEPTH = "outbox.ack.queue.depth";
+    public static final String OUTBOX_ACK_FLUSH_DURATION = "outbox.ack.flush.duration";
+    public static final String OUTBOX_ACK_DROPPED_TOTAL = "outbox.ack.dropped.total";
+    public static final String OUTBOX_RETENTION_ROWS_TOTAL = "outbox.retention.rows.total";
+    public static final String OUTBOX_RETENTION_PARTITIONS_DROPPED_TOTAL = "outbox.retention.partitions.dropped.total";
+    public static final String OUTBOX_RETENTION_DURATION = "outbox.retention.duration";
+    public static final String OUTBOX_PARTITIONS = "outbox.partitions";
+
+    // ========== KAFKA CONSUMERS ==========
+    public static final String KAFKA_CONSUMER_LAG = "kafka.consumer.lag";
+
+    // ========== PROCESSED EVENTS ==========
+    public static final String PROCESSED_EVENT_LOOKUP_TOTAL = "processed.event.lookup.total";
+    public static final String PROCESSED_EVENT_PURGED_TOTAL = "processed.event.purged.total";
+}
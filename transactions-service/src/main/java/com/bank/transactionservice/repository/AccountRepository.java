@@ -4,6 +4,8 @@ import org.springframework.data.jpa.repository.JpaRepository;
 
 import com.bank.transactionservice.model.account.Account;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -11,4 +13,6 @@ public interface AccountRepository extends JpaRepository<Account, UUID> {
     Optional<Account> findById(UUID accountId);
 
     Optional<Account> findByAccountNumber(String accountNumber);
+
+    List<Account> findByAccountNumberIn(Collection<String> accountNumbers);
 }
\ No newline at end of file
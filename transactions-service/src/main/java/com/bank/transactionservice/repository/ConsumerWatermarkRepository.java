@@ -0,0 +1,32 @@
+package com.bank.transactionservice.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import com.bank.transactionservice.model.watermark.ConsumerWatermark;
+
+import java.util.Optional;
+
+
+public interface ConsumerWatermarkRepository extends JpaRepository<ConsumerWatermark, ConsumerWatermark.Key> {
+
+    @Query("""
+        SELECT w.offset FROM ConsumerWatermark w
+        WHERE w.consumerGroup = :consumerGroup AND w.topic = :topic AND w.partition = :partition
+    """)
+    Optional<Long> findOffset(String consumerGroup, String topic, int partition);
+
+    /**
+     * Avanza la marca de agua de la partición; nunca la hace retroceder.
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO consumer_watermark (consumer_group, topic, partition, record_offset, updated_at)
+        VALUES (:consumerGroup, :topic, :partition, :offset, now())
+        ON CONFLICT (consumer_group, topic, partition) DO UPDATE
+        SET record_offset = GREATEST(consumer_watermark.record_offset, EXCLUDED.record_offset),
+            updated_at = EXCLUDED.updated_at
+    """, nativeQuery = true)
+    int advance(String consumerGroup, String topic, int partition, long offset);
+}
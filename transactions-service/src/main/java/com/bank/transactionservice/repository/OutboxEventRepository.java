@@ -1,7 +1,5 @@
 package com.bank.transactionservice.repository;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -9,16 +7,26 @@ import org.springframework.stereotype.Repository;
 import com.bank.transactionservice.model.outbox.OutboxEvent;
 import com.bank.transactionservice.model.outbox.OutboxStatus;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.UUID;
 
 @Repository
-public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, UUID> {
     List<OutboxEvent> findByStatus(OutboxStatus status);
 
-    @Query("""
-        SELECT e FROM OutboxEvent e
-        WHERE e.status = 'PENDING'
-        ORDER BY e.createdAt
-    """)
-    Page<OutboxEvent> findNextPending(Pageable pageable);
+    /**
+     * Bloquea los siguientes eventos PENDING sin lease vigente.
+     * SKIP LOCKED hace que otras instancias del relay se salten las filas ya
+     * reclamadas en lugar de esperar por ellas.
+     */
+    @Query(value = """
+        SELECT * FROM outbox_event
+        WHERE status = 'PENDING'
+          AND (locked_until IS NULL OR locked_until < :now)
+        ORDER BY created_at, id
+        LIMIT :limit
+        FOR UPDATE SKIP LOCKED
+    """, nativeQuery = true)
+    List<OutboxEvent> lockNextPending(LocalDateTime now, int limit);
 }
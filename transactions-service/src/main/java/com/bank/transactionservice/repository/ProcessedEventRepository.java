@@ -1,11 +1,50 @@
 package com.bank.transactionservice.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
 import com.bank.transactionservice.model.processedevent.ProcessedEvent;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 
 public interface ProcessedEventRepository extends JpaRepository<ProcessedEvent, UUID> {
+
+    @Query("SELECT p.eventId FROM ProcessedEvent p WHERE p.eventId IN :eventIds")
+    Set<UUID> findProcessedEventIds(Collection<UUID> eventIds);
+
+    /**
+     * Ids más recientes de una partición, del último offset hacia atrás.
+     */
+    @Query(value = """
+        SELECT event_id FROM processed_event
+        WHERE topic = :topic AND partition = :partition
+        ORDER BY record_offset DESC
+        LIMIT :limit
+    """, nativeQuery = true)
+    List<UUID> findRecentEventIds(String topic, int partition, int limit);
+
+    /**
+     * Borra, en cada topic-partition, las filas con offset inferior al máximo menos
+     * la ventana indicada y procesadas antes de la fecha de corte.
+     */
+    @Modifying
+    @Query(value = """
+        DELETE FROM processed_event p
+        USING (
+            SELECT topic, partition, max(record_offset) AS high
+            FROM processed_event
+            GROUP BY topic, partition
+        ) w
+        WHERE p.topic = w.topic
+          AND p.partition = w.partition
+          AND p.record_offset < w.high - :keepOffsets
+          AND p.processed_at < :processedBefore
+    """, nativeQuery = true)
+    int deleteBelowWatermark(long keepOffsets, LocalDateTime processedBefore);
 }
@@ -1,21 +1,92 @@
 package com.bank.transactionservice.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import com.bank.transactionservice.model.transaction.Transaction;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface TransactionRepository extends JpaRepository<Transaction, UUID> {
-    
-    List<Transaction> findByFromAccountId(UUID accountId);
 
-    List<Transaction> findByToAccountId(UUID accountId);
+    /**
+     * Columnas de TransactionView en JPQL, con las dos cuentas unidas en la misma consulta.
+     */
+    String VIEW_SELECT = """
+        SELECT t.id AS id, fa.accountNumber AS fromAccountNumber, ta.accountNumber AS toAccountNumber,
+               t.amount AS amount, t.type AS type, t.description AS description,
+               t.status AS status, t.createdAt AS createdAt
+        FROM Transaction t
+        JOIN t.fromAccount fa
+        JOIN t.toAccount ta
+        """;
 
-    default List<Transaction> findByAccountId(UUID accountId) {
-        List<Transaction> list = findByFromAccountId(accountId);
-        list.addAll(findByToAccountId(accountId));
-        return list;
-    }
-}
\ No newline at end of file
+    @Query(VIEW_SELECT)
+    List<TransactionView> findAllViews();
+
+    @Query(VIEW_SELECT + "WHERE t.id = :id")
+    Optional<TransactionView> findViewById(UUID id);
+
+    /**
+     * Columnas de TransactionView sobre la página h, ya recortada, de transacciones.
+     */
+    String HISTORY_SELECT = """
+        SELECT h.id AS "id", fa.account_number AS "fromAccountNumber", ta.account_number AS "toAccountNumber",
+               h.amount AS "amount", h.type AS "type", h.description AS "description",
+               h.status AS "status", h.created_at AS "createdAt"
+        FROM (
+        """;
+
+    String HISTORY_JOIN = """
+        ) h
+        JOIN account fa ON fa.id = h.from_account_id
+        JOIN account ta ON ta.id = h.to_account_id
+        ORDER BY h.created_at DESC, h.id DESC
+        """;
+
+    /**
+     * Primera página del historial de una cuenta, de la transacción más reciente a la más
+     * antigua. Cada rama lee como mucho limit filas de su índice; una transferencia de la
+     * cuenta a sí misma solo se cuenta en la rama de origen.
+     */
+    @Query(value = HISTORY_SELECT + """
+            SELECT * FROM (
+                (SELECT * FROM transaction
+                 WHERE from_account_id = :accountId
+                 ORDER BY created_at DESC, id DESC
+                 LIMIT :limit)
+                UNION ALL
+                (SELECT * FROM transaction
+                 WHERE to_account_id = :accountId AND from_account_id <> :accountId
+                 ORDER BY created_at DESC, id DESC
+                 LIMIT :limit)
+            ) merged
+            ORDER BY created_at DESC, id DESC
+            LIMIT :limit
+        """ + HISTORY_JOIN, nativeQuery = true)
+    List<TransactionView> findHistory(UUID accountId, int limit);
+
+    /**
+     * Página del historial de una cuenta con transacciones anteriores a (createdAt, id).
+     */
+    @Query(value = HISTORY_SELECT + """
+            SELECT * FROM (
+                (SELECT * FROM transaction
+                 WHERE from_account_id = :accountId AND (created_at, id) < (:createdAt, :id)
+                 ORDER BY created_at DESC, id DESC
+                 LIMIT :limit)
+                UNION ALL
+                (SELECT * FROM transaction
+                 WHERE to_account_id = :accountId AND from_account_id <> :accountId
+                   AND (created_at, id) < (:createdAt, :id)
+                 ORDER BY created_at DESC, id DESC
+                 LIMIT :limit)
+            ) merged
+            ORDER BY created_at DESC, id DESC
+            LIMIT :limit
+        """ + HISTORY_JOIN, nativeQuery = true)
+    List<TransactionView> findHistoryBefore(UUID accountId, LocalDateTime createdAt, UUID id, int limit);
+}
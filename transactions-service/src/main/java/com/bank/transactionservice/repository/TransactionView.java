@@ -0,0 +1,31 @@
+package com.bank.transactionservice.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import com.bank.transactionservice.model.transaction.TransactionStatus;
+import com.bank.transactionservice.model.transaction.TransactionType;
+
+/**
+ * Fila plana de una transacción con los números de sus dos cuentas, leída en la misma
+ * consulta para no inicializar las referencias perezosas a Account.
+ */
+public interface TransactionView {
+
+    UUID getId();
+
+    String getFromAccountNumber();
+
+    String getToAccountNumber();
+
+    BigDecimal getAmount();
+
+    TransactionType getType();
+
+    String getDescription();
+
+    TransactionStatus getStatus();
+
+    LocalDateTime getCreatedAt();
+}
@@ -0,0 +1,189 @@
+package com.bank.transactionservice.service;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.bank.transactionservice.model.account.Account;
+import com.bank.transactionservice.model.account.AccountStatus;
+import com.bank.transactionservice.observability.CacheResult;
+import com.bank.transactionservice.observability.EvictionCause;
+import com.bank.transactionservice.observability.MetricService;
+
+/**
+ * Copia en memoria de la réplica de cuentas, acotada por tamaño (LRU) y por antigüedad.
+ *
+ * Se indexa por número de cuenta, que es como llegan las peticiones, y por id, que es
+ * como llegan los eventos de account-service. Los consumidores la actualizan tras el
+ * commit con la misma versión que escriben en la tabla account, y solo se acepta una
+ * entrada si su versionId no es menor que el de la que ya hay: una lectura de la base de
+ * datos que llegue tarde nunca pisa un evento más reciente.
+ *
+ * Con varias instancias los listeners de cada una solo reciben los eventos de sus
+ * particiones. El resto de cambios los aplica AccountCacheRefresher (AccountReplicaLoader
+ * con el state store activo), que lee todas las particiones: account-service compara
+ * versiones de forma exacta, así que una versión antigua en caché haría que una
+ * transferencia válida volviera como INCORRECT. El ttl queda como red de seguridad.
+ */
+@Component
+public class AccountCache {
+
+    private final long ttlNanos;
+    private final Map<String, ExpiringAccount> byNumber;
+    private final Map<UUID, String> numbersById = new HashMap<>();
+    private final MetricService metricService;
+
+    public AccountCache(
+            MetricService metricService,
+            @Value("${spring.account-cache.max-size:100000}") int maxSize,
+            @Value("${spring.account-cache.ttl-ms:60000}") long ttlMs) {
+        this.ttlNanos = ttlMs * 1_000_000;
+        this.metricService = metricService;
+        this.byNumber = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ExpiringAccount> eldest) {
+                if (size() > maxSize) {
+                    numbersById.remove(eldest.getValue().account().id());
+                    metricService.accountCacheEvicted(EvictionCause.SIZE).increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+        metricService.accountCacheSize(this::size);
+    }
+
+    /**
+     * Devuelve la cuenta con el número indicado; si no está en caché (o ha caducado) la
+     * carga con el loader y la guarda.
+     */
+    public Optional<CachedAccount> get(String accountNumber, Function<String, Optional<CachedAccount>> loader) {
+        CachedAccount cached = lookup(accountNumber);
+        if (cached != null) {
+            metricService.accountCacheLookup(CacheResult.HIT).increment();
+            return Optional.of(cached);
+        }
+        metricService.accountCacheLookup(CacheResult.MISS).increment();
+        Optional<CachedAccount> loaded = loader.apply(accountNumber);
+        loaded.ifPresent(this::put);
+        return loaded;
+    }
+
+    /**
+     * Igual que {@link #get} para varias cuentas a la vez: las que no están en caché se
+     * cargan con una sola llamada al loader. Las cuentas que no existen no aparecen en el
+     * mapa devuelto.
+     */
+    public Map<String, CachedAccount> getAll(Collection<String> accountNumbers,
+                                             Function<Set<String>, Map<String, CachedAccount>> loader) {
+        Map<String, CachedAccount> found = new HashMap<>();
+        Set<String> missing = new LinkedHashSet<>();
+        for (String accountNumber : accountNumbers) {
+            CachedAccount cached = lookup(accountNumber);
+            if (cached != null) {
+                metricService.accountCacheLookup(CacheResult.HIT).increment();
+                found.put(accountNumber, cached);
+            } else if (missing.add(accountNumber)) {
+                metricService.accountCacheLookup(CacheResult.MISS).increment();
+            }
+        }
+        if (!missing.isEmpty()) {
+            Map<String, CachedAccount> loaded = loader.apply(missing);
+            loaded.values().forEach(this::put);
+            found.putAll(loaded);
+        }
+        return found;
+    }
+
+    /**
+     * Guarda el estado de la cuenta cuando la transacción actual confirma.
+     */
+    public void putAfterCommit(Account account) {
+        CachedAccount snapshot = CachedAccount.of(account);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            put(snapshot);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                put(snapshot);
+            }
+        });
+    }
+
+    synchronized void put(CachedAccount account) {
+        String previousNumber = numbersById.get(account.id());
+        if (previousNumber != null) {
+            ExpiringAccount previous = byNumber.get(previousNumber);
+            if (previous != null && previous.account().versionId() > account.versionId()) {
+                return;
+            }
+            if (!previousNumber.equals(account.accountNumber())) {
+                byNumber.remove(previousNumber);
+            }
+        }
+        byNumber.put(account.accountNumber(), new ExpiringAccount(account, System.nanoTime() + ttlNanos));
+        numbersById.put(account.id(), account.accountNumber());
+    }
+
+    /**
+     * Actualiza la cuenta solo si ya está en caché, con la misma regla de versiones que
+     * {@link #put}. Así quien lee todos los eventos no llena la caché de cuentas que nadie pide.
+     */
+    public synchronized void refresh(CachedAccount account) {
+        if (numbersById.containsKey(account.id())) {
+            put(account);
+        }
+    }
+
+    /**
+     * Descarta todas las entradas.
+     */
+    public synchronized void clear() {
+        byNumber.clear();
+        numbersById.clear();
+    }
+
+    synchronized int size() {
+        return byNumber.size();
+    }
+
+    private synchronized CachedAccount lookup(String accountNumber) {
+        ExpiringAccount entry = byNumber.get(accountNumber);
+        if (entry == null) {
+            return null;
+        }
+        if (System.nanoTime() - entry.expiresAt() > 0) {
+            byNumber.remove(accountNumber);
+            numbersById.remove(entry.account().id());
+            metricService.accountCacheEvicted(EvictionCause.EXPIRED).increment();
+            return null;
+        }
+        return entry.account();
+    }
+
+    private record ExpiringAccount(CachedAccount account, long expiresAt) {}
+
+    /**
+     * Datos de la cuenta que necesita una transacción: estado para validarla y versión
+     * que se envía a account-service.
+     */
+    public record CachedAccount(UUID id, String accountNumber, AccountStatus status, long versionId) {
+
+        static CachedAccount of(Account account) {
+            return new CachedAccount(account.getId(), account.getAccountNumber(), account.getStatus(), account.getVersionId());
+        }
+    }
+}
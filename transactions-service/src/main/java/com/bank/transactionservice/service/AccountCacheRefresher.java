@@ -0,0 +1,173 @@
+package com.bank.transactionservice.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.WakeupException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.stereotype.Component;
+
+import com.bank.transactionservice.event.consumer.AccountProcessedEvent;
+import com.bank.transactionservice.kafka.KafkaTopics;
+import com.bank.transactionservice.service.AccountCache.CachedAccount;
+import com.bank.transactionservice.service.replica.AccountStateStore;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Mantiene AccountCache coherente entre instancias.
+ *
+ * Los listeners de cuentas solo reciben las particiones que el grupo les asigna, así
+ * que sin esto cada instancia vería únicamente los cambios de sus particiones y
+ * serviría versiones antiguas del resto. Este consumidor se asigna todas las
+ * particiones de account.created y account.updated, fuera del grupo y sin confirmar
+ * offsets, y actualiza las entradas que ya están en caché.
+ *
+ * Arranca en el offset confirmado por el grupo de los listeners: cualquier evento que
+ * aún no esté en la tabla account se ve aquí, así que una entrada cargada de la tabla
+ * nunca se queda atrás. Si el consumidor falla se vacía la caché y se vuelve a empezar.
+ *
+ * Con el state store activo no arranca: AccountReplicaLoader ya lee los mismos topics y
+ * refresca la caché al aplicar cada evento.
+ */
+@Slf4j
+@Component
+public class AccountCacheRefresher implements SmartLifecycle {
+
+    private static final Duration POLL_TIMEOUT = Duration.ofMillis(500);
+    private static final long RETRY_BACKOFF_MS = 5000;
+    private static final List<String> TOPICS = List.of(KafkaTopics.ACCOUNT_CREATED, KafkaTopics.ACCOUNT_UPDATED);
+
+    /** Solo lee: nunca confirma offsets en nombre del grupo de los listeners. */
+    private static final Properties CONSUMER_OVERRIDES = new Properties();
+
+    static {
+        CONSUMER_OVERRIDES.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+    }
+
+    private final AccountCache accountCache;
+    private final AccountStateStore accountStateStore;
+    private final ConsumerFactory<String, AccountProcessedEvent> consumerFactory;
+    private final String listenerGroup;
+    private final boolean enabled;
+
+    private volatile boolean running;
+    private volatile Consumer<String, AccountProcessedEvent> consumer;
+    private Thread refresher;
+
+    public AccountCacheRefresher(
+            AccountCache accountCache,
+            AccountStateStore accountStateStore,
+            ConsumerFactory<String, AccountProcessedEvent> accountProcessedEventConsumerFactory,
+            @Value("${spring.kafka.consumer.group-id}") String listenerGroup,
+            @Value("${spring.account-cache.refresher.enabled:true}") boolean enabled) {
+        this.accountCache = accountCache;
+        this.accountStateStore = accountStateStore;
+        this.consumerFactory = accountProcessedEventConsumerFactory;
+        this.listenerGroup = listenerGroup;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        refresher = new Thread(this::run, "account-cache-refresher");
+        refresher.setDaemon(true);
+        refresher.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (consumer != null) {
+            consumer.wakeup();
+        }
+        try {
+            refresher.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return enabled && !accountStateStore.isEnabled();
+    }
+
+    private void run() {
+        while (running) {
+            try (Consumer<String, AccountProcessedEvent> refreshConsumer =
+                     consumerFactory.createConsumer(listenerGroup, "account-cache-refresher", null, CONSUMER_OVERRIDES)) {
+                consumer = refreshConsumer;
+                assignAll(refreshConsumer);
+                log.info("[AccountCacheRefresher] ✅ Refreshing account cache from {}", TOPICS);
+                while (running) {
+                    for (ConsumerRecord<String, AccountProcessedEvent> record : refreshConsumer.poll(POLL_TIMEOUT)) {
+                        AccountProcessedEvent event = record.value();
+                        if (event != null) {
+                            accountCache.refresh(new CachedAccount(
+                                event.accountId(), event.accountNumber(), event.status(), event.version()));
+                        }
+                    }
+                }
+            } catch (WakeupException e) {
+                log.debug("[AccountCacheRefresher] Refresher woken up for shutdown");
+            } catch (RuntimeException e) {
+                // Sin refresco las entradas podrían quedarse atrás: se descartan y se vuelven a leer
+                accountCache.clear();
+                log.error("[AccountCacheRefresher] ❌ Account cache refresher failed, cache cleared - Error: {}", e.getMessage(), e);
+                pause();
+            }
+        }
+    }
+
+    /**
+     * Se asigna todas las particiones y se posiciona en el offset confirmado por el grupo
+     * de los listeners, o al principio si el grupo aún no ha confirmado nada.
+     */
+    private void assignAll(Consumer<String, AccountProcessedEvent> refreshConsumer) {
+        List<TopicPartition> partitions = new ArrayList<>();
+        for (String topic : TOPICS) {
+            for (PartitionInfo partition : refreshConsumer.partitionsFor(topic)) {
+                partitions.add(new TopicPartition(topic, partition.partition()));
+            }
+        }
+        refreshConsumer.assign(partitions);
+        Map<TopicPartition, OffsetAndMetadata> committed = refreshConsumer.committed(new HashSet<>(partitions));
+        for (TopicPartition partition : partitions) {
+            OffsetAndMetadata offset = committed.get(partition);
+            if (offset == null) {
+                refreshConsumer.seekToBeginning(List.of(partition));
+            } else {
+                refreshConsumer.seek(partition, offset.offset());
+            }
+        }
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(RETRY_BACKOFF_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
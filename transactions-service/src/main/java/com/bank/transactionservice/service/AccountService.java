@@ -5,26 +5,101 @@ import org.springframework.stereotype.Service;
 
 import com.bank.transactionservice.event.consumer.AccountProcessedEvent;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
 import com.bank.transactionservice.exception.AccountNotFound;
 import com.bank.transactionservice.model.account.Account;
 import com.bank.transactionservice.model.account.AccountStatus;
 import com.bank.transactionservice.repository.AccountRepository;
+import com.bank.transactionservice.service.AccountCache.CachedAccount;
+import com.bank.transactionservice.service.replica.AccountStateStore;
 
 @Service
 @RequiredArgsConstructor
 public class AccountService {
 
     private final AccountRepository accountRepository;
+    private final AccountCache accountCache;
+    private final AccountStateStore accountStateStore;
+
+    /**
+     * Estado de la cuenta. Con el state store al día se lee de él, que recibe todas las
+     * particiones de cuentas y nunca va por detrás de la caché; si no, de la caché local,
+     * y solo se lee la réplica en los fallos.
+     */
+    public CachedAccount getByAccountNumber(String accountNumber) {
+        Optional<CachedAccount> account = accountStateStore.isReady()
+            ? loadAccount(accountNumber)
+            : accountCache.get(accountNumber, this::loadAccount);
+        return account.orElseThrow(() -> new AccountNotFound("Account with number " + accountNumber + " not found"));
+    }
+
+    /**
+     * Estado de varias cuentas por número; las que faltan en la caché se leen juntas.
+     * Igual que {@link #getByAccountNumber}, con el state store al día no se usa la caché.
+     * Las cuentas que no existen no aparecen en el mapa devuelto.
+     */
+    public Map<String, CachedAccount> getByAccountNumbers(Collection<String> accountNumbers) {
+        if (accountStateStore.isReady()) {
+            return loadAccounts(new HashSet<>(accountNumbers));
+        }
+        return accountCache.getAll(accountNumbers, this::loadAccounts);
+    }
+
+    /**
+     * Igual que {@link #loadAccount} para varias cuentas: lo que no tenga el state store
+     * se lee de la tabla account con una sola consulta IN.
+     */
+    private Map<String, CachedAccount> loadAccounts(Set<String> accountNumbers) {
+        Map<String, CachedAccount> loaded = new HashMap<>();
+        Set<String> missing = new HashSet<>(accountNumbers);
+        if (accountStateStore.isReady()) {
+            for (String accountNumber : accountNumbers) {
+                accountStateStore.findByAccountNumber(accountNumber).ifPresent(account -> {
+                    loaded.put(accountNumber, account);
+                    missing.remove(accountNumber);
+                });
+            }
+        }
+        if (!missing.isEmpty()) {
+            for (Account account : accountRepository.findByAccountNumberIn(missing)) {
+                loaded.put(account.getAccountNumber(), CachedAccount.of(account));
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Lee la cuenta del state store local si está al día y, si no la tiene, de la tabla account.
+     */
+    private Optional<CachedAccount> loadAccount(String accountNumber) {
+        if (accountStateStore.isReady()) {
+            Optional<CachedAccount> replicated = accountStateStore.findByAccountNumber(accountNumber);
+            if (replicated.isPresent()) {
+                return replicated;
+            }
+        }
+        return accountRepository.findByAccountNumber(accountNumber).map(CachedAccount::of);
+    }
 
-    public Account getByAccountNumber(String accountNumber) {
-        return accountRepository.findByAccountNumber(accountNumber)
-                .orElseThrow(() -> new AccountNotFound("Account with number " + accountNumber + " not found"));
+    /**
+     * Referencia a la cuenta para asociarla a una transacción sin cargarla.
+     */
+    public Account getReference(UUID accountId) {
+        return accountRepository.getReferenceById(accountId);
     }
 
     public Account createAccountFromConsumer(AccountProcessedEvent accountProcessedEvent) {
         Account account = newAccount(accountProcessedEvent);
-        return accountRepository.save(account);
+        Account saved = accountRepository.save(account);
+        accountCache.putAfterCommit(saved);
+        return saved;
     }
 
     public Account updateAccountFromConsumer(AccountProcessedEvent accountProcessedEvent) {
@@ -39,7 +114,9 @@ public class AccountService {
         existingAccount.setAccountNumber(accountProcessedEvent.accountNumber().toString());
         existingAccount.setStatus(AccountStatus.valueOf(accountProcessedEvent.status().toString()));
         existingAccount.setVersionId(accountProcessedEvent.version());
-        return accountRepository.save(existingAccount);
+        Account saved = accountRepository.save(existingAccount);
+        accountCache.putAfterCommit(saved);
+        return saved;
     }
 
     public Account newAccount(AccountProcessedEvent accountProcessedEvent) {
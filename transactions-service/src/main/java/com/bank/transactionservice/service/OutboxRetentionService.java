@@ -0,0 +1,275 @@
+package com.bank.transactionservice.service;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bank.transactionservice.observability.MetricService;
+
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Retención de la tabla outbox_event, particionada por día sobre created_at.
+ *
+ * En cada ejecución crea por adelantado las particiones de los próximos días y elimina
+ * las que superan la retención: antes de borrarlas copia los eventos FAILED a
+ * outbox_event_failed. Una partición con eventos PENDING nunca se elimina.
+ * La partición DEFAULT se purga por lotes, ya que no se puede eliminar entera.
+ *
+ * Solo una instancia ejecuta la retención a la vez gracias a un advisory lock de sesión,
+ * tomado en una conexión dedicada en autocommit: cada sentencia es su propia transacción
+ * corta y ninguna partición retiene bloqueos mientras se procesa la siguiente.
+ *
+ * Para cada partición caducada primero se archivan los FAILED y después se desacopla y
+ * se elimina. Con partición DEFAULT adjunta Postgres no admite DETACH ... CONCURRENTLY,
+ * así que en ese caso se usa un DETACH normal limitado por lock_timeout: el ACCESS
+ * EXCLUSIVE sobre outbox_event dura lo que tarda el cambio de catálogo, y si no se
+ * consigue a tiempo la partición se deja para la siguiente ejecución.
+ *
+ * La clave primaria es (id, created_at), así que id no es único en outbox_event; el
+ * archivo usa ON CONFLICT (id) sobre outbox_event_failed, donde sí lo es.
+ */
+@Slf4j
+@Service
+public class OutboxRetentionService {
+
+    private static final String PARENT_TABLE = "outbox_event";
+    private static final String DEFAULT_PARTITION = "outbox_event_default";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final long RETENTION_LOCK_KEY = 0x6f7574626f78L; // "outbox"
+
+    private static final String ARCHIVE_COLUMNS =
+        "id, aggregate_type, aggregate_id, type, topic, partition_key, payload, attempts, created_at, archived_at";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MetricService metricService;
+    private final int retentionDays;
+    private final int premakeDays;
+    private final int purgeBatchSize;
+    private final long detachLockTimeoutMs;
+
+    public OutboxRetentionService(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            MetricService metricService,
+            @Value("${spring.outbox.retention.days:7}") int retentionDays,
+            @Value("${spring.outbox.retention.premake-days:2}") int premakeDays,
+            @Value("${spring.outbox.retention.purge-batch-size:5000}") int purgeBatchSize,
+            @Value("${spring.outbox.retention.detach-lock-timeout-ms:2000}") long detachLockTimeoutMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.metricService = metricService;
+        this.retentionDays = retentionDays;
+        this.premakeDays = premakeDays;
+        this.purgeBatchSize = purgeBatchSize;
+        this.detachLockTimeoutMs = detachLockTimeoutMs;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        runRetention();
+    }
+
+    /**
+     * Ejecuta el ciclo completo de retención.
+     */
+    @Scheduled(cron = "${spring.outbox.retention.cron:0 15 * * * *}")
+    public void runRetention() {
+        Timer.Sample sample = Timer.start();
+        try {
+            Boolean ran = jdbcTemplate.execute((ConnectionCallback<Boolean>) this::runWithSessionLock);
+            if (!Boolean.TRUE.equals(ran)) {
+                log.debug("[OutboxRetentionService] Retention already running on another instance");
+            }
+        } catch (RuntimeException e) {
+            log.error("[OutboxRetentionService] ❌ Retention run failed - Error: {}", e.getMessage(), e);
+        } finally {
+            sample.stop(metricService.outboxRetentionTimer());
+        }
+    }
+
+    /**
+     * Ejecuta la retención sobre una única conexión en autocommit que mantiene el
+     * advisory lock de sesión hasta el final, liberándolo aunque algo falle.
+     */
+    private boolean runWithSessionLock(Connection connection) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(true);
+        JdbcTemplate session = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+        try {
+            if (!Boolean.TRUE.equals(session.queryForObject(
+                    "SELECT pg_try_advisory_lock(?)", Boolean.class, RETENTION_LOCK_KEY))) {
+                return false;
+            }
+            try {
+                LocalDate cutoff = LocalDate.now().minusDays(retentionDays);
+                createPartitions(session, LocalDate.now());
+                dropExpiredPartitions(session, cutoff);
+                purgeDefaultPartition(cutoff);
+                metricService.outboxPartitions().set(listPartitions(session).size());
+            } finally {
+                session.queryForObject("SELECT pg_advisory_unlock(?)", Boolean.class, RETENTION_LOCK_KEY);
+            }
+            return true;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private void createPartitions(JdbcTemplate session, LocalDate today) {
+        for (int i = 0; i <= premakeDays; i++) {
+            LocalDate day = today.plusDays(i);
+            session.execute("CREATE TABLE IF NOT EXISTS " + partitionName(day)
+                + " PARTITION OF " + PARENT_TABLE
+                + " FOR VALUES FROM ('" + day + "') TO ('" + day.plusDays(1) + "')");
+        }
+    }
+
+    private void dropExpiredPartitions(JdbcTemplate session, LocalDate cutoff) {
+        boolean concurrently = !hasDefaultPartition(session);
+        for (String partition : listPartitions(session)) {
+            LocalDate day = LocalDate.parse(partition.substring(PARENT_TABLE.length() + 1), PARTITION_SUFFIX);
+            if (!day.isBefore(cutoff)) {
+                continue;
+            }
+            try {
+                dropPartition(session, partition, concurrently);
+            } catch (DataAccessException e) {
+                // Un lock_timeout o un fallo en una partición no impide seguir con las demás
+                log.warn("[OutboxRetentionService] Partition {} not dropped, retrying next run - Error: {}",
+                    partition, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Archiva los FAILED, desacopla y elimina una partición. Cada paso es una sentencia
+     * en autocommit; si la ejecución se corta a medias, la siguiente repite el archivo
+     * (ON CONFLICT DO NOTHING) y continúa desde el punto en que quedó.
+     */
+    private void dropPartition(JdbcTemplate session, String partition, boolean concurrently) {
+        long[] counts = session.queryForObject(
+            "SELECT count(*) FILTER (WHERE status = 'PENDING'), count(*) FILTER (WHERE status = 'SENT')"
+            + " FROM " + partition,
+            (rs, rowNum) -> new long[] { rs.getLong(1), rs.getLong(2) });
+        if (counts[0] > 0) {
+            log.warn("[OutboxRetentionService] Partition {} still has {} PENDING events, keeping it", partition, counts[0]);
+            return;
+        }
+
+        int archived = session.update(
+            "INSERT INTO outbox_event_failed (" + ARCHIVE_COLUMNS + ")"
+            + " SELECT id, aggregate_type, aggregate_id, type, topic, partition_key, payload, attempts, created_at, now()"
+            + " FROM " + partition + " WHERE status = 'FAILED'"
+            + " ON CONFLICT (id) DO NOTHING");
+
+        session.execute("SET lock_timeout = " + detachLockTimeoutMs);
+        try {
+            if (!concurrently) {
+                session.execute("ALTER TABLE " + PARENT_TABLE + " DETACH PARTITION " + partition);
+            } else if (isDetachPending(session, partition)) {
+                // Un DETACH CONCURRENTLY interrumpido deja la partición a medio desacoplar
+                session.execute("ALTER TABLE " + PARENT_TABLE + " DETACH PARTITION " + partition + " FINALIZE");
+            } else {
+                session.execute("ALTER TABLE " + PARENT_TABLE + " DETACH PARTITION " + partition + " CONCURRENTLY");
+            }
+        } finally {
+            session.execute("RESET lock_timeout");
+        }
+        session.execute("DROP TABLE " + partition);
+
+        metricService.outboxRetentionRows("purged").increment(counts[1]);
+        metricService.outboxRetentionRows("archived").increment(archived);
+        metricService.outboxPartitionsDropped().increment();
+        log.info("[OutboxRetentionService] ✅ Partition dropped - Partition: {}, Archived FAILED: {}", partition, archived);
+    }
+
+    /**
+     * Purga por lotes las filas antiguas de la partición DEFAULT (filas previas al
+     * particionado o creadas cuando faltaba la partición del día). Cada lote es una
+     * transacción corta en su propia conexión del pool; el advisory lock lo sigue
+     * reteniendo la conexión de la retención.
+     */
+    private void purgeDefaultPartition(LocalDate cutoff) {
+        int deleted;
+        do {
+            deleted = transactionTemplate.execute(status -> {
+                List<String> statuses = jdbcTemplate.queryForList("""
+                    WITH removed AS (
+                        DELETE FROM %s
+                        WHERE ctid IN (
+                            SELECT ctid FROM %s
+                            WHERE status IN ('SENT', 'FAILED') AND created_at < ?
+                            LIMIT ?
+                        )
+                        RETURNING *
+                    ), archived AS (
+                        INSERT INTO outbox_event_failed (%s)
+                        SELECT id, aggregate_type, aggregate_id, type, topic, partition_key, payload, attempts, created_at, now()
+                        FROM removed WHERE status = 'FAILED'
+                        ON CONFLICT (id) DO NOTHING
+                    )
+                    SELECT status FROM removed
+                    """.formatted(DEFAULT_PARTITION, DEFAULT_PARTITION, ARCHIVE_COLUMNS),
+                    String.class, cutoff.atStartOfDay(), purgeBatchSize);
+                long failed = statuses.stream().filter("FAILED"::equals).count();
+                metricService.outboxRetentionRows("archived").increment(failed);
+                metricService.outboxRetentionRows("purged").increment(statuses.size() - failed);
+                return statuses.size();
+            });
+            if (deleted > 0) {
+                log.info("[OutboxRetentionService] Purged {} rows from {}", deleted, DEFAULT_PARTITION);
+            }
+        } while (deleted == purgeBatchSize);
+    }
+
+    private List<String> listPartitions(JdbcTemplate session) {
+        return session.queryForList("""
+            SELECT c.relname
+            FROM pg_inherits i
+            JOIN pg_class c ON c.oid = i.inhrelid
+            JOIN pg_class p ON p.oid = i.inhparent
+            WHERE p.relname = ? AND c.relname ~ '^outbox_event_[0-9]{8}$'
+            ORDER BY c.relname
+            """, String.class, PARENT_TABLE);
+    }
+
+    private static boolean hasDefaultPartition(JdbcTemplate session) {
+        return Boolean.TRUE.equals(session.queryForObject("""
+            SELECT EXISTS (
+                SELECT 1 FROM pg_partitioned_table pt
+                JOIN pg_class p ON p.oid = pt.partrelid
+                WHERE p.relname = ? AND pt.partdefid <> 0
+            )
+            """, Boolean.class, PARENT_TABLE));
+    }
+
+    private static boolean isDetachPending(JdbcTemplate session, String partition) {
+        return Boolean.TRUE.equals(session.queryForObject("""
+            SELECT coalesce(bool_or(i.inhdetachpending), false)
+            FROM pg_inherits i
+            JOIN pg_class c ON c.oid = i.inhrelid
+            WHERE c.relname = ?
+            """, Boolean.class, partition));
+    }
+
+    private static String partitionName(LocalDate day) {
+        return PARENT_TABLE + "_" + day.format(PARTITION_SUFFIX);
+    }
+}
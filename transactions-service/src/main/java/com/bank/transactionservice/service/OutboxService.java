@@ -3,15 +3,23 @@ package com.bank.transactionservice.service;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.bank.transactionservice.model.Ids;
 import com.bank.transactionservice.model.outbox.OutboxEvent;
+import com.bank.transactionservice.model.outbox.OutboxEventSaved;
 import com.bank.transactionservice.model.transaction.Transaction;
 import com.bank.transactionservice.repository.OutboxEventRepository;
 import com.bank.transactionservice.event.producer.TransactionRequestedMessage;
 import com.bank.transactionservice.exception.EventSerializationException;
 import com.bank.transactionservice.kafka.KafkaTopics;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -25,6 +33,7 @@ public class OutboxService {
 
     private final OutboxEventRepository outboxEventRepository;
     private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher applicationEventPublisher;
 
     /**
      * Guarda un evento en la tabla outbox_event para posterior publicación a Kafka.
@@ -37,7 +46,17 @@ public class OutboxService {
      * @throws EventSerializationException si hay error en la serialización
      */
     public void saveOutboxEvent(String aggregateType, UUID aggregateId, String eventType, String topic, Object payload) {
-        UUID transactionId = UUID.randomUUID();
+        saveOutboxEvent(aggregateType, aggregateId, eventType, topic, aggregateId.toString(), payload);
+    }
+
+    /**
+     * Igual que {@link #saveOutboxEvent(String, UUID, String, String, Object)} pero indicando
+     * la clave con la que se publicará el evento en Kafka.
+     *
+     * @param partitionKey  clave del registro; los eventos con la misma clave van a la misma partición
+     */
+    public void saveOutboxEvent(String aggregateType, UUID aggregateId, String eventType, String topic, String partitionKey, Object payload) {
+        UUID transactionId = Ids.next();
         try {
             log.debug("[OutboxEventService] [TxId: {}] Serializing payload for event - AggregateType: {}, AggregateId: {}, EventType: {}", 
                 transactionId, aggregateType, aggregateId, eventType);
@@ -46,14 +65,18 @@ public class OutboxService {
             String payloadJson = objectMapper.writeValueAsString(payload);
 
             OutboxEvent outboxEvent = OutboxEvent.builder()
+                    .id(Ids.next())
                     .aggregateType(aggregateType)
                     .aggregateId(aggregateId)
                     .type(eventType)
                     .topic(topic)
+                    .partitionKey(partitionKey)
                     .payload(payloadJson)
                     .build();
 
             outboxEventRepository.save(outboxEvent);
+            // El relay lo recibe tras el commit de la transacción actual
+            applicationEventPublisher.publishEvent(new OutboxEventSaved(outboxEvent.getId(), topic));
             
             log.info("[OutboxEventService] [TxId: {}] ✅ Event saved to outbox - EventType: {}, Topic: {}, AggregateId: {}, EventId: {}", 
                 transactionId, eventType, topic, aggregateId, outboxEvent.getId());
@@ -65,22 +88,83 @@ public class OutboxService {
         }
     }
 
+    /**
+     * Reclama un lote de eventos pendientes para la instancia indicada.
+     * Las filas se bloquean con SKIP LOCKED solo durante esta transacción; a partir de
+     * ahí las protege el lease, que caduca solo si la instancia se cae sin publicarlas.
+     *
+     * @param owner     identificador de la instancia del relay
+     * @param batchSize número máximo de eventos a reclamar
+     * @param lease     duración del lease
+     * @return eventos reclamados, en orden de creación
+     */
+    @Transactional
+    public List<OutboxEvent> claimPendingEvents(String owner, int batchSize, Duration lease) {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> events = outboxEventRepository.lockNextPending(now, batchSize);
+        LocalDateTime until = now.plus(lease);
+        events.forEach(event -> event.lease(owner, until));
+        return events;
+    }
+
     public void saveTransaction(Transaction transaction) {
-        TransactionRequestedMessage message = TransactionRequestedMessage.builder()
-            .transactionId(transaction.getId())
-            .fromAccountId(transaction.getFromAccount().getId())
-            .fromAccountVersionId(transaction.getFromAccount().getVersionId())
-            .toAccountId(transaction.getToAccount().getId())
-            .toAccountVersionId(transaction.getToAccount().getVersionId())
-            .amount(transaction.getAmount())
-            .build();
         saveOutboxEvent(
             "Transaction",
             transaction.getId(),
             "TransactionRequestedMessage",
             KafkaTopics.TRANSACTION_REQUESTED,
-            message
+            transaction.getFromAccount().getId().toString(),
+            toRequestedMessage(transaction)
         );
 
     }
+
+    /**
+     * Guarda los eventos TransactionRequestedMessage de un lote de transacciones con un
+     * único saveAll, que Hibernate envía en lotes JDBC al hacer flush, y avisa al relay
+     * una sola vez.
+     *
+     * @param partitionKeys clave con la que se publica cada transacción, en el mismo orden
+     * @throws EventSerializationException si hay error en la serialización
+     */
+    public void saveTransactions(List<Transaction> transactions, List<String> partitionKeys) {
+        if (transactions.isEmpty()) {
+            return;
+        }
+        List<OutboxEvent> events = new ArrayList<>(transactions.size());
+        for (int i = 0; i < transactions.size(); i++) {
+            Transaction transaction = transactions.get(i);
+            try {
+                events.add(OutboxEvent.builder()
+                        .id(Ids.next())
+                        .aggregateType("Transaction")
+                        .aggregateId(transaction.getId())
+                        .type("TransactionRequestedMessage")
+                        .topic(KafkaTopics.TRANSACTION_REQUESTED)
+                        .partitionKey(partitionKeys.get(i))
+                        .payload(objectMapper.writeValueAsString(toRequestedMessage(transaction)))
+                        .build());
+            } catch (Exception e) {
+                throw new EventSerializationException(
+                    "Failed to save outbox event for TransactionRequestedMessage with aggregateId " + transaction.getId(), e);
+            }
+        }
+        outboxEventRepository.saveAll(events);
+        // Un solo aviso basta: el relay reclama todo lo pendiente, no solo este evento
+        applicationEventPublisher.publishEvent(
+            new OutboxEventSaved(events.get(events.size() - 1).getId(), KafkaTopics.TRANSACTION_REQUESTED));
+        log.info("[OutboxEventService] ✅ Events saved to outbox - EventType: TransactionRequestedMessage, Count: {}",
+            events.size());
+    }
+
+    private static TransactionRequestedMessage toRequestedMessage(Transaction transaction) {
+        return TransactionRequestedMessage.builder()
+            .transactionId(transaction.getId())
+            .fromAccountId(transaction.getFromAccount().getId())
+            .fromAccountVersionId(transaction.getFromAccountVersionId())
+            .toAccountId(transaction.getToAccount().getId())
+            .toAccountVersionId(transaction.getToAccountVersionId())
+            .amount(transaction.getAmount())
+            .build();
+    }
 }
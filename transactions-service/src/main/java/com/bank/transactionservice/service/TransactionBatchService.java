@@ -0,0 +1,278 @@
+package com.bank.transactionservice.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bank.transactionservice.dto.request.TransactionRequestDTO;
+import com.bank.transactionservice.model.Ids;
+import com.bank.transactionservice.model.account.AccountStatus;
+import com.bank.transactionservice.model.transaction.Transaction;
+import com.bank.transactionservice.model.transaction.TransactionStatus;
+import com.bank.transactionservice.repository.TransactionRepository;
+import com.bank.transactionservice.service.AccountCache.CachedAccount;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Alta de transferencias en lote, para los procesos de nóminas y liquidaciones.
+ *
+ * Las peticiones se consumen por bloques de chunk-size. En cada bloque se validan todas,
+ * se resuelven sus cuentas distintas con una sola lectura (caché y después una consulta
+ * IN) y las transacciones válidas se guardan junto con sus eventos del outbox en una
+ * única transacción de base de datos, en lotes JDBC. Una petición inválida solo se
+ * rechaza a sí misma; un fallo al guardar rechaza las del bloque, no las de bloques ya
+ * confirmados.
+ *
+ * Una cuenta puede aparecer en muchas transferencias del mismo lote, como la cuenta
+ * pagadora de una nómina. account-service compara la versión de cada cuenta de forma
+ * exacta y cada transferencia aplicada la incrementa en uno, así que la k-ésima
+ * transferencia aceptada del lote sobre una cuenta lleva como versión esperada la de la
+ * caché más k. Para que account-service las aplique en ese orden, todas las transferencias
+ * del lote que comparten alguna cuenta se publican con la misma clave de partición: la
+ * cuenta origen de la primera de ellas. Si una petición une dos cuentas que ya van con
+ * claves distintas, se rechaza indicando las peticiones que las usaron.
+ *
+ * Como la versión solo avanza cuando la transferencia se aplica, si una transferencia del
+ * lote termina como INCORRECT (por ejemplo, por falta de fondos) las siguientes sobre sus
+ * cuentas llevarán una versión que ya no corresponde y también terminarán como INCORRECT.
+ */
+@Slf4j
+@Service
+public class TransactionBatchService {
+
+    private static final String MALFORMED_REQUEST = "Malformed transaction request";
+
+    private final AccountService accountService;
+    private final TransactionRepository transactionRepository;
+    private final OutboxService outboxService;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public TransactionBatchService(
+            AccountService accountService,
+            TransactionRepository transactionRepository,
+            OutboxService outboxService,
+            Validator validator,
+            PlatformTransactionManager transactionManager,
+            @Value("${spring.transactions.batch.chunk-size:500}") int chunkSize) {
+        this.accountService = accountService;
+        this.transactionRepository = transactionRepository;
+        this.outboxService = outboxService;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Crea una transacción por petición y devuelve un resultado por petición, en el mismo
+     * orden. Una petición null representa una línea que no se pudo leer y se rechaza.
+     */
+    public List<BatchItemResult> createTransactions(Iterator<TransactionRequestDTO> requests) {
+        UUID batchId = Ids.next();
+        List<BatchItemResult> results = new ArrayList<>();
+        List<TransactionRequestDTO> chunk = new ArrayList<>(chunkSize);
+        Map<UUID, AccountClaim> claims = new HashMap<>();
+        while (requests.hasNext()) {
+            chunk.add(requests.next());
+            if (chunk.size() == chunkSize) {
+                results.addAll(createChunk(batchId, chunk, results.size(), claims));
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            results.addAll(createChunk(batchId, chunk, results.size(), claims));
+        }
+        long accepted = results.stream().filter(BatchItemResult::accepted).count();
+        log.info("[TransactionBatchService] [TxId: {}] ✅ Batch processed - Requests: {}, Accepted: {}, Rejected: {}",
+            batchId, results.size(), accepted, results.size() - accepted);
+        return results;
+    }
+
+    /**
+     * @param claims transferencias aceptadas hasta ahora en el lote por cada cuenta; solo se
+     *               actualiza si el bloque se confirma
+     */
+    private List<BatchItemResult> createChunk(UUID batchId, List<TransactionRequestDTO> chunk, int firstIndex,
+                                              Map<UUID, AccountClaim> claims) {
+        BatchItemResult[] results = new BatchItemResult[chunk.size()];
+
+        Set<String> accountNumbers = new HashSet<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            String error = validate(chunk.get(i));
+            if (error != null) {
+                results[i] = BatchItemResult.rejected(firstIndex + i, error);
+            } else {
+                accountNumbers.add(chunk.get(i).getFromAccountNumber());
+                accountNumbers.add(chunk.get(i).getToAccountNumber());
+            }
+        }
+
+        List<Transaction> transactions = new ArrayList<>(chunk.size());
+        List<String> partitionKeys = new ArrayList<>(chunk.size());
+        List<Integer> positions = new ArrayList<>(chunk.size());
+        Map<UUID, AccountClaim> chunkClaims = new HashMap<>(claims);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Map<String, CachedAccount> accounts = accountService.getByAccountNumbers(accountNumbers);
+                for (int i = 0; i < chunk.size(); i++) {
+                    if (results[i] != null) {
+                        continue;
+                    }
+                    TransactionRequestDTO request = chunk.get(i);
+                    CachedAccount from = accounts.get(request.getFromAccountNumber());
+                    CachedAccount to = accounts.get(request.getToAccountNumber());
+                    String error = validateAccounts(request, from, to);
+                    if (error == null) {
+                        error = validateOrdering(from, to, chunkClaims);
+                    }
+                    if (error != null) {
+                        results[i] = BatchItemResult.rejected(firstIndex + i, error);
+                        continue;
+                    }
+                    AccountClaim fromClaim = chunkClaims.get(from.id());
+                    AccountClaim toClaim = chunkClaims.get(to.id());
+                    UUID partitionAccount = fromClaim != null ? fromClaim.partitionAccount()
+                        : toClaim != null ? toClaim.partitionAccount() : from.id();
+                    transactions.add(newTransaction(from, transfers(fromClaim), to, transfers(toClaim), request));
+                    partitionKeys.add(partitionAccount.toString());
+                    positions.add(i);
+                    chunkClaims.put(from.id(), new AccountClaim(transfers(fromClaim) + 1, partitionAccount, firstIndex + i));
+                    chunkClaims.put(to.id(), new AccountClaim(transfers(toClaim) + 1, partitionAccount, firstIndex + i));
+                }
+                transactionRepository.saveAll(transactions);
+                outboxService.saveTransactions(transactions, partitionKeys);
+            });
+            claims.putAll(chunkClaims);
+            for (int j = 0; j < transactions.size(); j++) {
+                int i = positions.get(j);
+                results[i] = BatchItemResult.accepted(firstIndex + i, transactions.get(j).getId());
+            }
+        } catch (RuntimeException e) {
+            log.error("[TransactionBatchService] [TxId: {}] ❌ Failed to save chunk - FirstIndex: {}, Requests: {}, Error: {}",
+                batchId, firstIndex, chunk.size(), e.getMessage(), e);
+            // El rollback deshace todo el bloque: solo conservan su resultado las ya rechazadas
+            for (int i = 0; i < results.length; i++) {
+                if (results[i] == null) {
+                    results[i] = BatchItemResult.rejected(firstIndex + i, "Could not create transaction");
+                }
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    private String validate(TransactionRequestDTO request) {
+        if (request == null) {
+            return MALFORMED_REQUEST;
+        }
+        Set<ConstraintViolation<TransactionRequestDTO>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+        }
+        if (request.getDescription() == null) {
+            return "description is required";
+        }
+        if (request.getFromAccountNumber().equals(request.getToAccountNumber())) {
+            return "FromAccount and ToAccount cannot be the same";
+        }
+        return null;
+    }
+
+    /**
+     * Comprueba que las transferencias anteriores del lote sobre las dos cuentas van con la
+     * misma clave de partición, para que account-service las aplique en orden.
+     */
+    private static String validateOrdering(CachedAccount from, CachedAccount to, Map<UUID, AccountClaim> claims) {
+        AccountClaim fromClaim = claims.get(from.id());
+        AccountClaim toClaim = claims.get(to.id());
+        if (fromClaim != null && toClaim != null && !fromClaim.partitionAccount().equals(toClaim.partitionAccount())) {
+            return "Accounts " + from.accountNumber() + " and " + to.accountNumber() + " are already used by items "
+                + fromClaim.lastIndex() + " and " + toClaim.lastIndex()
+                + " of this batch; submit this transfer after those complete";
+        }
+        return null;
+    }
+
+    private static long transfers(AccountClaim claim) {
+        return claim == null ? 0 : claim.transfers();
+    }
+
+    private static String validateAccounts(TransactionRequestDTO request, CachedAccount from, CachedAccount to) {
+        if (from == null) {
+            return "Account with number " + request.getFromAccountNumber() + " not found";
+        }
+        if (to == null) {
+            return "Account with number " + request.getToAccountNumber() + " not found";
+        }
+        if (from.status() != AccountStatus.ACTIVE || to.status() != AccountStatus.ACTIVE) {
+            return "One or both accounts are not ACTIVE";
+        }
+        return null;
+    }
+
+    /**
+     * @param fromTransfers transferencias anteriores del lote sobre la cuenta origen
+     * @param toTransfers   transferencias anteriores del lote sobre la cuenta destino
+     */
+    private Transaction newTransaction(CachedAccount from, long fromTransfers, CachedAccount to, long toTransfers,
+                                       TransactionRequestDTO request) {
+        Transaction t = Transaction.builder()
+                .amount(request.getAmount())
+                .description(request.getDescription())
+                .type(request.getType())
+                .build();
+        t.setFromAccount(accountService.getReference(from.id()));
+        t.setToAccount(accountService.getReference(to.id()));
+        t.setFromAccountVersionId(from.versionId() + fromTransfers);
+        t.setToAccountVersionId(to.versionId() + toTransfers);
+        t.setStatus(TransactionStatus.PENDING);
+        t.setObservations("Started Transaction");
+        return t;
+    }
+
+    /**
+     * Uso de una cuenta dentro del lote.
+     *
+     * @param transfers        transferencias aceptadas que la usan
+     * @param partitionAccount cuenta cuyo id es la clave con la que se publican
+     * @param lastIndex        índice de la última petición aceptada que la usa
+     */
+    private record AccountClaim(long transfers, UUID partitionAccount, int lastIndex) {
+    }
+
+    /**
+     * Resultado de una petición del lote: la transacción creada o el motivo del rechazo.
+     */
+    public record BatchItemResult(int index, UUID transactionId, String error) {
+
+        static BatchItemResult accepted(int index, UUID transactionId) {
+            return new BatchItemResult(index, transactionId, null);
+        }
+
+        static BatchItemResult rejected(int index, String error) {
+            return new BatchItemResult(index, null, error);
+        }
+
+        public boolean accepted() {
+            return error == null;
+        }
+    }
+}
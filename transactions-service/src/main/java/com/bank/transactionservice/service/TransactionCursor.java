@@ -0,0 +1,45 @@
+package com.bank.transactionservice.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+import com.bank.transactionservice.exception.InvalidTransactionData;
+import com.bank.transactionservice.repository.TransactionView;
+
+/**
+ * Posición en el historial de una cuenta, ordenado por (created_at, id).
+ *
+ * Se entrega al cliente como texto opaco en base64 url-safe; el cliente solo lo
+ * devuelve en el parámetro before para pedir la página siguiente.
+ */
+public record TransactionCursor(LocalDateTime createdAt, UUID id) {
+
+    private static final String SEPARATOR = "|";
+
+    public static TransactionCursor of(TransactionView transaction) {
+        return new TransactionCursor(transaction.getCreatedAt(), transaction.getId());
+    }
+
+    public String encode() {
+        byte[] raw = (createdAt + SEPARATOR + id).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+    }
+
+    public static TransactionCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new InvalidTransactionData("Invalid transaction cursor: " + cursor);
+            }
+            return new TransactionCursor(
+                LocalDateTime.parse(raw.substring(0, separator)),
+                UUID.fromString(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidTransactionData("Invalid transaction cursor: " + cursor, e);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.bank.transactionservice.service;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.bank.transactionservice.exception.InvalidTransactionData;
+import com.bank.transactionservice.repository.TransactionRepository;
+import com.bank.transactionservice.repository.TransactionView;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Historial de transacciones de una cuenta, como origen o como destino.
+ *
+ * Se pagina por keyset sobre (created_at, id), de la más reciente a la más antigua: cada
+ * lado se lee por su índice empezando en el cursor y Postgres mezcla ambos, así que el
+ * coste de una página no depende de la longitud del historial.
+ */
+@Slf4j
+@Service
+public class TransactionHistoryService {
+
+    private final TransactionRepository transactionRepository;
+    private final AccountService accountService;
+    private final int defaultLimit;
+    private final int maxLimit;
+
+    public TransactionHistoryService(
+            TransactionRepository transactionRepository,
+            AccountService accountService,
+            @Value("${spring.transactions.history.default-limit:50}") int defaultLimit,
+            @Value("${spring.transactions.history.max-limit:500}") int maxLimit) {
+        this.transactionRepository = transactionRepository;
+        this.accountService = accountService;
+        this.defaultLimit = defaultLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    /**
+     * Devuelve hasta limit transacciones de la cuenta anteriores al cursor, o las más
+     * recientes si no hay cursor. nextCursor es null cuando no quedan más.
+     */
+    @Transactional(readOnly = true)
+    public TransactionHistoryPage findHistory(String accountNumber, TransactionCursor before, Integer limit) {
+        int size = resolveLimit(limit);
+        UUID accountId = accountService.getByAccountNumber(accountNumber).id();
+        log.debug("[TransactionHistoryService] Retrieving history - AccountId: {}, Before: {}, Limit: {}",
+            accountId, before, size);
+        // Se pide una fila de más para saber si hay página siguiente
+        List<TransactionView> transactions = before == null
+            ? transactionRepository.findHistory(accountId, size + 1)
+            : transactionRepository.findHistoryBefore(accountId, before.createdAt(), before.id(), size + 1);
+        if (transactions.size() <= size) {
+            return new TransactionHistoryPage(transactions, null);
+        }
+        List<TransactionView> page = transactions.subList(0, size);
+        return new TransactionHistoryPage(page, TransactionCursor.of(page.get(size - 1)));
+    }
+
+    private int resolveLimit(Integer limit) {
+        if (limit == null) {
+            return defaultLimit;
+        }
+        if (limit < 1 || limit > maxLimit) {
+            throw new InvalidTransactionData("limit must be between 1 and " + maxLimit);
+        }
+        return limit;
+    }
+
+    public record TransactionHistoryPage(List<TransactionView> transactions, TransactionCursor nextCursor) {}
+}
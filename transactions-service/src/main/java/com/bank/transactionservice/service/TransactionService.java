@@ -4,19 +4,26 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
 import com.bank.transactionservice.exception.InvalidTransactionData;
 import com.bank.transactionservice.exception.TransactionNotFound;
-import com.bank.transactionservice.model.account.Account;
+import com.bank.transactionservice.model.Ids;
 import com.bank.transactionservice.model.account.AccountStatus;
 import com.bank.transactionservice.model.transaction.Transaction;
 import com.bank.transactionservice.model.transaction.TransactionStatus;
 import com.bank.transactionservice.model.transaction.TransactionType;
+import com.bank.transactionservice.observability.MetricService;
 import com.bank.transactionservice.repository.TransactionRepository;
+import com.bank.transactionservice.repository.TransactionView;
+import com.bank.transactionservice.service.AccountCache.CachedAccount;
 
 /**
  * Servicio de gestión de transacciones.
@@ -30,15 +37,16 @@ public class TransactionService {
     private final AccountService accountService;
     private final TransactionRepository transactionRepository;
     private final OutboxService outboxService;
+    private final MetricService metricService;
 
-    public List<Transaction> getAllTransactions() {
+    public List<TransactionView> getAllTransactions() {
         log.debug("[TransactionService] Retrieving all transactions");
-        return transactionRepository.findAll();
+        return transactionRepository.findAllViews();
     }
 
-    public Transaction getTransactionById(UUID id) {
+    public TransactionView getTransactionById(UUID id) {
         log.debug("[TransactionService] Retrieving transaction - TransactionId: {}", id);
-        Transaction t = transactionRepository.findById(id)
+        TransactionView t = transactionRepository.findViewById(id)
                 .orElseThrow(() -> {
                     log.warn("[TransactionService] Transaction not found - TransactionId: {}", id);
                     return new TransactionNotFound("Transaction with ID " + id + " not found");
@@ -48,7 +56,7 @@ public class TransactionService {
 
     @Transactional
     public Transaction createTransaction(String fromAccountNumber, String toAccountNumber, BigDecimal amount, TransactionType type, String description) {
-        UUID transactionId = UUID.randomUUID();
+        UUID transactionId = Ids.next();
         log.info("[TransactionService] [TxId: {}] Creating new transaction - FromAccount: {}, ToAccount: {}, Amount: {}", 
             transactionId, fromAccountNumber, toAccountNumber, amount);
 
@@ -58,8 +66,8 @@ public class TransactionService {
             throw new InvalidTransactionData("FromAccount and ToAccount cannot be the same");
         }
         
-        Account fromAccount = accountService.getByAccountNumber(fromAccountNumber);
-        Account toAccount = accountService.getByAccountNumber(toAccountNumber);
+        CachedAccount fromAccount = accountService.getByAccountNumber(fromAccountNumber);
+        CachedAccount toAccount = accountService.getByAccountNumber(toAccountNumber);
 
         validateTransaction(fromAccount, toAccount, amount, type, description);
         
@@ -69,11 +77,10 @@ public class TransactionService {
                 .description(description)
                 .type(type)
                 .build();
-        t.setId(UUID.randomUUID());
-        t.setFromAccount(fromAccount);
-        t.setToAccount(toAccount);
-        t.setFromAccountVersionId(fromAccount.getVersionId());
-        t.setToAccountVersionId(toAccount.getVersionId());
+        t.setFromAccount(accountService.getReference(fromAccount.id()));
+        t.setToAccount(accountService.getReference(toAccount.id()));
+        t.setFromAccountVersionId(fromAccount.versionId());
+        t.setToAccountVersionId(toAccount.versionId());
         t.setStatus(TransactionStatus.PENDING);
         t.setObservations("Started Transaction");
         Transaction saved = transactionRepository.save(t);
@@ -84,14 +91,14 @@ public class TransactionService {
         return saved;
     }
 
-    private void validateTransaction(Account fromAccount, Account toAccount, BigDecimal amount, TransactionType type, String description) {
-        UUID transactionId = UUID.randomUUID();
+    private void validateTransaction(CachedAccount fromAccount, CachedAccount toAccount, BigDecimal amount, TransactionType type, String description) {
+        UUID transactionId = Ids.next();
         log.debug("[TransactionService] [TxId: {}] Validating transaction - FromAccount: {}, ToAccount: {}", 
-            transactionId, fromAccount.getAccountNumber(), toAccount.getAccountNumber());
+            transactionId, fromAccount.accountNumber(), toAccount.accountNumber());
         
-        if (!fromAccount.getStatus().equals(AccountStatus.ACTIVE) || !toAccount.getStatus().equals(AccountStatus.ACTIVE)) {
+        if (!fromAccount.status().equals(AccountStatus.ACTIVE) || !toAccount.status().equals(AccountStatus.ACTIVE)) {
             log.warn("[TransactionService] [TxId: {}] Invalid account status - FromAccountStatus: {}, ToAccountStatus: {}", 
-                transactionId, fromAccount.getStatus(), toAccount.getStatus());
+                transactionId, fromAccount.status(), toAccount.status());
             throw new InvalidTransactionData("One or both accounts are not ACTIVE");
         }
         
@@ -108,11 +115,33 @@ public class TransactionService {
                     return new TransactionNotFound("Transaction with ID " + transactionId + " not found");
                 });
         
+        TransactionStatus previousStatus = transaction.getStatus();
         transaction.setStatus(newStatus);
         transaction.setObservations(observations);
         transactionRepository.save(transaction);
+        if (previousStatus == TransactionStatus.PENDING && newStatus != TransactionStatus.PENDING) {
+            recordSagaDurationAfterCommit(newStatus, transaction.getCreatedAt());
+        }
         
         log.info("[TransactionService] ✅ Transaction updated successfully - TransactionId: {}, NewStatus: {}", 
             transactionId, transaction.getStatus());
     }
+
+    /**
+     * Fin de la saga: desde que se creó la transacción hasta que su resultado está
+     * confirmado en base de datos. Si la transacción se deshace y el evento se reentrega,
+     * solo se mide el intento que llega a confirmarse.
+     */
+    private void recordSagaDurationAfterCommit(TransactionStatus status, LocalDateTime createdAt) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            metricService.sagaDuration(status).record(Duration.between(createdAt, LocalDateTime.now()));
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                metricService.sagaDuration(status).record(Duration.between(createdAt, LocalDateTime.now()));
+            }
+        });
+    }
 }
\ No newline at end of file
@@ -0,0 +1,173 @@
+package com.bank.transactionservice.service.replica;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.WakeupException;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.stereotype.Component;
+
+import com.bank.transactionservice.event.consumer.AccountProcessedEvent;
+import com.bank.transactionservice.kafka.KafkaTopics;
+import com.bank.transactionservice.service.AccountCache;
+import com.bank.transactionservice.service.AccountCache.CachedAccount;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Alimenta AccountStateStore desde account.created y account.updated.
+ *
+ * A diferencia de los listeners, no forma parte del grupo de consumidores: cada
+ * instancia necesita la réplica completa, así que se asigna todas las particiones y
+ * no confirma offsets en Kafka; la posición de cada partición se guarda en el propio
+ * state store junto con los datos. Al arrancar mide el final de cada partición y marca
+ * la réplica como lista cuando lo alcanza.
+ *
+ * Con el state store activo es el único consumidor de estos topics fuera del grupo: cada
+ * evento aplicado refresca también AccountCache, que AccountService usa mientras la
+ * réplica no está lista, en lugar de que AccountCacheRefresher vuelva a leerlos.
+ */
+@Slf4j
+@Component
+public class AccountReplicaLoader implements SmartLifecycle {
+
+    private static final Duration POLL_TIMEOUT = Duration.ofMillis(500);
+    private static final String GROUP_ID = "transaction-service-account-replica";
+    private static final List<String> TOPICS = List.of(KafkaTopics.ACCOUNT_CREATED, KafkaTopics.ACCOUNT_UPDATED);
+
+    /** La posición la lleva el state store: nunca se confirman offsets en Kafka. */
+    private static final Properties CONSUMER_OVERRIDES = new Properties();
+
+    static {
+        CONSUMER_OVERRIDES.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+        CONSUMER_OVERRIDES.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, "2000");
+    }
+
+    private final AccountStateStore accountStateStore;
+    private final AccountCache accountCache;
+    private final ConsumerFactory<String, AccountProcessedEvent> consumerFactory;
+
+    private volatile boolean running;
+    private volatile Consumer<String, AccountProcessedEvent> consumer;
+    private Thread loader;
+
+    public AccountReplicaLoader(
+            AccountStateStore accountStateStore,
+            AccountCache accountCache,
+            ConsumerFactory<String, AccountProcessedEvent> accountProcessedEventConsumerFactory) {
+        this.accountStateStore = accountStateStore;
+        this.accountCache = accountCache;
+        this.consumerFactory = accountProcessedEventConsumerFactory;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        loader = new Thread(this::run, "account-replica-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (consumer != null) {
+            consumer.wakeup();
+        }
+        try {
+            loader.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return accountStateStore.isEnabled();
+    }
+
+    private void run() {
+        try (Consumer<String, AccountProcessedEvent> replicaConsumer =
+                 consumerFactory.createConsumer(GROUP_ID, "account-replica", null, CONSUMER_OVERRIDES)) {
+            consumer = replicaConsumer;
+            Map<TopicPartition, Long> endOffsets = assignAll(replicaConsumer);
+            log.info("[AccountReplicaLoader] Loading account replica - Partitions: {}", endOffsets.size());
+            long applied = 0;
+            while (running) {
+                ConsumerRecords<String, AccountProcessedEvent> records = replicaConsumer.poll(POLL_TIMEOUT);
+                for (ConsumerRecord<String, AccountProcessedEvent> record : records) {
+                    AccountProcessedEvent event = record.value();
+                    // Los tombstones de la compactación solo avanzan el offset
+                    accountStateStore.apply(event, new TopicPartition(record.topic(), record.partition()), record.offset());
+                    if (event != null) {
+                        accountCache.refresh(new CachedAccount(
+                            event.accountId(), event.accountNumber(), event.status(), event.version()));
+                    }
+                }
+                applied += records.count();
+                if (!accountStateStore.isReady() && caughtUp(replicaConsumer, endOffsets)) {
+                    accountStateStore.markReady();
+                    log.info("[AccountReplicaLoader] ✅ Account replica caught up - Events applied: {}", applied);
+                }
+            }
+        } catch (WakeupException e) {
+            log.debug("[AccountReplicaLoader] Loader woken up for shutdown");
+        } catch (RuntimeException e) {
+            // Sin réplica al día las consultas vuelven a la tabla account; la caché deja de
+            // refrescarse, así que se vacía y sus entradas se vuelven a leer de la tabla
+            accountStateStore.markUnavailable();
+            accountCache.clear();
+            log.error("[AccountReplicaLoader] ❌ Account replica loader stopped - Error: {}", e.getMessage(), e);
+        } finally {
+            running = false;
+        }
+    }
+
+    /**
+     * Se asigna todas las particiones de los topics de cuentas y se posiciona en el
+     * offset guardado, o al principio si la réplica está vacía.
+     *
+     * @return offset final de cada partición en el momento de arrancar
+     */
+    private Map<TopicPartition, Long> assignAll(Consumer<String, AccountProcessedEvent> replicaConsumer) {
+        List<TopicPartition> partitions = new ArrayList<>();
+        for (String topic : TOPICS) {
+            for (PartitionInfo partition : replicaConsumer.partitionsFor(topic)) {
+                partitions.add(new TopicPartition(topic, partition.partition()));
+            }
+        }
+        replicaConsumer.assign(partitions);
+        for (TopicPartition partition : partitions) {
+            long next = accountStateStore.nextOffset(partition);
+            if (next < 0) {
+                replicaConsumer.seekToBeginning(List.of(partition));
+            } else {
+                replicaConsumer.seek(partition, next);
+            }
+        }
+        return new HashMap<>(replicaConsumer.endOffsets(partitions));
+    }
+
+    private static boolean caughtUp(Consumer<String, AccountProcessedEvent> replicaConsumer,
+                                    Map<TopicPartition, Long> endOffsets) {
+        endOffsets.entrySet().removeIf(end -> replicaConsumer.position(end.getKey()) >= end.getValue());
+        return endOffsets.isEmpty();
+    }
+}
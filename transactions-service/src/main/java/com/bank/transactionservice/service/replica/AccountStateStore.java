@@ -0,0 +1,169 @@
+package com.bank.transactionservice.service.replica;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import org.apache.kafka.common.TopicPartition;
+import org.rocksdb.Options;
+import org.rocksdb.RocksDB;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.WriteBatch;
+import org.rocksdb.WriteOptions;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.bank.transactionservice.event.consumer.AccountProcessedEvent;
+import com.bank.transactionservice.exception.CouldNotAccessAccountReplica;
+import com.bank.transactionservice.service.AccountCache.CachedAccount;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Réplica de cuentas en un RocksDB local, alimentada desde los topics compactados
+ * account.created y account.updated por AccountReplicaLoader.
+ *
+ * Guarda cada cuenta por id, un índice número de cuenta → id y, en el mismo WriteBatch,
+ * el siguiente offset a leer de cada partición; así, tras un reinicio, la réplica sigue
+ * donde se quedó y, con el directorio vacío, se reconstruye leyendo los topics desde
+ * el principio sin pasar por Postgres. Igual que la tabla account, solo acepta un
+ * evento si trae una versión mayor que la guardada.
+ *
+ * Solo responde consultas cuando el loader ha alcanzado el final de los topics; hasta
+ * entonces AccountService sigue leyendo AccountCache y la tabla account. Cuando está al
+ * día, sustituye a la caché: AccountService lo consulta directamente, porque una entrada
+ * de la caché podría ir por detrás de lo que ya ha aplicado el loader.
+ */
+@Slf4j
+@Component
+public class AccountStateStore implements DisposableBean {
+
+    private static final String ACCOUNT_PREFIX = "account:";
+    private static final String NUMBER_PREFIX = "number:";
+    private static final String OFFSET_PREFIX = "offset:";
+
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Options options;
+    private final RocksDB db;
+    private volatile boolean ready;
+
+    public AccountStateStore(
+            ObjectMapper objectMapper,
+            @Value("${spring.account-replica.state-store.enabled:false}") boolean enabled,
+            @Value("${spring.account-replica.state-store.path:./data/account-replica}") Path path) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        if (enabled) {
+            RocksDB.loadLibrary();
+        }
+        this.options = enabled ? new Options().setCreateIfMissing(true) : null;
+        this.db = enabled ? open(options, path) : null;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Indica si la réplica está al día y puede responder consultas.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    void markReady() {
+        ready = true;
+    }
+
+    void markUnavailable() {
+        ready = false;
+    }
+
+    public Optional<CachedAccount> findByAccountNumber(String accountNumber) {
+        try {
+            byte[] id = db.get(key(NUMBER_PREFIX, accountNumber));
+            if (id == null) {
+                return Optional.empty();
+            }
+            return Optional.ofNullable(read(new String(id, StandardCharsets.UTF_8)));
+        } catch (RocksDBException | IOException e) {
+            throw new CouldNotAccessAccountReplica("Failed to read account " + accountNumber + " from the state store", e);
+        }
+    }
+
+    /**
+     * Siguiente offset a leer de la partición, o -1 si nunca se leyó.
+     */
+    long nextOffset(TopicPartition topicPartition) {
+        try {
+            byte[] offset = db.get(offsetKey(topicPartition));
+            return offset == null ? -1 : ByteBuffer.wrap(offset).getLong();
+        } catch (RocksDBException e) {
+            throw new CouldNotAccessAccountReplica("Failed to read the offset of " + topicPartition, e);
+        }
+    }
+
+    /**
+     * Aplica un evento de cuenta y avanza el offset de su partición de forma atómica.
+     * Lo llama únicamente el hilo del loader.
+     */
+    void apply(AccountProcessedEvent event, TopicPartition topicPartition, long offset) {
+        try (WriteBatch batch = new WriteBatch(); WriteOptions writeOptions = new WriteOptions()) {
+            if (event != null) {
+                String id = event.accountId().toString();
+                CachedAccount current = read(id);
+                if (current == null || current.versionId() < event.version()) {
+                    if (current != null && !current.accountNumber().equals(event.accountNumber())) {
+                        batch.delete(key(NUMBER_PREFIX, current.accountNumber()));
+                    }
+                    CachedAccount account = new CachedAccount(
+                        event.accountId(), event.accountNumber(), event.status(), event.version());
+                    batch.put(key(ACCOUNT_PREFIX, id), objectMapper.writeValueAsBytes(account));
+                    batch.put(key(NUMBER_PREFIX, event.accountNumber()), id.getBytes(StandardCharsets.UTF_8));
+                }
+            }
+            batch.put(offsetKey(topicPartition), ByteBuffer.allocate(Long.BYTES).putLong(offset + 1).array());
+            db.write(writeOptions, batch);
+        } catch (RocksDBException | IOException e) {
+            throw new CouldNotAccessAccountReplica("Failed to apply offset " + offset + " of " + topicPartition, e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (db != null) {
+            db.close();
+            options.close();
+        }
+    }
+
+    private CachedAccount read(String id) throws RocksDBException, IOException {
+        byte[] value = db.get(key(ACCOUNT_PREFIX, id));
+        return value == null ? null : objectMapper.readValue(value, CachedAccount.class);
+    }
+
+    private static RocksDB open(Options options, Path path) {
+        try {
+            Files.createDirectories(path);
+            RocksDB db = RocksDB.open(options, path.toString());
+            log.info("[AccountStateStore] State store opened - Path: {}", path.toAbsolutePath());
+            return db;
+        } catch (RocksDBException | IOException e) {
+            throw new CouldNotAccessAccountReplica("Failed to open the account state store at " + path, e);
+        }
+    }
+
+    private static byte[] offsetKey(TopicPartition topicPartition) {
+        return key(OFFSET_PREFIX, topicPartition.topic() + "-" + topicPartition.partition());
+    }
+
+    private static byte[] key(String prefix, String value) {
+        return (prefix + value).getBytes(StandardCharsets.UTF_8);
+    }
+}
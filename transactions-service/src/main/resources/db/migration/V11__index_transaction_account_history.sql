@@ -0,0 +1,7 @@
+-- Historial por cuenta: cada lado se recorre por el índice en orden (created_at, id)
+-- y la consulta une ambos con UNION ALL
+CREATE INDEX IF NOT EXISTS idx_transaction_from_account_created_at
+ON transaction (from_account_id, created_at, id);
+
+CREATE INDEX IF NOT EXISTS idx_transaction_to_account_created_at
+ON transaction (to_account_id, created_at, id);
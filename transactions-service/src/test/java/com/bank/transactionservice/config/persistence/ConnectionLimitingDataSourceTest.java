@@ -0,0 +1,60 @@
+package com.bank.transactionservice.config.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * La conexión prestada se comporta como cualquier otra ante equals, hashCode y
+ * unwrap, y devuelve su permiso una sola vez aunque se cierre varias.
+ */
+class ConnectionLimitingDataSourceTest {
+
+    private final DataSource target = mock(DataSource.class);
+    private ConnectionLimitingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(target.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+        dataSource = new ConnectionLimitingDataSource(target, 1, 50);
+    }
+
+    @Test
+    void proxyIsEqualToItselfAndHashesConsistently() throws SQLException {
+        Connection connection = dataSource.getConnection();
+
+        assertThat(connection).isEqualTo(connection);
+        assertThat(connection.hashCode()).isEqualTo(connection.hashCode());
+        assertThat(connection.toString()).startsWith("Permit-limited proxy");
+        connection.close();
+        assertThat(connection).isNotEqualTo(dataSource.getConnection());
+    }
+
+    @Test
+    void unwrapsToTheProxyBeforeDelegating() throws SQLException {
+        Connection connection = dataSource.getConnection();
+
+        assertThat(connection.isWrapperFor(Connection.class)).isTrue();
+        assertThat(connection.unwrap(Connection.class)).isSameAs(connection);
+    }
+
+    @Test
+    void releasesThePermitOnlyOnce() throws SQLException {
+        Connection connection = dataSource.getConnection();
+        connection.close();
+        connection.close();
+
+        dataSource.getConnection();
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+    }
+}
@@ -0,0 +1,129 @@
+package com.bank.transactionservice.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+
+import com.bank.transactionservice.config.persistence.AuditorAwareImpl;
+import com.bank.transactionservice.config.persistence.JpaConfig;
+import com.bank.transactionservice.dto.response.TransactionResponseDTO;
+import com.bank.transactionservice.mapper.TransactionMapper;
+import com.bank.transactionservice.model.account.Account;
+import com.bank.transactionservice.model.account.AccountStatus;
+import com.bank.transactionservice.model.transaction.Transaction;
+import com.bank.transactionservice.model.transaction.TransactionStatus;
+import com.bank.transactionservice.model.transaction.TransactionType;
+
+/**
+ * Las lecturas de transacciones devuelven los números de cuenta en la misma consulta:
+ * listar N transacciones no puede lanzar un SELECT por cada cuenta referenciada.
+ */
+@DataJpaTest(properties = {
+    "spring.flyway.enabled=false",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "spring.jpa.properties.hibernate.globally_quoted_identifiers=true",
+    // Sin esto el columnDefinition "TEXT" del outbox también se entrecomilla y H2 no lo reconoce
+    "spring.jpa.properties.hibernate.globally_quoted_identifiers_skip_column_definitions=true"
+})
+@Import(JpaConfig.class)
+class TransactionViewQueriesTest {
+
+    /**
+     * JpaConfig busca el auditor por el nombre que le da el escaneo de componentes.
+     */
+    @TestConfiguration
+    static class AuditingConfig {
+
+        @Bean
+        AuditorAwareImpl auditorAwareImpl() {
+            return new AuditorAwareImpl();
+        }
+    }
+
+    private static final int TRANSACTIONS = 20;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private final TransactionMapper transactionMapper = new TransactionMapper();
+
+    private Statistics statistics;
+    private Transaction first;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+            .unwrap(SessionFactory.class).getStatistics();
+        for (int i = 0; i < TRANSACTIONS; i++) {
+            // Cuentas distintas en cada transacción, como en un listado real
+            Account from = entityManager.persist(account("FROM%03d".formatted(i)));
+            Account to = entityManager.persist(account("TO%03d".formatted(i)));
+            Transaction transaction = entityManager.persist(Transaction.builder()
+                .fromAccount(from)
+                .toAccount(to)
+                .amount(BigDecimal.TEN)
+                .type(TransactionType.TRANSFER)
+                .description("Transfer " + i)
+                .fromAccountVersionId(0L)
+                .toAccountVersionId(0L)
+                .status(TransactionStatus.PENDING)
+                .observations("")
+                .build());
+            if (first == null) {
+                first = transaction;
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+    }
+
+    @Test
+    void listingTransactionsRunsASingleStatement() {
+        List<TransactionResponseDTO> responses = transactionRepository.findAllViews().stream()
+            .map(transactionMapper::fromViewToResponse)
+            .toList();
+
+        assertThat(responses).hasSize(TRANSACTIONS);
+        assertThat(responses).allSatisfy(response -> {
+            assertThat(response.getFromAccountNumber()).startsWith("FROM");
+            assertThat(response.getToAccountNumber()).startsWith("TO");
+        });
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void readingOneTransactionRunsASingleStatement() {
+        TransactionResponseDTO response = transactionRepository.findViewById(first.getId())
+            .map(transactionMapper::fromViewToResponse)
+            .orElseThrow();
+
+        assertThat(response.getFromAccountNumber()).isEqualTo("FROM000");
+        assertThat(response.getToAccountNumber()).isEqualTo("TO000");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    private static Account account(String accountNumber) {
+        return Account.builder()
+            .accountNumber(accountNumber)
+            .status(AccountStatus.ACTIVE)
+            .versionId(0L)
+            .build();
+    }
+}
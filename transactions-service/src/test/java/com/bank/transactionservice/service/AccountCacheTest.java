@@ -0,0 +1,95 @@
+package com.bank.transactionservice.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.bank.transactionservice.model.account.AccountStatus;
+import com.bank.transactionservice.observability.MetricService;
+import com.bank.transactionservice.service.AccountCache.CachedAccount;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Una entrada de la caché nunca se sustituye por una versión menor, y un cambio de
+ * número de cuenta mueve la entrada a la clave nueva.
+ */
+class AccountCacheTest {
+
+    private static final UUID ACCOUNT_ID = UUID.randomUUID();
+
+    private final AtomicInteger loads = new AtomicInteger();
+    private AccountCache accountCache;
+
+    @BeforeEach
+    void setUp() {
+        accountCache = new AccountCache(new MetricService(new SimpleMeterRegistry()), 100, 60_000);
+        loads.set(0);
+    }
+
+    @Test
+    void keepsTheHigherVersionWhenALowerOneArrivesLater() {
+        accountCache.put(account("ACC001", 5));
+        accountCache.put(account("ACC001", 4));
+
+        assertThat(accountCache.get("ACC001", notLoaded())).map(CachedAccount::versionId).contains(5L);
+        assertThat(loads).hasValue(0);
+    }
+
+    @Test
+    void acceptsAnEqualOrHigherVersion() {
+        accountCache.put(account("ACC001", 5));
+        accountCache.put(new CachedAccount(ACCOUNT_ID, "ACC001", AccountStatus.SUSPENDED, 5));
+        assertThat(accountCache.get("ACC001", notLoaded())).map(CachedAccount::status).contains(AccountStatus.SUSPENDED);
+
+        accountCache.put(account("ACC001", 6));
+        assertThat(accountCache.get("ACC001", notLoaded())).map(CachedAccount::versionId).contains(6L);
+    }
+
+    @Test
+    void movesTheEntryWhenTheAccountNumberChanges() {
+        accountCache.put(account("ACC001", 1));
+        accountCache.put(account("ACC002", 2));
+
+        assertThat(accountCache.size()).isEqualTo(1);
+        assertThat(accountCache.get("ACC002", notLoaded())).map(CachedAccount::versionId).contains(2L);
+        assertThat(accountCache.get("ACC001", notLoaded())).isEmpty();
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void ignoresARenameWithALowerVersion() {
+        accountCache.put(account("ACC002", 2));
+        accountCache.put(account("ACC001", 1));
+
+        assertThat(accountCache.size()).isEqualTo(1);
+        assertThat(accountCache.get("ACC002", notLoaded())).map(CachedAccount::versionId).contains(2L);
+    }
+
+    @Test
+    void refreshOnlyUpdatesCachedAccounts() {
+        accountCache.refresh(account("ACC001", 1));
+        assertThat(accountCache.size()).isZero();
+
+        accountCache.put(account("ACC001", 1));
+        accountCache.refresh(account("ACC001", 3));
+        assertThat(accountCache.get("ACC001", notLoaded())).map(CachedAccount::versionId).contains(3L);
+    }
+
+    private Function<String, Optional<CachedAccount>> notLoaded() {
+        return accountNumber -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        };
+    }
+
+    private static CachedAccount account(String accountNumber, long versionId) {
+        return new CachedAccount(ACCOUNT_ID, accountNumber, AccountStatus.ACTIVE, versionId);
+    }
+}
@@ -0,0 +1,139 @@
+package com.bank.transactionservice.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.bank.transactionservice.dto.request.TransactionRequestDTO;
+import com.bank.transactionservice.model.account.Account;
+import com.bank.transactionservice.model.account.AccountStatus;
+import com.bank.transactionservice.model.transaction.Transaction;
+import com.bank.transactionservice.model.transaction.TransactionType;
+import com.bank.transactionservice.repository.TransactionRepository;
+import com.bank.transactionservice.service.AccountCache.CachedAccount;
+import com.bank.transactionservice.service.TransactionBatchService.BatchItemResult;
+
+import jakarta.validation.Validator;
+
+/**
+ * Una cuenta puede aparecer en muchas transferencias del lote: cada una lleva la versión
+ * que tendrá la cuenta cuando se aplique y todas las que comparten cuentas se publican con
+ * la misma clave de partición, para que account-service las aplique en ese orden.
+ */
+class TransactionBatchServiceTest {
+
+    private final AccountService accountService = mock(AccountService.class);
+    private final OutboxService outboxService = mock(OutboxService.class);
+    private final Map<String, CachedAccount> accounts = new HashMap<>();
+    private final Map<UUID, String> accountNumbers = new HashMap<>();
+    private final List<Transaction> published = new ArrayList<>();
+    private final List<String> partitionKeys = new ArrayList<>();
+    private TransactionBatchService transactionBatchService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        for (String accountNumber : List.of("PAYER", "PAYEE1", "PAYEE2", "PAYEE3", "OTHER1", "OTHER2")) {
+            CachedAccount account = new CachedAccount(UUID.randomUUID(), accountNumber, AccountStatus.ACTIVE, 1);
+            accounts.put(accountNumber, account);
+            accountNumbers.put(account.id(), accountNumber);
+        }
+        when(accountService.getByAccountNumbers(anyCollection())).thenReturn(accounts);
+        when(accountService.getReference(any(UUID.class))).thenAnswer(invocation -> {
+            Account account = Account.builder().accountNumber(accountNumbers.get(invocation.getArgument(0))).build();
+            account.setId(invocation.getArgument(0));
+            return account;
+        });
+        doAnswer(invocation -> {
+            published.addAll(invocation.getArgument(0));
+            partitionKeys.addAll(invocation.getArgument(1));
+            return null;
+        }).when(outboxService).saveTransactions(anyList(), anyList());
+        transactionBatchService = new TransactionBatchService(
+            accountService,
+            mock(TransactionRepository.class),
+            outboxService,
+            mock(Validator.class),
+            mock(PlatformTransactionManager.class),
+            2);
+    }
+
+    @Test
+    void givesEachTransferFromTheSameAccountTheNextVersion() {
+        List<BatchItemResult> results = transactionBatchService.createTransactions(List.of(
+            transfer("PAYER", "PAYEE1"),
+            transfer("PAYER", "PAYEE2"),
+            transfer("OTHER1", "OTHER2"),
+            transfer("PAYER", "PAYEE3")).iterator());
+
+        assertThat(results).allMatch(BatchItemResult::accepted);
+        // Las versiones siguen contando entre bloques de chunk-size
+        assertThat(published).extracting(Transaction::getFromAccountVersionId).containsExactly(1L, 2L, 1L, 3L);
+        assertThat(published).extracting(Transaction::getToAccountVersionId).containsExactly(1L, 1L, 1L, 1L);
+        assertThat(partitionKeys).containsExactly(key("PAYER"), key("PAYER"), key("OTHER1"), key("PAYER"));
+    }
+
+    @Test
+    void publishesATransferUnderTheKeyOfItsAccountsEarlierTransfers() {
+        List<BatchItemResult> results = transactionBatchService.createTransactions(List.of(
+            transfer("PAYEE1", "OTHER1"),
+            transfer("PAYER", "PAYEE1"),
+            transfer("OTHER2", "OTHER1")).iterator());
+
+        assertThat(results).allMatch(BatchItemResult::accepted);
+        assertThat(published).extracting(Transaction::getFromAccountVersionId).containsExactly(1L, 1L, 1L);
+        assertThat(published).extracting(Transaction::getToAccountVersionId).containsExactly(1L, 2L, 2L);
+        assertThat(partitionKeys).containsOnly(key("PAYEE1"));
+    }
+
+    @Test
+    void rejectsATransferThatJoinsAccountsPublishedUnderDifferentKeys() {
+        List<BatchItemResult> results = transactionBatchService.createTransactions(List.of(
+            transfer("PAYER", "PAYEE1"),
+            transfer("OTHER1", "OTHER2"),
+            transfer("PAYEE1", "OTHER2")).iterator());
+
+        assertThat(results).extracting(BatchItemResult::accepted).containsExactly(true, true, false);
+        assertThat(results.get(2).error()).contains("PAYEE1").contains("OTHER2").contains("items 0 and 1");
+    }
+
+    @Test
+    void onlyCountsTransfersThatWereAccepted() {
+        List<BatchItemResult> results = transactionBatchService.createTransactions(List.of(
+            transfer("PAYER", "PAYER"),
+            transfer("PAYER", "MISSING"),
+            transfer("PAYER", "PAYEE1")).iterator());
+
+        assertThat(results).extracting(BatchItemResult::accepted).containsExactly(false, false, true);
+        assertThat(published).extracting(Transaction::getFromAccountVersionId).containsExactly(1L);
+    }
+
+    private String key(String accountNumber) {
+        return accounts.get(accountNumber).id().toString();
+    }
+
+    private static TransactionRequestDTO transfer(String from, String to) {
+        return TransactionRequestDTO.builder()
+            .fromAccountNumber(from)
+            .toAccountNumber(to)
+            .amount(BigDecimal.TEN)
+            .type(TransactionType.TRANSFER)
+            .description("Payroll")
+            .build();
+    }
+}